@@ -0,0 +1,121 @@
+package com.github.ignasbudreika.portfollow.benchmark;
+
+import com.github.ignasbudreika.portfollow.PortfollowApplication;
+import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.model.*;
+import com.github.ignasbudreika.portfollow.repository.*;
+import com.github.ignasbudreika.portfollow.service.PortfolioHistoryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backfills the portfolio history of a back-dated investment day by day, with one find and one
+ * save per day as before the batched path, and with
+ * {@link PortfolioHistoryService#createOrUpdatePortfolioHistory}. Needs Docker for PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PortfolioHistoryBackfillBenchmark {
+    private static final LocalDate INVESTMENT_DATE = LocalDate.of(2023, 1, 1);
+    private static final BigDecimal ASSET_PRICE = BigDecimal.TEN;
+    private static final BigDecimal QUANTITY = BigDecimal.ONE;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private PortfolioHistoryService portfolioHistoryService;
+    private PortfolioHistoryRepository portfolioHistoryRepository;
+    private Investment dayByDayInvestment;
+    private Investment batchedInvestment;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres")
+                .withDatabaseName("postgres")
+                .withUsername("benchmarkUser")
+                .withPassword("benchmarkPass");
+        postgres.start();
+
+        context = new SpringApplicationBuilder(PortfollowApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword())
+                .run();
+        portfolioHistoryService = context.getBean(PortfolioHistoryService.class);
+        portfolioHistoryRepository = context.getBean(PortfolioHistoryRepository.class);
+
+        Asset asset = context.getBean(AssetRepository.class).save(Asset.builder()
+                .symbol("BENCH")
+                .price(ASSET_PRICE)
+                .type(InvestmentType.STOCK).build());
+        dayByDayInvestment = createInvestment(asset, "day-by-day");
+        batchedInvestment = createInvestment(asset, "batched");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void dayByDay() {
+        for (LocalDate date = dayByDayInvestment.getDate(); !date.isAfter(LocalDate.now()); date = date.plusDays(1)) {
+            PortfolioHistory portfolioHistory = portfolioHistoryRepository.findFirstByUserIdAndDate(dayByDayInvestment.getUser().getId(), date);
+            if (portfolioHistory == null) {
+                portfolioHistory = PortfolioHistory.builder()
+                        .user(dayByDayInvestment.getUser())
+                        .date(date).build();
+            }
+
+            portfolioHistory.setInvestmentIds(Set.of(dayByDayInvestment.getId()));
+            portfolioHistory.setValue(dayByDayInvestment.getQuantityAt(date).multiply(dayByDayInvestment.getAsset().getPrice()).setScale(8, RoundingMode.HALF_UP));
+            portfolioHistoryRepository.save(portfolioHistory);
+        }
+    }
+
+    @Benchmark
+    public void batched() {
+        portfolioHistoryService.createOrUpdatePortfolioHistory(batchedInvestment);
+    }
+
+    private Investment createInvestment(Asset asset, String username) {
+        User user = context.getBean(UserRepository.class).save(User.builder()
+                .email(username + "@e.mail")
+                .username(username)
+                .googleId(username).build());
+        Investment investment = context.getBean(InvestmentRepository.class).save(Investment.builder()
+                .symbol(asset.getSymbol())
+                .quantity(QUANTITY)
+                .amount(QUANTITY.multiply(ASSET_PRICE))
+                .type(asset.getType())
+                .updateType(InvestmentUpdateType.MANUAL)
+                .user(user)
+                .asset(asset)
+                .date(INVESTMENT_DATE).build());
+        InvestmentTransaction transaction = context.getBean(InvestmentTransactionRepository.class).save(InvestmentTransaction.builder()
+                .investment(investment)
+                .type(InvestmentTransactionType.BUY)
+                .quantity(QUANTITY)
+                .date(INVESTMENT_DATE).build());
+        investment.setTransactions(Set.of(transaction));
+
+        return investment;
+    }
+}
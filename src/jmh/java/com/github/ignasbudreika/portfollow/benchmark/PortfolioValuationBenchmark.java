@@ -0,0 +1,93 @@
+package com.github.ignasbudreika.portfollow.benchmark;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
+import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentTransaction;
+import com.github.ignasbudreika.portfollow.util.FixedPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Values a portfolio on every day of a year, once with the BigDecimal stream arithmetic the
+ * valuation services used and once with {@link FixedPoint}. Run with {@code -prof gc} to compare
+ * allocation per operation alongside latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PortfolioValuationBenchmark {
+    private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 365;
+
+    @Param({"40"})
+    private int investments;
+    @Param({"25"})
+    private int transactionsPerInvestment;
+
+    private List<Investment> portfolio;
+    private BigDecimal[][] prices;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        portfolio = new ArrayList<>();
+        prices = new BigDecimal[investments][DAYS];
+
+        for (int i = 0; i < investments; i++) {
+            Set<InvestmentTransaction> transactions = new HashSet<>();
+            for (int t = 0; t < transactionsPerInvestment; t++) {
+                transactions.add(InvestmentTransaction.builder()
+                        .type(t % 4 == 3 ? InvestmentTransactionType.SELL : InvestmentTransactionType.BUY)
+                        .quantity(BigDecimal.valueOf(random.nextInt(1_000_000_000), 8).add(BigDecimal.ONE))
+                        .date(FROM.plusDays(random.nextInt(DAYS))).build());
+            }
+            portfolio.add(Investment.builder().id(String.valueOf(i)).transactions(transactions).build());
+
+            for (int day = 0; day < DAYS; day++) {
+                prices[i][day] = BigDecimal.valueOf(random.nextLong(1_000_000_000_000L), 8);
+            }
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = FROM.plusDays(day);
+            int d = day;
+
+            total = total.add(portfolio.stream().map(investment -> investment.getTransactions().stream()
+                    .filter(transaction -> !transaction.getDate().isAfter(date))
+                    .map(transaction -> transaction.getType().equals(InvestmentTransactionType.BUY)
+                            ? transaction.getQuantity() : transaction.getQuantity().negate())
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)
+                    .multiply(prices[Integer.parseInt(investment.getId())][d])
+                    .setScale(8, RoundingMode.HALF_UP)
+            ).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(8, RoundingMode.HALF_UP));
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal fixedPoint() {
+        long total = 0;
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = FROM.plusDays(day);
+
+            for (int i = 0; i < investments; i++) {
+                total = FixedPoint.add(total, FixedPoint.multiply(portfolio.get(i).getFixedQuantityAt(date), FixedPoint.of(prices[i][day])));
+            }
+        }
+
+        return FixedPoint.toBigDecimal(total);
+    }
+}
@@ -12,18 +12,14 @@ import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.service.AlpacaService;
 import com.github.ignasbudreika.portfollow.service.EthereumWalletService;
 import com.github.ignasbudreika.portfollow.service.SpectroCoinService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/connection")
 public class ConnectionController {
-    @Autowired
-    private UserService userService;
     @Autowired
     private SpectroCoinService spectroCoinService;
     @Autowired
@@ -32,9 +28,7 @@ public class ConnectionController {
     private AlpacaService alpacaService;
 
     @GetMapping
-    public ResponseEntity<ConnectionsDTO> getConnections() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity<ConnectionsDTO> getConnections(User user) {
         SpectroCoinConnectionDTO spectro = spectroCoinService.getConnection(user.getId());
         EthereumWalletConnectionDTO ethereumWallet = walletService.getConnectionByUserId(user.getId());
         AlpacaConnectionDTO alpaca = alpacaService.getConnection(user.getId());
@@ -46,81 +40,63 @@ public class ConnectionController {
     }
 
     @PostMapping("/spectrocoin")
-    public ResponseEntity connectSpectroCoin(@Valid @RequestBody CreateSpectroCoinConnectionDTO connectionDTO) throws Exception {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity connectSpectroCoin(User user, @Valid @RequestBody CreateSpectroCoinConnectionDTO connectionDTO) throws Exception {
         spectroCoinService.addConnection(connectionDTO, user);
 
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/spectrocoin/fetch")
-    public ResponseEntity fetchSpectrocoin() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity fetchSpectrocoin(User user) {
         spectroCoinService.fetchCryptocurrencies(user);
 
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/spectrocoin")
-    public ResponseEntity removeSpectrocoinConnection() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity removeSpectrocoinConnection(User user) {
         spectroCoinService.removeConnection(user);
 
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/ethereum")
-    public ResponseEntity connectEthereumWallet(@Valid @RequestBody CreateEthereumWalletConnectionDTO walletConnectionDTO) throws Exception {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity connectEthereumWallet(User user, @Valid @RequestBody CreateEthereumWalletConnectionDTO walletConnectionDTO) throws Exception {
         walletService.addConnection(walletConnectionDTO, user);
 
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/ethereum/fetch")
-    public ResponseEntity fetchWallet() throws BusinessLogicException {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity fetchWallet(User user) throws BusinessLogicException {
         walletService.fetchBalance(user);
 
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/ethereum")
-    public ResponseEntity removeEthereumWalletConnection() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity removeEthereumWalletConnection(User user) {
         walletService.removeConnection(user);
 
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/alpaca")
-    public ResponseEntity connectAlpaca(@Valid @RequestBody CreateAlpacaConnectionDTO alpacaConnectionDTO) throws Exception {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity connectAlpaca(User user, @Valid @RequestBody CreateAlpacaConnectionDTO alpacaConnectionDTO) throws Exception {
         alpacaService.addConnection(alpacaConnectionDTO, user);
 
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/alpaca/fetch")
-    public ResponseEntity fetchPositions() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity fetchPositions(User user) {
         alpacaService.fetchPositions(user);
 
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/alpaca")
-    public ResponseEntity removeAlpacaConnection() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity removeAlpacaConnection(User user) {
         alpacaService.removeConnection(user);
 
         return ResponseEntity.noContent().build();
@@ -3,15 +3,16 @@ package com.github.ignasbudreika.portfollow.api.controller;
 import com.github.ignasbudreika.portfollow.api.dto.request.CurrencyDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.CurrencyInvestmentDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.InvestmentStatsDTO;
+import com.github.ignasbudreika.portfollow.component.ConditionalResponses;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.service.CurrencyService;
-import com.github.ignasbudreika.portfollow.service.UserService;
+import com.github.ignasbudreika.portfollow.service.DashboardCacheService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -20,29 +21,27 @@ import java.util.Collection;
 @RestController
 @RequestMapping("/investment/currency")
 public class CurrencyController {
-    @Autowired
-    private UserService userService;
     @Autowired
     private CurrencyService currencyService;
+    @Autowired
+    private DashboardCacheService dashboardCacheService;
+    @Autowired
+    private ConditionalResponses conditionalResponses;
 
     @PostMapping
-    public CurrencyInvestmentDTO createCurrencyInvestment(@Valid @RequestBody CurrencyDTO currencyDTO) throws BusinessLogicException, URISyntaxException, IOException, InterruptedException {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public CurrencyInvestmentDTO createCurrencyInvestment(User user, @Valid @RequestBody CurrencyDTO currencyDTO) throws BusinessLogicException, URISyntaxException, IOException, InterruptedException {
         return currencyService.createCurrencyInvestment(currencyDTO, user);
     }
 
     @GetMapping
-    public ResponseEntity<Collection<CurrencyInvestmentDTO>> getUserCurrencyInvestments() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
-        return ResponseEntity.ok(currencyService.getUserCurrencyInvestments(user.getId()));
+    public ResponseEntity<Collection<CurrencyInvestmentDTO>> getUserCurrencyInvestments(User user, WebRequest request) {
+        return conditionalResponses.ok(user.getId(), request,
+                () -> dashboardCacheService.get(user.getId(), "currency", () -> currencyService.getUserCurrencyInvestments(user.getId())));
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<InvestmentStatsDTO> getUserCurrencyInvestmentsStats() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
-        return ResponseEntity.ok(currencyService.getUserCurrencyInvestmentsStats(user.getId()));
+    public ResponseEntity<InvestmentStatsDTO> getUserCurrencyInvestmentsStats(User user, WebRequest request) {
+        return conditionalResponses.ok(user.getId(), request,
+                () -> dashboardCacheService.get(user.getId(), "currency:stats", () -> currencyService.getUserCurrencyInvestmentsStats(user.getId())));
     }
 }
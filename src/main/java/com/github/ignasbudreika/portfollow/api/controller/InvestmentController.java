@@ -8,12 +8,10 @@ import com.github.ignasbudreika.portfollow.exception.UnauthorizedException;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.service.InvestmentService;
 import com.github.ignasbudreika.portfollow.service.InvestmentTransactionService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import jakarta.validation.Valid;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collection;
@@ -24,14 +22,10 @@ public class InvestmentController {
     @Autowired
     private InvestmentService investmentService;
     @Autowired
-    private UserService userService;
-    @Autowired
     private InvestmentTransactionService transactionService;
 
     @GetMapping
-    public ResponseEntity<Collection<InvestmentDTO>> getInvestments(@RequestParam(value = "type", required = false) String type) {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity<Collection<InvestmentDTO>> getInvestments(User user, @RequestParam(value = "type", required = false) String type) {
         if (StringUtils.isBlank(type)) {
             return ResponseEntity.ok(investmentService.getUserInvestments(user));
         }
@@ -40,27 +34,21 @@ public class InvestmentController {
     }
 
     @PostMapping("/{id}/tx")
-    public ResponseEntity addTransaction(@PathVariable(name = "id") String id, @Valid @RequestBody CreateTransactionDTO tx) throws BusinessLogicException, UnauthorizedException {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity addTransaction(User user, @PathVariable(name = "id") String id, @Valid @RequestBody CreateTransactionDTO tx) throws BusinessLogicException, UnauthorizedException {
         investmentService.addTransaction(id, tx, user);
 
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity deleteInvestment(@PathVariable(name = "id") String id) throws UnauthorizedException {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity deleteInvestment(User user, @PathVariable(name = "id") String id) throws UnauthorizedException {
         investmentService.deleteInvestment(id, user);
 
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/{id}/stop")
-    public ResponseEntity stopPeriodicInvestments(@PathVariable(name = "id") String id) throws UnauthorizedException {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity stopPeriodicInvestments(User user, @PathVariable(name = "id") String id) throws UnauthorizedException {
         investmentService.stopPeriodicInvestments(id, user);
 
         return ResponseEntity.noContent().build();
@@ -3,70 +3,67 @@ package com.github.ignasbudreika.portfollow.api.controller;
 import com.github.ignasbudreika.portfollow.api.dto.response.PortfolioDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.PortfolioDistributionDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.DateValueDTO;
+import com.github.ignasbudreika.portfollow.component.ConditionalResponses;
 import com.github.ignasbudreika.portfollow.enums.HistoryType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.service.DashboardCacheService;
 import com.github.ignasbudreika.portfollow.service.PortfolioHistoryService;
 import com.github.ignasbudreika.portfollow.service.StatisticsService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/portfolio")
 public class PortfolioController {
-    @Autowired
-    private UserService userService;
     @Autowired
     private PortfolioHistoryService portfolioHistoryService;
     @Autowired
     private StatisticsService statisticsService;
+    @Autowired
+    private DashboardCacheService dashboardCacheService;
+    @Autowired
+    private ConditionalResponses conditionalResponses;
 
     @GetMapping
-    public ResponseEntity<PortfolioDTO> getPortfolio() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
-        return ResponseEntity.ok(portfolioHistoryService.getUserPortfolio(user));
+    public ResponseEntity<PortfolioDTO> getPortfolio(User user, WebRequest request) {
+        return conditionalResponses.ok(user.getId(), request,
+                () -> dashboardCacheService.get(user.getId(), "portfolio", () -> portfolioHistoryService.getUserPortfolio(user)));
     }
 
     @GetMapping("/distribution")
-    public ResponseEntity<List<PortfolioDistributionDTO>> getPortfolioDistribution(@RequestParam(value = "type", required = false) String type) {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity<List<PortfolioDistributionDTO>> getPortfolioDistribution(User user, @RequestParam(value = "type", required = false) String type, WebRequest request) {
         if (StringUtils.isBlank(type)) {
-            return ResponseEntity.ok(statisticsService.getUserPortfolioDistribution(user));
+            return conditionalResponses.ok(user.getId(), request,
+                    () -> dashboardCacheService.get(user.getId(), "distribution", () -> statisticsService.getUserPortfolioDistribution(user)));
         }
 
-        return ResponseEntity.ok(statisticsService.getUserPortfolioDistributionByType(user, InvestmentType.valueOf(type)));
+        InvestmentType investmentType = InvestmentType.valueOf(type);
+        return conditionalResponses.ok(user.getId(), request, () -> dashboardCacheService.get(user.getId(), "distribution:" + investmentType,
+                () -> statisticsService.getUserPortfolioDistributionByType(user, investmentType)));
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<DateValueDTO>> getPortfolioHistory(@RequestParam(value = "type", defaultValue = "WEEKLY") HistoryType type) {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
-        return ResponseEntity.ok(portfolioHistoryService.getUserPortfolioHistory(user, type));
+    public ResponseEntity<List<DateValueDTO>> getPortfolioHistory(User user, @RequestParam(value = "type", defaultValue = "WEEKLY") HistoryType type, WebRequest request) {
+        return conditionalResponses.ok(user.getId(), request, () -> portfolioHistoryService.getUserPortfolioHistory(user, type));
     }
 
     @GetMapping("/profit-loss")
-    public ResponseEntity<List<DateValueDTO>> getProfitLossHistory(@RequestParam(value = "type", defaultValue = "WEEKLY") HistoryType type) {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
-        return ResponseEntity.ok(portfolioHistoryService.getUserProfitLossHistory(user, type));
+    public ResponseEntity<List<DateValueDTO>> getProfitLossHistory(User user, @RequestParam(value = "type", defaultValue = "WEEKLY") HistoryType type, WebRequest request) {
+        return conditionalResponses.ok(user.getId(), request, () -> portfolioHistoryService.getUserProfitLossHistory(user, type));
     }
 
     @GetMapping("/performance")
-    public ResponseEntity<List<DateValueDTO>> getPerformanceHistory(@RequestParam(value = "type", defaultValue = "WEEKLY") HistoryType type) {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
-        return ResponseEntity.ok(portfolioHistoryService.getUserPerformanceHistory(user, type));
+    public ResponseEntity<List<DateValueDTO>> getPerformanceHistory(User user, @RequestParam(value = "type", defaultValue = "WEEKLY") HistoryType type, WebRequest request) {
+        return conditionalResponses.ok(user.getId(), request, () -> portfolioHistoryService.getUserPerformanceHistory(user, type));
     }
 
     @GetMapping("/performance/compare")
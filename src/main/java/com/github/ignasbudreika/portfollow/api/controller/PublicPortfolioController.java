@@ -2,15 +2,16 @@ package com.github.ignasbudreika.portfollow.api.controller;
 
 import com.github.ignasbudreika.portfollow.api.dto.request.CommentDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.*;
+import com.github.ignasbudreika.portfollow.component.ConditionalResponses;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.service.PublicPortfolioFeedService;
 import com.github.ignasbudreika.portfollow.service.PublicPortfolioService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/public/portfolio")
@@ -18,52 +19,51 @@ public class PublicPortfolioController {
     @Autowired
     private PublicPortfolioService portfolioService;
     @Autowired
-    private UserService userService;
+    private PublicPortfolioFeedService feedService;
+    @Autowired
+    private ConditionalResponses conditionalResponses;
 
     @GetMapping
     public ResponseEntity<PublicPortfolioListDTO> getPublicPortfolios(@RequestParam(value = "index", defaultValue = "0") int index) {
-        return ResponseEntity.ok(portfolioService.getPublicPortfolios(index));
+        PublicPortfolioFeedService.Page page = feedService.getPage(index);
+
+        return ResponseEntity.ok().eTag(page.getETag()).body(page.getContent());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PublicPortfolioDTO> getPublicPortfolioById(@PathVariable(value = "id") String id) {
-        return ResponseEntity.ok(portfolioService.getPublicPortfolio(id));
+    public ResponseEntity<PublicPortfolioDTO> getPublicPortfolioById(@PathVariable(value = "id") String id, WebRequest request) {
+        return conditionalResponses.ok(portfolioService.getOwnerId(id), request, () -> portfolioService.getPublicPortfolio(id));
     }
 
     @GetMapping("/{id}/stats")
-    public ResponseEntity<PublicPortfolioStatisticsDTO> getPublicPortfolioStats(@PathVariable(value = "id") String id) {
-        return ResponseEntity.ok(portfolioService.getPublicPortfolioStats(id));
+    public ResponseEntity<PublicPortfolioStatisticsDTO> getPublicPortfolioStats(@PathVariable(value = "id") String id, WebRequest request) {
+        return conditionalResponses.ok(portfolioService.getOwnerId(id), request, () -> portfolioService.getPublicPortfolioStats(id));
     }
 
     @GetMapping("/{id}/distribution")
     public ResponseEntity<PublicPortfolioDistributionDTO> getPublicPortfolioDistribution(
             @PathVariable(value = "id") String id,
-            @RequestParam(value = "type", required = false) String type) {
-        return ResponseEntity.ok(portfolioService.getPublicPortfolioDistribution(id, type));
+            @RequestParam(value = "type", required = false) String type,
+            WebRequest request) {
+        return conditionalResponses.ok(portfolioService.getOwnerId(id), request, () -> portfolioService.getPublicPortfolioDistribution(id, type));
     }
 
     @PostMapping("/{id}/comment")
-    public ResponseEntity comment(@PathVariable(value = "id") String id, @Valid @RequestBody CommentDTO commentDTO) throws BusinessLogicException {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity comment(User user, @PathVariable(value = "id") String id, @Valid @RequestBody CommentDTO commentDTO) throws BusinessLogicException {
         portfolioService.comment(user, id, commentDTO);
 
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/comment/{id}")
-    public ResponseEntity deleteComment(@PathVariable(value = "id") String id) throws BusinessLogicException {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity deleteComment(User user, @PathVariable(value = "id") String id) throws BusinessLogicException {
         portfolioService.deleteComment(user, id);
 
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{id}/comment")
-    public ResponseEntity<AuthorCommentDTO[]> getComments(@PathVariable(value = "id") String id) {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity<AuthorCommentDTO[]> getComments(User user, @PathVariable(value = "id") String id) {
         return ResponseEntity.ok(portfolioService.getPortfolioComments(user, id));
     }
 }
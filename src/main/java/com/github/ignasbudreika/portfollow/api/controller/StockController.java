@@ -3,16 +3,17 @@ package com.github.ignasbudreika.portfollow.api.controller;
 import com.github.ignasbudreika.portfollow.api.dto.request.StockDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.StockInvestmentDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.InvestmentStatsDTO;
+import com.github.ignasbudreika.portfollow.component.ConditionalResponses;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.service.DashboardCacheService;
 import com.github.ignasbudreika.portfollow.service.StockService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
@@ -25,26 +26,24 @@ public class StockController {
     @Autowired
     private StockService stockService;
     @Autowired
-    private UserService userService;
+    private DashboardCacheService dashboardCacheService;
+    @Autowired
+    private ConditionalResponses conditionalResponses;
 
     @GetMapping
-    public ResponseEntity<Collection<StockInvestmentDTO>> getUserStockInvestments() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
-        return ResponseEntity.ok(stockService.getUserStockInvestments(user.getId()));
+    public ResponseEntity<Collection<StockInvestmentDTO>> getUserStockInvestments(User user, WebRequest request) {
+        return conditionalResponses.ok(user.getId(), request,
+                () -> dashboardCacheService.get(user.getId(), "stock", () -> stockService.getUserStockInvestments(user.getId())));
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<InvestmentStatsDTO> getUserStockInvestmentsStats() {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
-        return ResponseEntity.ok(stockService.getUserStockInvestmentsStats(user.getId()));
+    public ResponseEntity<InvestmentStatsDTO> getUserStockInvestmentsStats(User user, WebRequest request) {
+        return conditionalResponses.ok(user.getId(), request,
+                () -> dashboardCacheService.get(user.getId(), "stock:stats", () -> stockService.getUserStockInvestmentsStats(user.getId())));
     }
 
     @PostMapping
-    public ResponseEntity<StockInvestmentDTO> createStockInvestment(@Valid @RequestBody StockDTO stock) throws BusinessLogicException, URISyntaxException, IOException, InterruptedException {
-        User user = userService.getByGoogleId(SecurityContextHolder.getContext().getAuthentication().getName());
-
+    public ResponseEntity<StockInvestmentDTO> createStockInvestment(User user, @Valid @RequestBody StockDTO stock) throws BusinessLogicException, URISyntaxException, IOException, InterruptedException {
         return ResponseEntity.ok(stockService.createStockInvestment(stock, user));
     }
 }
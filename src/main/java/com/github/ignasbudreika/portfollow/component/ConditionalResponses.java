@@ -0,0 +1,33 @@
+package com.github.ignasbudreika.portfollow.component;
+
+import com.github.ignasbudreika.portfollow.service.UserDataVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Builds responses validated against a user's data version. When the request's If-None-Match or
+ * If-Modified-Since still matches the version, 304 is returned without computing the body.
+ * Responses may be stored by the browser only, and must be revalidated before every use.
+ */
+@Component
+public class ConditionalResponses {
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    @Autowired
+    private UserDataVersionService userDataVersionService;
+
+    public <T> ResponseEntity<T> ok(String userId, WebRequest request, Supplier<T> body) {
+        UserDataVersionService.Version version = userDataVersionService.getVersion(userId);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+        }
+
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(body.get());
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.ignasbudreika.portfollow.component;
+
+import com.github.ignasbudreika.portfollow.model.Asset;
+import com.github.ignasbudreika.portfollow.model.Portfolio;
+import com.github.ignasbudreika.portfollow.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the hit, miss and put counts of the second level and query caches. Counts stay at zero
+ * while statistics are off, which is the default. Turn them on with the StatisticsEnabled attribute
+ * or HIBERNATE_STATISTICS.
+ */
+@Component
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=HibernateCache")
+public class HibernateCacheStatistics {
+    private final SessionFactory sessionFactory;
+
+    public HibernateCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @ManagedAttribute(description = "Whether cache statistics are collected")
+    public boolean isStatisticsEnabled() {
+        return getStatistics().isStatisticsEnabled();
+    }
+
+    @ManagedAttribute(description = "Whether cache statistics are collected")
+    public void setStatisticsEnabled(boolean enabled) {
+        getStatistics().setStatisticsEnabled(enabled);
+    }
+
+    @ManagedAttribute(description = "Number of entities read from the second level cache")
+    public long getSecondLevelCacheHits() {
+        return getStatistics().getSecondLevelCacheHitCount();
+    }
+
+    @ManagedAttribute(description = "Number of entities not found in the second level cache")
+    public long getSecondLevelCacheMisses() {
+        return getStatistics().getSecondLevelCacheMissCount();
+    }
+
+    @ManagedAttribute(description = "Number of entities put into the second level cache")
+    public long getSecondLevelCachePuts() {
+        return getStatistics().getSecondLevelCachePutCount();
+    }
+
+    @ManagedAttribute(description = "Number of query results read from the query cache")
+    public long getQueryCacheHits() {
+        return getStatistics().getQueryCacheHitCount();
+    }
+
+    @ManagedAttribute(description = "Number of query results not found in the query cache")
+    public long getQueryCacheMisses() {
+        return getStatistics().getQueryCacheMissCount();
+    }
+
+    @ManagedAttribute(description = "Number of query results put into the query cache")
+    public long getQueryCachePuts() {
+        return getStatistics().getQueryCachePutCount();
+    }
+
+    @ManagedAttribute(description = "Share of asset reads served from the cache")
+    public double getAssetHitRatio() {
+        return getHitRatio(Asset.CACHE_REGION);
+    }
+
+    @ManagedAttribute(description = "Share of user reads served from the cache")
+    public double getUserHitRatio() {
+        return getHitRatio(User.CACHE_REGION);
+    }
+
+    @ManagedAttribute(description = "Share of portfolio reads served from the cache")
+    public double getPortfolioHitRatio() {
+        return getHitRatio(Portfolio.CACHE_REGION);
+    }
+
+    @ManagedOperation(description = "Resets all statistics")
+    public void clearStatistics() {
+        getStatistics().clear();
+    }
+
+    @ManagedOperation(description = "Removes all entities and query results from the cache")
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private double getHitRatio(String region) {
+        CacheRegionStatistics statistics = getStatistics().getDomainDataRegionStatistics(region);
+        if (statistics == null) {
+            return 0;
+        }
+
+        long reads = statistics.getHitCount() + statistics.getMissCount();
+        return reads == 0 ? 0 : (double) statistics.getHitCount() / reads;
+    }
+
+    private Statistics getStatistics() {
+        return sessionFactory.getStatistics();
+    }
+}
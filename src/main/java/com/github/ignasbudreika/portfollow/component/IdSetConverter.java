@@ -0,0 +1,34 @@
+package com.github.ignasbudreika.portfollow.component;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Converter
+public class IdSetConverter implements AttributeConverter<Set<String>, String> {
+    private static final String SEPARATOR = ",";
+
+    @Override
+    public String convertToDatabaseColumn(Set<String> ids) {
+        if (ids == null) {
+            return null;
+        }
+
+        return String.join(SEPARATOR, ids);
+    }
+
+    @Override
+    public Set<String> convertToEntityAttribute(String column) {
+        if (column == null) {
+            return null;
+        }
+
+        return Arrays.stream(column.split(SEPARATOR))
+                .filter(id -> !id.isBlank())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.ignasbudreika.portfollow.component;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Iterates a table page by page, loading the next page only once the previous one is consumed.
+ * Pages are keyed by the last seen id rather than an offset, so every page is an index range
+ * scan. The page loader must return rows with ids greater than the given one, ordered by id.
+ */
+public class KeysetIterable<T> implements Iterable<T> {
+    private static final int PAGE_SIZE = 500;
+
+    private final BiFunction<String, Pageable, List<T>> pageLoader;
+    private final Function<T, String> idExtractor;
+    private final Consumer<List<T>> pageConsumed;
+
+    public KeysetIterable(BiFunction<String, Pageable, List<T>> pageLoader, Function<T, String> idExtractor) {
+        this(pageLoader, idExtractor, page -> {});
+    }
+
+    public KeysetIterable(BiFunction<String, Pageable, List<T>> pageLoader, Function<T, String> idExtractor, Consumer<List<T>> pageConsumed) {
+        this.pageLoader = pageLoader;
+        this.idExtractor = idExtractor;
+        this.pageConsumed = pageConsumed;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private List<T> page = Collections.emptyList();
+            private Iterator<T> iterator = page.iterator();
+            private String lastId = "";
+            private boolean lastPage = false;
+
+            @Override
+            public boolean hasNext() {
+                if (!iterator.hasNext() && !lastPage) {
+                    pageConsumed.accept(page);
+
+                    page = pageLoader.apply(lastId, PageRequest.ofSize(PAGE_SIZE));
+                    iterator = page.iterator();
+                    lastPage = page.size() < PAGE_SIZE;
+                }
+
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                T item = iterator.next();
+                lastId = idExtractor.apply(item);
+
+                return item;
+            }
+        };
+    }
+}
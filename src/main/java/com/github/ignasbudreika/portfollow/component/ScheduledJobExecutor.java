@@ -0,0 +1,184 @@
+package com.github.ignasbudreika.portfollow.component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Fans the per item work of scheduled jobs out to a shared, bounded thread pool. Items are
+ * taken from the job's iterable only as threads free up, so a lazily paged source is never
+ * held in memory as a whole. A job run waits for its tasks until the job's timeout, tasks
+ * still pending then are cancelled.
+ * A job that is still running when it is triggered again is skipped. Job durations and
+ * backlogs are exposed over JMX.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=ScheduledJobExecutor")
+public class ScheduledJobExecutor {
+    private static final String JOB_TIMEOUT_PROPERTY = "scheduler.jobs.%s.timeout";
+
+    private final ThreadPoolExecutor executor;
+    private final int maxInFlight;
+    private final Duration defaultTimeout;
+    private final Environment environment;
+    private final Map<String, JobStats> jobs = new ConcurrentHashMap<>();
+
+    public ScheduledJobExecutor(@Value("${scheduler.jobs.concurrency:8}") int concurrency,
+                                @Value("${scheduler.jobs.timeout:PT30M}") Duration defaultTimeout,
+                                Environment environment) {
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("scheduled-job-"));
+        this.maxInFlight = concurrency * 2;
+        this.defaultTimeout = defaultTimeout;
+        this.environment = environment;
+    }
+
+    /**
+     * Runs task for every item and blocks until all of them complete or the job times out.
+     *
+     * @return false if the job was skipped because its previous run has not finished yet
+     */
+    public <T> boolean run(String job, Iterable<T> items, Consumer<T> task) {
+        JobStats stats = jobs.computeIfAbsent(job, name -> new JobStats());
+        if (!stats.running.compareAndSet(false, true)) {
+            stats.skippedRuns.incrementAndGet();
+            log.warn("job: {} is still running, skipping", job);
+            return false;
+        }
+
+        Duration timeout = environment.getProperty(String.format(JOB_TIMEOUT_PROPERTY, job), Duration.class, defaultTimeout);
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        Semaphore permits = new Semaphore(maxInFlight);
+        AtomicInteger backlog = new AtomicInteger();
+        int tasks = 0;
+        stats.backlog = backlog;
+        try {
+            for (T item : items) {
+                if (!permits.tryAcquire(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    timedOut(job, futures);
+                    return true;
+                }
+
+                backlog.incrementAndGet();
+                tasks++;
+                futures.removeIf(Future::isDone);
+                futures.add(executor.submit(() -> {
+                    try {
+                        task.accept(item);
+                    } catch (Exception e) {
+                        log.error("job: {} task failed", job, e);
+                    } finally {
+                        backlog.decrementAndGet();
+                        permits.release();
+                    }
+                }));
+            }
+
+            await(job, futures, deadline);
+        } catch (InterruptedException e) {
+            log.warn("job: {} interrupted, cancelling pending tasks", job);
+            Thread.currentThread().interrupt();
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            stats.backlog = new AtomicInteger();
+            stats.lastDurationMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            stats.lastTasks.set(tasks);
+            stats.running.set(false);
+            log.info("job: {} finished, tasks: {}, duration: {} ms", job, tasks, stats.lastDurationMillis.get());
+        }
+
+        return true;
+    }
+
+    private void await(String job, List<Future<?>> futures, long deadline) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                timedOut(job, futures);
+                return;
+            } catch (CancellationException | ExecutionException e) {
+                log.error("job: {} task failed", job, e);
+            }
+        }
+    }
+
+    private void timedOut(String job, List<Future<?>> futures) {
+        long pending = futures.stream().filter(f -> !f.isDone()).count();
+        jobs.get(job).timeouts.incrementAndGet();
+        log.error("job: {} timed out, cancelling pending tasks: {}", job, pending);
+    }
+
+    @ManagedAttribute(description = "Number of threads running job tasks")
+    public int getActiveThreads() {
+        return executor.getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Number of job tasks waiting for a thread")
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @ManagedOperation(description = "Number of tasks of the job's current run not finished yet")
+    public int getJobBacklog(String job) {
+        JobStats stats = jobs.get(job);
+        return stats != null ? stats.backlog.get() : 0;
+    }
+
+    @ManagedOperation(description = "Duration of the job's last run in milliseconds")
+    public long getJobLastDurationMillis(String job) {
+        JobStats stats = jobs.get(job);
+        return stats != null ? stats.lastDurationMillis.get() : 0L;
+    }
+
+    @ManagedOperation(description = "Number of tasks of the job's last run")
+    public int getJobLastTasks(String job) {
+        JobStats stats = jobs.get(job);
+        return stats != null ? stats.lastTasks.get() : 0;
+    }
+
+    @ManagedOperation(description = "Number of the job's runs that timed out")
+    public long getJobTimeouts(String job) {
+        JobStats stats = jobs.get(job);
+        return stats != null ? stats.timeouts.get() : 0L;
+    }
+
+    @ManagedOperation(description = "Number of the job's runs skipped because the previous run had not finished")
+    public long getJobSkippedRuns(String job) {
+        JobStats stats = jobs.get(job);
+        return stats != null ? stats.skippedRuns.get() : 0L;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static class JobStats {
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile AtomicInteger backlog = new AtomicInteger();
+        private final AtomicInteger lastTasks = new AtomicInteger();
+        private final AtomicLong lastDurationMillis = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong skippedRuns = new AtomicLong();
+    }
+}
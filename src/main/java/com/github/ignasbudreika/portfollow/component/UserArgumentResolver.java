@@ -0,0 +1,36 @@
+package com.github.ignasbudreika.portfollow.component;
+
+import com.github.ignasbudreika.portfollow.exception.UnauthorizedException;
+import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.model.UserPrincipal;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Passes the authenticated user to controller methods declaring a {@link User} or
+ * {@link UserPrincipal} parameter, from the principal the security filter resolved.
+ */
+@Component
+public class UserArgumentResolver implements HandlerMethodArgumentResolver {
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return User.class.equals(parameter.getParameterType()) || UserPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws UnauthorizedException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new UnauthorizedException();
+        }
+
+        return User.class.equals(parameter.getParameterType()) ? principal.toUser() : principal;
+    }
+}
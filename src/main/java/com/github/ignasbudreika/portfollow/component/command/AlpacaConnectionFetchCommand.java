@@ -1,8 +1,8 @@
 package com.github.ignasbudreika.portfollow.component.command;
 
-import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.component.ScheduledJobExecutor;
+import com.github.ignasbudreika.portfollow.model.AlpacaConnection;
 import com.github.ignasbudreika.portfollow.service.AlpacaService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -14,23 +14,23 @@ import java.time.temporal.ChronoUnit;
 @Slf4j
 @Component
 public class AlpacaConnectionFetchCommand {
-    @Autowired
-    private UserService userService;
     @Autowired
     private AlpacaService alpacaService;
+    @Autowired
+    private ScheduledJobExecutor jobExecutor;
 
     @Scheduled(cron = "0 4 */12 * * *")
     public void fetchAlpacaConnections() {
         log.info("fetching Alpaca connections. Current time: {}", LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
 
-        Iterable<User> users = userService.getAll();
+        Iterable<AlpacaConnection> connections = alpacaService.getActiveConnections();
 
-        users.forEach(user -> {
+        jobExecutor.run("alpaca-connections", connections, connection -> {
             try {
-                log.info("fetching user: {} Alpaca connections", user.getId());
-                alpacaService.fetchPositions(user);
+                log.info("fetching user: {} Alpaca connections", connection.getUser().getId());
+                alpacaService.fetchPositions(connection);
             } catch (Exception e) {
-                log.error("failed to fetch Alpaca connections for user: {}", user.getId(), e);
+                log.error("failed to fetch Alpaca connections for user: {}", connection.getUser().getId(), e);
             }
         });
     }
@@ -1,7 +1,6 @@
 package com.github.ignasbudreika.portfollow.component.command;
 
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
-import com.github.ignasbudreika.portfollow.service.AssetHistoryService;
 import com.github.ignasbudreika.portfollow.service.AssetService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,27 +12,26 @@ import java.time.LocalDate;
 @Slf4j
 @Component
 public class AssetPriceFetchCommand {
-    @Autowired
-    private AssetHistoryService assetHistoryService;
     @Autowired
     private AssetService assetService;
 
     @Scheduled(cron = "0 0 * * * *")
     public void updateAssetPrices() {
         assetService.getAllAssets().forEach(asset -> {
+            log.info("updating asset: {} price history", asset.getSymbol());
             try {
-                log.info("updating asset: {} price", asset.getSymbol());
-                if (!assetHistoryService.assetHistoryExists(asset.getId())) {
-                    log.info("creating asset: {} price history", asset.getSymbol());
-                        assetService.fetchPriceHistory(asset);
-                }
-
-                assetService.fetchPriceAndSaveInHistory(asset.getSymbol(), asset.getType(), LocalDate.now());
+                assetService.syncPriceHistory(asset, LocalDate.now());
             } catch (BusinessLogicException e) {
-                log.warn("unable to fetch price history for asset: {}", asset.getId());
+                log.warn("unable to sync price history for asset: {}", asset.getId());
             } catch (Exception e) {
-                log.error("unable to fetch price history for asset: {}", asset.getId());
+                log.error("unable to sync price history for asset: {}", asset.getId());
             }
         });
+
+        try {
+            assetService.refreshPrices(LocalDate.now());
+        } catch (Exception e) {
+            log.error("unable to refresh asset prices", e);
+        }
     }
 }
@@ -1,8 +1,8 @@
 package com.github.ignasbudreika.portfollow.component.command;
 
-import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.component.ScheduledJobExecutor;
+import com.github.ignasbudreika.portfollow.model.EthereumWalletConnection;
 import com.github.ignasbudreika.portfollow.service.EthereumWalletService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -14,23 +14,23 @@ import java.time.temporal.ChronoUnit;
 @Slf4j
 @Component
 public class EthereumWalletConnectionFetchCommand {
-    @Autowired
-    private UserService userService;
     @Autowired
     private EthereumWalletService walletService;
+    @Autowired
+    private ScheduledJobExecutor jobExecutor;
 
     @Scheduled(cron = "0 6 */12 * * *")
     public void fetchEthereumWalletConnections() {
         log.info("fetching Ethereum wallet connections. Current time: {}", LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
 
-        Iterable<User> users = userService.getAll();
+        Iterable<EthereumWalletConnection> connections = walletService.getActiveConnections();
 
-        users.forEach(user -> {
+        jobExecutor.run("ethereum-wallet-connections", connections, connection -> {
             try {
-                log.info("fetching user: {} Ethereum wallet connections", user.getId());
-                walletService.fetchBalance(user);
+                log.info("fetching user: {} Ethereum wallet connections", connection.getUser().getId());
+                walletService.fetchBalance(connection);
             } catch (Exception e) {
-                log.error("failed to fetch Ethereum wallet connections for user: {}", user.getId(), e);
+                log.error("failed to fetch Ethereum wallet connections for user: {}", connection.getUser().getId(), e);
             }
         });
     }
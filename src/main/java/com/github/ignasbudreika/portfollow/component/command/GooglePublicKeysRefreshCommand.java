@@ -0,0 +1,28 @@
+package com.github.ignasbudreika.portfollow.component.command;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fetches Google's signing keys ahead of their expiry, so verifying a token never waits for the
+ * key download. Keys are served for several hours, well above the refresh interval.
+ */
+@Slf4j
+@Component
+public class GooglePublicKeysRefreshCommand {
+    @Autowired
+    private GoogleIdTokenVerifier verifier;
+
+    @Scheduled(fixedDelayString = "${google.public.keys.refresh.interval:PT30M}")
+    public void refreshPublicKeys() {
+        try {
+            verifier.getPublicKeysManager().refresh();
+            log.info("refreshed google public keys, valid until: {}", verifier.getExpirationTimeMilliseconds());
+        } catch (Exception e) {
+            log.error("unable to refresh google public keys", e);
+        }
+    }
+}
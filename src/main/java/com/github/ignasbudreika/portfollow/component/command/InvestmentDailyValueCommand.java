@@ -0,0 +1,35 @@
+package com.github.ignasbudreika.portfollow.component.command;
+
+import com.github.ignasbudreika.portfollow.component.ScheduledJobExecutor;
+import com.github.ignasbudreika.portfollow.service.InvestmentDailyValueService;
+import com.github.ignasbudreika.portfollow.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Extends every investment's daily values to the current day. Runs hourly so that a run missed
+ * around midnight is caught up, later runs of the same day find nothing to do.
+ */
+@Slf4j
+@Component
+public class InvestmentDailyValueCommand {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private InvestmentDailyValueService investmentDailyValueService;
+    @Autowired
+    private ScheduledJobExecutor jobExecutor;
+
+    @Scheduled(cron = "0 1 * * * *")
+    public void refreshDailyValues() {
+        jobExecutor.run("investment-daily-values", userService.getAllPaged(), user -> {
+            try {
+                investmentDailyValueService.refreshUserValues(user.getId());
+            } catch (Exception e) {
+                log.error("failed to refresh investment daily values for user: {}", user.getId(), e);
+            }
+        });
+    }
+}
@@ -1,8 +1,8 @@
 package com.github.ignasbudreika.portfollow.component.command;
 
+import com.github.ignasbudreika.portfollow.component.ScheduledJobExecutor;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.service.InvestmentService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -18,16 +18,16 @@ public class PeriodicInvestmentFetchCommand {
     @Autowired
     private InvestmentService investmentService;
     @Autowired
-    private UserService userService;
+    private ScheduledJobExecutor jobExecutor;
 
     @Scheduled(cron = "0 8 0 * * *")
     public void fetchPeriodicInvestments() {
         log.info("fetching periodic investments. Current time: {}", LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
 
-        Iterable<User> users = userService.getAll();
         LocalDate date = LocalDate.now();
+        Iterable<User> users = investmentService.getUsersWithPeriodicInvestmentsDue(date);
 
-        users.forEach(user -> {
+        jobExecutor.run("periodic-investments", users, user -> {
             try {
                 log.info("fetching user: {} periodic investments", user.getId());
 
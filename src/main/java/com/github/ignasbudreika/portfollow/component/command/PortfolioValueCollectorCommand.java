@@ -1,8 +1,10 @@
 package com.github.ignasbudreika.portfollow.component.command;
 
+import com.github.ignasbudreika.portfollow.component.ScheduledJobExecutor;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.service.InvestmentService;
 import com.github.ignasbudreika.portfollow.service.PortfolioHistoryService;
+import com.github.ignasbudreika.portfollow.service.PublicPortfolioFeedService;
 import com.github.ignasbudreika.portfollow.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,14 +23,18 @@ public class PortfolioValueCollectorCommand {
     private UserService userService;
     @Autowired
     private PortfolioHistoryService portfolioHistoryService;
+    @Autowired
+    private PublicPortfolioFeedService publicPortfolioFeedService;
+    @Autowired
+    private ScheduledJobExecutor jobExecutor;
 
     @Scheduled(cron = "0 10 * * * *")
     public void updatePortfolioValues() {
         log.info("updating portfolios values. Current time: {}", LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
 
-        Iterable<User> users = userService.getAll();
+        Iterable<User> users = userService.getAllPaged();
 
-        users.forEach(user -> {
+        boolean ran = jobExecutor.run("portfolio-values", users, user -> {
             try {
                 log.info("updating user: {} portfolio value", user.getId());
                 portfolioHistoryService.saveCurrentPortfolio(user.getId());
@@ -36,5 +42,9 @@ public class PortfolioValueCollectorCommand {
                 log.error("failed to update total portfolio value for user: {}", user.getId(), e);
             }
         });
+
+        if (ran) {
+            publicPortfolioFeedService.refresh();
+        }
     }
 }
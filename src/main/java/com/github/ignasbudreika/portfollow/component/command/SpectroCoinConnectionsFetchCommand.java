@@ -1,8 +1,8 @@
 package com.github.ignasbudreika.portfollow.component.command;
 
-import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.component.ScheduledJobExecutor;
+import com.github.ignasbudreika.portfollow.model.SpectroCoinConnection;
 import com.github.ignasbudreika.portfollow.service.SpectroCoinService;
-import com.github.ignasbudreika.portfollow.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -17,20 +17,20 @@ public class SpectroCoinConnectionsFetchCommand {
     @Autowired
     private SpectroCoinService spectroCoinService;
     @Autowired
-    private UserService userService;
+    private ScheduledJobExecutor jobExecutor;
 
     @Scheduled(cron = "0 2 */12 * * *")
     public void fetchSpectroCoinConnections() {
         log.info("fetching SpectroCoin connections. Current time: {}", LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
 
-        Iterable<User> users = userService.getAll();
+        Iterable<SpectroCoinConnection> connections = spectroCoinService.getActiveConnections();
 
-        users.forEach(user -> {
+        jobExecutor.run("spectrocoin-connections", connections, connection -> {
             try {
-                log.info("fetching user: {} SpectroCoin connection", user.getId());
-                spectroCoinService.fetchCryptocurrencies(user);
+                log.info("fetching user: {} SpectroCoin connection", connection.getUser().getId());
+                spectroCoinService.fetchCryptocurrencies(connection);
             } catch (Exception e) {
-                log.error("failed to fetch SpectroCoin connection for user: {}", user.getId(), e);
+                log.error("failed to fetch SpectroCoin connection for user: {}", connection.getUser().getId(), e);
             }
         });
     }
@@ -1,9 +1,9 @@
 package com.github.ignasbudreika.portfollow.component.filter;
 
-import com.github.ignasbudreika.portfollow.model.User;
-import com.github.ignasbudreika.portfollow.service.UserService;
+import com.github.ignasbudreika.portfollow.model.UserPrincipal;
+import com.github.ignasbudreika.portfollow.service.UserPrincipalCacheService;
+import com.github.ignasbudreika.portfollow.service.VerifiedIdTokenCacheService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -14,7 +14,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 
@@ -26,10 +25,10 @@ import java.util.List;
 @Component
 @AllArgsConstructor
 public class OAuthGoogleSecurityFilter implements Filter {
-    private GoogleIdTokenVerifier verifier;
+    private VerifiedIdTokenCacheService verifiedIdTokenCacheService;
 
     @Autowired
-    private UserService userService;
+    private UserPrincipalCacheService userPrincipalCacheService;
 
     @SneakyThrows
     @Override
@@ -52,7 +51,7 @@ public class OAuthGoogleSecurityFilter implements Filter {
 
         GoogleIdToken verified = null;
         try {
-            verified = verifier.verify(authorizationHeader.replace("Bearer ", ""));
+            verified = verifiedIdTokenCacheService.verify(authorizationHeader.replace("Bearer ", ""));
         } catch (GeneralSecurityException | IOException e) {
             log.error("failed id token verification", e.getMessage());
 
@@ -65,17 +64,14 @@ public class OAuthGoogleSecurityFilter implements Filter {
             return;
         }
 
-        if (!userService.existsByGoogleId(verified.getPayload().getSubject())) {
+        UserPrincipal principal = userPrincipalCacheService.getByGoogleId(verified.getPayload().getSubject());
+        if (principal == null) {
             ((HttpServletResponse) servletResponse).sendError(HttpServletResponse.SC_UNAUTHORIZED);
             return;
         }
-        User user = userService.getByGoogleId(verified.getPayload().getSubject());
-
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(user.getGoogleId(),
-                "", List.of(new SimpleGrantedAuthority("USER")));
 
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                userDetails, null, userDetails.getAuthorities());
+                principal, null, List.of(new SimpleGrantedAuthority("USER")));
         usernamePasswordAuthenticationToken
                 .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
@@ -0,0 +1,48 @@
+package com.github.ignasbudreika.portfollow.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+import java.util.Map;
+
+/**
+ * Second level cache regions held in the heap of this instance. Entity and query result regions
+ * keep at most {@value #MAX_ENTRIES} entries each, the timestamps region is never bounded as
+ * dropping a table's last update time would let stale query results be served.
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+    public static final String MAX_ENTRIES = "hibernate.cache.local.max_entries";
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        maxEntries = ConfigurationHelper.getInt(MAX_ENTRIES, configValues, DEFAULT_MAX_ENTRIES);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext) {
+        return new LocalStorageAccess(maxEntries);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new LocalStorageAccess(maxEntries);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new LocalStorageAccess(Integer.MAX_VALUE);
+    }
+}
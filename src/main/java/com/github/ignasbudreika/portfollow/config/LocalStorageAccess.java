@@ -0,0 +1,68 @@
+package com.github.ignasbudreika.portfollow.config;
+
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entries of a single cache region. Once the region is full an arbitrary entry is dropped for
+ * each new key, which at worst costs a database read as Hibernate guards updates with soft locks.
+ */
+class LocalStorageAccess implements DomainDataStorageAccess {
+    private final int maxEntries;
+    private final Map<Object, Object> entries = new ConcurrentHashMap<>();
+
+    LocalStorageAccess(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        return entries.get(key);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            Iterator<Object> keys = entries.keySet().iterator();
+            if (keys.hasNext()) {
+                entries.remove(keys.next());
+            }
+        }
+
+        entries.put(key, value);
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        entries.clear();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public void evictData() {
+        entries.clear();
+    }
+
+    @Override
+    public void evictData(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void release() {
+        entries.clear();
+    }
+}
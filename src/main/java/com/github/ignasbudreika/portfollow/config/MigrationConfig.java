@@ -0,0 +1,28 @@
+package com.github.ignasbudreika.portfollow.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Applies the Flyway scripts in {@code db/migration} for schema Hibernate's update does not manage,
+ * such as unique keys over existing rows and composite or covering indexes. Spring Boot migrates
+ * before the entity manager factory starts, while the scripts refer to tables Hibernate creates, so
+ * migration is deferred until the factory has been built.
+ */
+@Configuration
+public class MigrationConfig {
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {};
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigration(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
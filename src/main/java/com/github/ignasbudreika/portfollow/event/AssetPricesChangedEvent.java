@@ -0,0 +1,15 @@
+package com.github.ignasbudreika.portfollow.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Published when the current price or price history of assets changes.
+ */
+@Getter
+@AllArgsConstructor
+public class AssetPricesChangedEvent {
+    private final Collection<String> assetIds;
+}
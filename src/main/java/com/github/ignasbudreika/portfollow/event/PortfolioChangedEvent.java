@@ -0,0 +1,13 @@
+package com.github.ignasbudreika.portfollow.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a user's investments or transactions change.
+ */
+@Getter
+@AllArgsConstructor
+public class PortfolioChangedEvent {
+    private final String userId;
+}
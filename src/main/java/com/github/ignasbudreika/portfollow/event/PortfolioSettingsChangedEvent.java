@@ -0,0 +1,14 @@
+package com.github.ignasbudreika.portfollow.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a portfolio's title, description or publication settings change.
+ */
+@Getter
+@AllArgsConstructor
+public class PortfolioSettingsChangedEvent {
+    private final String portfolioId;
+    private final String userId;
+}
@@ -39,10 +39,7 @@ public class AlpacaClient {
     private ObjectMapper unwrappedObjectMapper;
 
     public List<PositionDTO> getPositions(String apiKey, String secret) throws IOException, URISyntaxException, InterruptedException, InvalidExternalRequestException {
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(new URI(String.format("%s%s", baseUrl, ALPACA_POSITIONS_ENDPOINT)))
-                .header(ALPACA_API_KEY_HEADER, apiKey)
-                .header(ALPACA_SECRET_HEADER, secret)
-                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = client.send(positionsRequest(apiKey, secret), HttpResponse.BodyHandlers.ofString());
 
         if (HttpStatus.valueOf(response.statusCode()).is4xxClientError()) {
             throw new InvalidExternalRequestException(String.format("positions request for API key: %s failed with status code: %s and response body: %s",
@@ -53,4 +50,11 @@ public class AlpacaClient {
 
         return wrappedObjectMapper.readValue(response.body(), new TypeReference<List<PositionDTO>>(){});
     }
+
+    private HttpRequest positionsRequest(String apiKey, String secret) throws URISyntaxException {
+        return HttpRequest.newBuilder(new URI(String.format("%s%s", baseUrl, ALPACA_POSITIONS_ENDPOINT)))
+                .header(ALPACA_API_KEY_HEADER, apiKey)
+                .header(ALPACA_SECRET_HEADER, secret)
+                .GET().build();
+    }
 }
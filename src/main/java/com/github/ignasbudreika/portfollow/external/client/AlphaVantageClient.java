@@ -12,16 +12,18 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.function.BiConsumer;
 
 @Component
 public class AlphaVantageClient {
     private static final String QUERY_PARAM_FUNCTION = "function";
     private static final String QUERY_PARAM_FUNCTION_GLOBAL_QUOTE = "GLOBAL_QUOTE";
+    private static final String QUERY_PARAM_FUNCTION_REALTIME_BULK_QUOTES = "REALTIME_BULK_QUOTES";
     private static final String QUERY_PARAM_FUNCTION_CURRENCY_EXCHANGE_RATE = "CURRENCY_EXCHANGE_RATE";
     private static final String QUERY_PARAM_TIME_SERIES_DAILY = "TIME_SERIES_DAILY_ADJUSTED";
     private static final String QUERY_PARAM_FUNCTION_FX_DAILY = "FX_DAILY";
@@ -36,6 +38,14 @@ public class AlphaVantageClient {
     private static final String QUERY_PARAM_TICKER = "symbol";
     private static final String QUERY_PARAM_OUTPUT_SIZE = "outputsize";
     private static final String QUERY_PARAM_OUTPUT_SIZE_FULL = "full";
+    private static final String QUERY_PARAM_OUTPUT_SIZE_COMPACT = "compact";
+    private static final int COMPACT_OUTPUT_SIZE_DAYS = 100;
+    private static final String STOCK_HISTORY_SERIES = "Time Series (Daily)";
+    private static final String STOCK_HISTORY_PRICE = "4. close";
+    private static final String FOREX_HISTORY_SERIES = "Time Series FX (Daily)";
+    private static final String FOREX_HISTORY_PRICE = "4. close";
+    private static final String CRYPTO_HISTORY_SERIES = "Time Series (Digital Currency Daily)";
+    private static final String CRYPTO_HISTORY_PRICE = "4a. close (USD)";
 
     @Value("${http.client.alpha.vantage.base.url}")
     private String baseUrl;
@@ -44,7 +54,7 @@ public class AlphaVantageClient {
     private String apiKey;
 
     @Autowired
-    private HttpClient client;
+    private AlphaVantageRequestScheduler requestScheduler;
 
     @Autowired
     @Qualifier("unwrapped")
@@ -55,88 +65,103 @@ public class AlphaVantageClient {
     private ObjectMapper wrappedObjectMapper;
 
     public StockDTO getStockData(String ticker) throws IOException, InterruptedException, URISyntaxException, BusinessLogicException {
+        String body = requestScheduler.send(stockUri(ticker));
+
+        validateResponseBody(body);
+
+        return objectMapper.readValue(body, StockDTO.class);
+    }
+
+    public BulkQuotesDTO getBulkStockData(Collection<String> tickers) throws IOException, InterruptedException, URISyntaxException, BusinessLogicException {
         URI uri = UriComponentsBuilder.fromUri(new URI(baseUrl))
-                .queryParam(QUERY_PARAM_FUNCTION, QUERY_PARAM_FUNCTION_GLOBAL_QUOTE)
+                .queryParam(QUERY_PARAM_FUNCTION, QUERY_PARAM_FUNCTION_REALTIME_BULK_QUOTES)
                 .queryParam(QUERY_PARAM_API_KEY, apiKey)
-                .queryParam(QUERY_PARAM_TICKER, ticker).build().toUri();
+                .queryParam(QUERY_PARAM_TICKER, String.join(",", tickers)).build().toUri();
 
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+        String body = requestScheduler.send(uri);
 
-        validateResponseBody(response.body());
+        validateResponseBody(body);
 
-        return objectMapper.readValue(response.body(), StockDTO.class);
+        return wrappedObjectMapper.readValue(body, BulkQuotesDTO.class);
     }
 
     public CryptocurrencyDTO getCryptocurrencyData(String code) throws IOException, InterruptedException, URISyntaxException, BusinessLogicException {
-        URI uri = UriComponentsBuilder.fromUri(new URI(baseUrl))
-                .queryParam(QUERY_PARAM_FUNCTION, QUERY_PARAM_FUNCTION_CURRENCY_EXCHANGE_RATE)
-                .queryParam(QUERY_PARAM_API_KEY, apiKey)
-                .queryParam(QUERY_PARAM_CURRENCY_FROM, code)
-                .queryParam(QUERY_PARAM_CURRENCY_TO, QUERY_PARAM_CURRENCY_TO_USD).build().toUri();
-
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+        String body = requestScheduler.send(exchangeRateUri(code));
 
-        validateResponseBody(response.body());
+        validateResponseBody(body);
 
-        return objectMapper.readValue(response.body(), CryptocurrencyDTO.class);
+        return objectMapper.readValue(body, CryptocurrencyDTO.class);
     }
 
     public ForexDTO getCurrencyData(String code) throws IOException, InterruptedException, URISyntaxException, BusinessLogicException {
-        URI uri = UriComponentsBuilder.fromUri(new URI(baseUrl))
+        String body = requestScheduler.send(exchangeRateUri(code));
+
+        validateResponseBody(body);
+
+        return objectMapper.readValue(body, ForexDTO.class);
+    }
+
+    public int streamStockHistoryDaily(String symbol, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws URISyntaxException, IOException, InterruptedException, BusinessLogicException {
+        DailyHistoryParser parser = new DailyHistoryParser(wrappedObjectMapper.getJsonFactory(), STOCK_HISTORY_SERIES, STOCK_HISTORY_PRICE);
+
+        return requestScheduler.stream(stockHistoryDailyUri(symbol, getOutputSize(since)), body -> parser.parse(body, since, consumer));
+    }
+
+    public int streamForexHistoryDaily(String currency, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws URISyntaxException, IOException, InterruptedException, BusinessLogicException {
+        DailyHistoryParser parser = new DailyHistoryParser(wrappedObjectMapper.getJsonFactory(), FOREX_HISTORY_SERIES, FOREX_HISTORY_PRICE);
+
+        return requestScheduler.stream(forexHistoryDailyUri(currency, getOutputSize(since)), body -> parser.parse(body, since, consumer));
+    }
+
+    public int streamCryptoHistoryDaily(String currency, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws URISyntaxException, IOException, InterruptedException, BusinessLogicException {
+        DailyHistoryParser parser = new DailyHistoryParser(wrappedObjectMapper.getJsonFactory(), CRYPTO_HISTORY_SERIES, CRYPTO_HISTORY_PRICE);
+
+        return requestScheduler.stream(cryptoHistoryDailyUri(currency, getOutputSize(since)), body -> parser.parse(body, since, consumer));
+    }
+
+    private URI stockUri(String ticker) throws URISyntaxException {
+        return UriComponentsBuilder.fromUri(new URI(baseUrl))
+                .queryParam(QUERY_PARAM_FUNCTION, QUERY_PARAM_FUNCTION_GLOBAL_QUOTE)
+                .queryParam(QUERY_PARAM_API_KEY, apiKey)
+                .queryParam(QUERY_PARAM_TICKER, ticker).build().toUri();
+    }
+
+    private URI exchangeRateUri(String code) throws URISyntaxException {
+        return UriComponentsBuilder.fromUri(new URI(baseUrl))
                 .queryParam(QUERY_PARAM_FUNCTION, QUERY_PARAM_FUNCTION_CURRENCY_EXCHANGE_RATE)
                 .queryParam(QUERY_PARAM_API_KEY, apiKey)
                 .queryParam(QUERY_PARAM_CURRENCY_FROM, code)
                 .queryParam(QUERY_PARAM_CURRENCY_TO, QUERY_PARAM_CURRENCY_TO_USD).build().toUri();
-
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
-
-        validateResponseBody(response.body());
-
-        return objectMapper.readValue(response.body(), ForexDTO.class);
     }
 
-    public StockHistoryDailyDTO getStockHistoryDaily(String symbol) throws URISyntaxException, IOException, InterruptedException, BusinessLogicException {
-        URI uri = UriComponentsBuilder.fromUri(new URI(baseUrl))
+    private URI stockHistoryDailyUri(String symbol, String outputSize) throws URISyntaxException {
+        return UriComponentsBuilder.fromUri(new URI(baseUrl))
                 .queryParam(QUERY_PARAM_FUNCTION, QUERY_PARAM_TIME_SERIES_DAILY)
                 .queryParam(QUERY_PARAM_API_KEY, apiKey)
-                .queryParam(QUERY_PARAM_OUTPUT_SIZE, QUERY_PARAM_OUTPUT_SIZE_FULL)
+                .queryParam(QUERY_PARAM_OUTPUT_SIZE, outputSize)
                 .queryParam(QUERY_PARAM_TICKER, symbol).build().toUri();
-
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
-
-        validateResponseBody(response.body());
-
-        return wrappedObjectMapper.readValue(response.body(), StockHistoryDailyDTO.class);
     }
 
-    public ForexHistoryDailyDTO getForexHistoryDaily(String currency) throws URISyntaxException, IOException, InterruptedException, BusinessLogicException {
-        URI uri = UriComponentsBuilder.fromUri(new URI(baseUrl))
+    private URI forexHistoryDailyUri(String currency, String outputSize) throws URISyntaxException {
+        return UriComponentsBuilder.fromUri(new URI(baseUrl))
                 .queryParam(QUERY_PARAM_FUNCTION, QUERY_PARAM_FUNCTION_FX_DAILY)
                 .queryParam(QUERY_PARAM_API_KEY, apiKey)
-                .queryParam(QUERY_PARAM_OUTPUT_SIZE, QUERY_PARAM_OUTPUT_SIZE_FULL)
+                .queryParam(QUERY_PARAM_OUTPUT_SIZE, outputSize)
                 .queryParam(QUERY_PARAM_SYMBOL_FROM, currency)
                 .queryParam(QUERY_PARAM_SYMBOL_TO, QUERY_PARAM_CURRENCY_TO_USD).build().toUri();
-
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
-
-        validateResponseBody(response.body());
-
-        return wrappedObjectMapper.readValue(response.body(), ForexHistoryDailyDTO.class);
     }
 
-    public CryptocurrencyHistoryDailyDTO getCryptoHistoryDaily(String currency) throws URISyntaxException, IOException, InterruptedException, BusinessLogicException {
-        URI uri = UriComponentsBuilder.fromUri(new URI(baseUrl))
+    private URI cryptoHistoryDailyUri(String currency, String outputSize) throws URISyntaxException {
+        return UriComponentsBuilder.fromUri(new URI(baseUrl))
                 .queryParam(QUERY_PARAM_FUNCTION, QUERY_PARAM_FUNCTION_DIGITAL_CURRENCY_DAILY)
                 .queryParam(QUERY_PARAM_API_KEY, apiKey)
-                .queryParam(QUERY_PARAM_OUTPUT_SIZE, QUERY_PARAM_OUTPUT_SIZE_FULL)
+                .queryParam(QUERY_PARAM_OUTPUT_SIZE, outputSize)
                 .queryParam(QUERY_PARAM_MARKET, QUERY_PARAM_CURRENCY_TO_USD)
                 .queryParam(QUERY_PARAM_TICKER, currency).build().toUri();
+    }
 
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
-
-        validateResponseBody(response.body());
-
-        return wrappedObjectMapper.readValue(response.body(), CryptocurrencyHistoryDailyDTO.class);
+    private String getOutputSize(LocalDate since) {
+        return since.isAfter(LocalDate.now().minusDays(COMPACT_OUTPUT_SIZE_DAYS)) ? QUERY_PARAM_OUTPUT_SIZE_COMPACT : QUERY_PARAM_OUTPUT_SIZE_FULL;
     }
 
     private void validateResponseBody(String body) throws IOException, BusinessLogicException {
@@ -0,0 +1,346 @@
+package com.github.ignasbudreika.portfollow.external.client;
+
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends AlphaVantage requests one at a time within the API's per minute quota. Identical
+ * requests waiting at the same time share a single call, requests made while serving a web
+ * request go ahead of background refreshes, and rate limited responses are retried after the
+ * server's Retry-After or an exponential backoff, pausing all other requests meanwhile.
+ * A response is rate limited when its status is 429 or its body is a JSON object with a top level
+ * Note or Information field, which is how AlphaVantage answers throttled and premium calls.
+ * Streamed requests hand the response body to the caller's parser without buffering it, so
+ * they are never shared and only their first bytes are checked. Their retries take the same
+ * backoff and queue position as any other request.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=AlphaVantageRequestScheduler")
+public class AlphaVantageRequestScheduler {
+    private static final int RATE_LIMIT_MESSAGE_MAX_LENGTH = 2048;
+    private static final Set<String> RATE_LIMIT_FIELDS = Set.of("Note", "Information");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    public interface StreamParser<T> {
+        T parse(InputStream body) throws IOException, BusinessLogicException;
+    }
+
+    enum Lane {
+        USER,
+        BACKGROUND
+    }
+
+    private final HttpClient client;
+    private final int requestsPerMinute;
+    private final int maxRetries;
+    private final Duration backoff;
+    private final PriorityBlockingQueue<PendingRequest> queue = new PriorityBlockingQueue<>(11,
+            Comparator.comparing((PendingRequest request) -> request.lane).thenComparingLong(request -> request.sequence));
+    private final Map<URI, PendingRequest> pending = new HashMap<>();
+    private final Deque<Long> sentTimes = new ConcurrentLinkedDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private volatile long pausedUntil = System.nanoTime();
+    private Thread dispatcher;
+
+    public AlphaVantageRequestScheduler(HttpClient client,
+                                        @Value("${http.client.alpha.vantage.requests.per.minute:5}") int requestsPerMinute,
+                                        @Value("${http.client.alpha.vantage.max.retries:3}") int maxRetries,
+                                        @Value("${http.client.alpha.vantage.backoff:PT1M}") Duration backoff) {
+        this.client = client;
+        this.requestsPerMinute = requestsPerMinute;
+        this.maxRetries = maxRetries;
+        this.backoff = backoff;
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::dispatch, "alpha-vantage-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.interrupt();
+    }
+
+    public String send(URI uri) throws IOException, InterruptedException, BusinessLogicException {
+        return await(submit(uri, currentLane()).result.copy());
+    }
+
+    public <T> T stream(URI uri, StreamParser<T> parser) throws IOException, InterruptedException, BusinessLogicException {
+        PendingRequest request = new PendingRequest(uri, currentLane(), sequence.incrementAndGet());
+        request.streamed = new CompletableFuture<>();
+        queue.add(request);
+
+        while (true) {
+            HttpResponse<InputStream> response = await(request.streamed);
+            try (InputStream body = new BufferedInputStream(response.body())) {
+                if (!isRateLimited(response.statusCode(), peek(body))) {
+                    return parser.parse(body);
+                }
+            }
+
+            request.streamed = new CompletableFuture<>();
+            if (!retry(request, response)) {
+                throw new BusinessLogicException("AlphaVantage rate limit exceeded");
+            }
+        }
+    }
+
+    private static Lane currentLane() {
+        return RequestContextHolder.getRequestAttributes() != null ? Lane.USER : Lane.BACKGROUND;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException, BusinessLogicException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BusinessLogicException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private synchronized PendingRequest submit(URI uri, Lane lane) {
+        PendingRequest request = pending.get(uri);
+        if (request != null) {
+            coalesced.incrementAndGet();
+            if (lane.compareTo(request.lane) < 0 && queue.remove(request)) {
+                request.lane = lane;
+                queue.add(request);
+            }
+
+            return request;
+        }
+
+        request = new PendingRequest(uri, lane, sequence.incrementAndGet());
+        pending.put(uri, request);
+        queue.add(request);
+
+        return request;
+    }
+
+    private synchronized void finish(PendingRequest request) {
+        pending.remove(request.uri, request);
+    }
+
+    private void dispatch() {
+        long interval = MINUTE_NANOS / requestsPerMinute;
+        long nextPermit = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                long wait = Math.max(nextPermit, pausedUntil) - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                    continue;
+                }
+
+                PendingRequest request = queue.take();
+                if (pausedUntil > System.nanoTime()) {
+                    queue.add(request);
+                    continue;
+                }
+
+                long now = System.nanoTime();
+                nextPermit = now + interval;
+                sent.incrementAndGet();
+                sentTimes.addLast(now);
+                removeSentBefore(now - MINUTE_NANOS);
+
+                HttpRequest httpRequest = HttpRequest.newBuilder(request.uri).GET().build();
+                if (request.streamed != null) {
+                    client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofInputStream())
+                            .whenComplete((response, error) -> completeStreamed(request, response, error));
+                } else {
+                    client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+                            .whenComplete((response, error) -> complete(request, response, error));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void complete(PendingRequest request, HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            finish(request);
+            request.result.completeExceptionally(error);
+            return;
+        }
+
+        if (isRateLimited(response.statusCode(), response.body())) {
+            if (retry(request, response)) {
+                return;
+            }
+
+            finish(request);
+            request.result.completeExceptionally(new BusinessLogicException("AlphaVantage rate limit exceeded"));
+            return;
+        }
+
+        finish(request);
+        request.result.complete(response.body());
+    }
+
+    private void completeStreamed(PendingRequest request, HttpResponse<InputStream> response, Throwable error) {
+        if (error != null) {
+            request.streamed.completeExceptionally(error);
+        } else {
+            request.streamed.complete(response);
+        }
+    }
+
+    private boolean retry(PendingRequest request, HttpResponse<?> response) {
+        rateLimited.incrementAndGet();
+        if (request.attempts >= maxRetries) {
+            return false;
+        }
+
+        request.attempts++;
+        pause(getRetryAfter(response).orElse(backoff.multipliedBy(1L << (request.attempts - 1))), request.attempts);
+        queue.add(request);
+
+        return true;
+    }
+
+    private void pause(Duration retryAfter, int attempt) {
+        pausedUntil = Math.max(pausedUntil, System.nanoTime() + retryAfter.toNanos());
+        log.warn("AlphaVantage rate limit reached, retrying request in: {}, attempt: {}", retryAfter, attempt);
+    }
+
+    private void removeSentBefore(long time) {
+        Long first;
+        while ((first = sentTimes.peekFirst()) != null && first < time) {
+            sentTimes.pollFirst();
+        }
+    }
+
+    private static String peek(InputStream body) throws IOException {
+        body.mark(RATE_LIMIT_MESSAGE_MAX_LENGTH + 1);
+        byte[] prefix = body.readNBytes(RATE_LIMIT_MESSAGE_MAX_LENGTH + 1);
+        body.reset();
+
+        return prefix.length > RATE_LIMIT_MESSAGE_MAX_LENGTH ? null : new String(prefix, StandardCharsets.UTF_8);
+    }
+
+    private boolean isRateLimited(int statusCode, String body) {
+        if (statusCode == 429) {
+            return true;
+        }
+
+        if (body == null || body.length() > RATE_LIMIT_MESSAGE_MAX_LENGTH) {
+            return false;
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createJsonParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (RATE_LIMIT_FIELDS.contains(parser.getCurrentName())) {
+                    return true;
+                }
+                parser.nextToken();
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+
+        return false;
+    }
+
+    private Optional<Duration> getRetryAfter(HttpResponse<?> response) {
+        try {
+            return response.headers().firstValue("Retry-After").map(seconds -> Duration.ofSeconds(Long.parseLong(seconds.trim())));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of user facing requests waiting to be sent")
+    public long getUserQueueDepth() {
+        return queue.stream().filter(request -> request.lane == Lane.USER).count();
+    }
+
+    @ManagedAttribute(description = "Number of background requests waiting to be sent")
+    public long getBackgroundQueueDepth() {
+        return queue.stream().filter(request -> request.lane == Lane.BACKGROUND).count();
+    }
+
+    @ManagedAttribute(description = "Number of requests allowed per minute")
+    public int getRequestsPerMinute() {
+        return requestsPerMinute;
+    }
+
+    @ManagedAttribute(description = "Number of requests sent during the last minute")
+    public int getRequestsLastMinute() {
+        removeSentBefore(System.nanoTime() - MINUTE_NANOS);
+
+        return sentTimes.size();
+    }
+
+    @ManagedAttribute(description = "Number of requests sent")
+    public long getRequestsSent() {
+        return sent.get();
+    }
+
+    @ManagedAttribute(description = "Number of requests answered by a call already waiting for the same data")
+    public long getRequestsCoalesced() {
+        return coalesced.get();
+    }
+
+    @ManagedAttribute(description = "Number of responses rejected by the rate limit")
+    public long getRateLimitedResponses() {
+        return rateLimited.get();
+    }
+
+    private static class PendingRequest {
+        private final URI uri;
+        private final long sequence;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private CompletableFuture<HttpResponse<InputStream>> streamed;
+        private volatile Lane lane;
+        private int attempts;
+
+        private PendingRequest(URI uri, Lane lane, long sequence) {
+            this.uri = uri;
+            this.lane = lane;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.ignasbudreika.portfollow.external.client;
+
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads an AlphaVantage daily time series token by token. Days up to the cutoff are skipped
+ * without being materialized and the close price of every later day is handed to the consumer,
+ * so a full size series never has to be held in memory. An error, a rate limit note or a premium
+ * endpoint message at the top level fails the parse instead of reading as a series without days.
+ */
+class DailyHistoryParser {
+    private static final Set<String> ERROR_FIELDS = Set.of("Error Message", "Note", "Information");
+
+    private final JsonFactory jsonFactory;
+    private final String seriesField;
+    private final String priceField;
+
+    DailyHistoryParser(JsonFactory jsonFactory, String seriesField, String priceField) {
+        this.jsonFactory = jsonFactory;
+        this.seriesField = seriesField;
+        this.priceField = priceField;
+    }
+
+    int parse(InputStream body, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws IOException, BusinessLogicException {
+        try (JsonParser parser = jsonFactory.createJsonParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException("expected daily history object", parser.getCurrentLocation());
+            }
+
+            int days = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                if (ERROR_FIELDS.contains(field)) {
+                    throw new BusinessLogicException(String.format("failed to get symbol data with error: %s", parser.getText()));
+                } else if (seriesField.equals(field)) {
+                    days += parseSeries(parser, since, consumer);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            return days;
+        }
+    }
+
+    private int parseSeries(JsonParser parser, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws IOException {
+        int days = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            LocalDate date = LocalDate.parse(parser.getCurrentName());
+            parser.nextToken();
+
+            if (!date.isAfter(since)) {
+                parser.skipChildren();
+                continue;
+            }
+
+            String price = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                if (priceField.equals(field)) {
+                    price = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (price != null) {
+                consumer.accept(date, new BigDecimal(price));
+                days++;
+            }
+        }
+
+        return days;
+    }
+}
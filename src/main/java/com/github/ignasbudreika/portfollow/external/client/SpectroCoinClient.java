@@ -54,9 +54,7 @@ public class SpectroCoinClient {
             throw new InvalidExternalRequestException(String.format("could not retrieve access token for client: %s", clientId));
         }
 
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(new URI(walletUrl))
-                .header(HTTP_REQUEST_HEADER_AUTHORIZATION, String.format("Bearer %s", accessToken))
-                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = client.send(accountRequest(accessToken), HttpResponse.BodyHandlers.ofString());
 
         if (HttpStatus.valueOf(response.statusCode()).is4xxClientError()) {
             throw new InvalidExternalRequestException(String.format("account request for client: %s failed with status code: %s and response body: %s",
@@ -73,9 +71,21 @@ public class SpectroCoinClient {
     }
 
     private String getAccessToken(String clientId, String clientSecret) throws IOException, URISyntaxException, InterruptedException {
+        return readAccessToken(client.send(accessTokenRequest(clientId, clientSecret), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private String readAccessToken(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() != 200) {
+            return null;
+        }
+
+        return wrappedObjectMapper.readValue(response.body(), AccessTokenDTO.class).getAccessToken();
+    }
+
+    private HttpRequest accessTokenRequest(String clientId, String clientSecret) throws IOException, URISyntaxException {
         URI uri = UriComponentsBuilder.fromUri(new URI(oauthUrl)).build().toUri();
 
-        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+        return HttpRequest.newBuilder(uri)
                 .header(HTTP_REQUEST_HEADER_CONTENT_TYPE, HTTP_REQUEST_HEADER_CONTENT_TYPE_JSON)
                 .POST(
                     HttpRequest.BodyPublishers.ofString(
@@ -85,12 +95,12 @@ public class SpectroCoinClient {
                             .clientId(clientId)
                             .clientSecret(clientSecret).build()
                         ), StandardCharsets.UTF_8)
-                ).build(), HttpResponse.BodyHandlers.ofString());
-
-        if (response.statusCode() != 200) {
-            return null;
-        }
+                ).build();
+    }
 
-        return wrappedObjectMapper.readValue(response.body(), AccessTokenDTO.class).getAccessToken();
+    private HttpRequest accountRequest(String accessToken) throws URISyntaxException {
+        return HttpRequest.newBuilder(new URI(walletUrl))
+                .header(HTTP_REQUEST_HEADER_AUTHORIZATION, String.format("Bearer %s", accessToken))
+                .GET().build();
     }
 }
@@ -7,24 +7,30 @@ import lombok.NoArgsConstructor;
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
 import org.codehaus.jackson.annotate.JsonProperty;
 
-import java.util.Map;
+import java.util.List;
 
 @Getter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties(ignoreUnknown = true)
-public class CryptocurrencyHistoryDailyDTO {
-    @JsonProperty("Time Series (Digital Currency Daily)")
-    private Map<String, HistoryDTO> history;
+public class BulkQuotesDTO {
+    @JsonProperty("data")
+    private List<QuoteDTO> quotes;
 
     @Getter
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
     @JsonIgnoreProperties(ignoreUnknown = true)
-    public static class HistoryDTO {
-        @JsonProperty("4a. close (USD)")
+    public static class QuoteDTO {
+        @JsonProperty("symbol")
+        private String symbol;
+
+        @JsonProperty("close")
         private String price;
+
+        @JsonProperty("previous_close")
+        private String previousClose;
     }
 }
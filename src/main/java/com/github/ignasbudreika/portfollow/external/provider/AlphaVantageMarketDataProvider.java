@@ -0,0 +1,114 @@
+package com.github.ignasbudreika.portfollow.external.provider;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.external.client.AlphaVantageClient;
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+import com.github.ignasbudreika.portfollow.external.dto.response.BulkQuotesDTO;
+import com.github.ignasbudreika.portfollow.external.dto.response.StockDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads prices from AlphaVantage. Stocks are quoted a hundred symbols per call through the bulk
+ * quotes endpoint when the API key has access to it. Other symbols are quoted one per call.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "market.data.provider", havingValue = "alpha-vantage", matchIfMissing = true)
+public class AlphaVantageMarketDataProvider implements MarketDataProvider {
+    private static final String LOG_FORMAT = "exception occured while fetching asset: %s of type: %s data";
+    private static final int BULK_QUOTES_MAX_SYMBOLS = 100;
+
+    @Value("${http.client.alpha.vantage.bulk.quotes.enabled:false}")
+    private boolean bulkQuotesEnabled;
+
+    @Autowired
+    private AlphaVantageClient client;
+
+    @Override
+    public Quote getQuote(InvestmentType type, String symbol) throws IOException, InterruptedException, BusinessLogicException {
+        try {
+            return switch (type) {
+                case STOCK -> {
+                    StockDTO stock = client.getStockData(symbol);
+                    yield toQuote(stock.getPrice(), stock.getPreviousClose());
+                }
+                case CRYPTO -> toQuote(client.getCryptocurrencyData(symbol).getExchangeRate(), null);
+                case FIAT -> toQuote(client.getCurrencyData(symbol).getExchangeRate(), null);
+            };
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public Map<String, Quote> getQuotes(InvestmentType type, Collection<String> symbols) {
+        if (type == InvestmentType.STOCK && bulkQuotesEnabled) {
+            return getBulkStockQuotes(List.copyOf(symbols));
+        }
+
+        Map<String, Quote> quotes = new HashMap<>();
+        for (String symbol : symbols) {
+            try {
+                quotes.put(symbol, getQuote(type, symbol));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return quotes;
+            } catch (Exception e) {
+                log.error(String.format(LOG_FORMAT, symbol, type), e);
+            }
+        }
+
+        return quotes;
+    }
+
+    @Override
+    public int streamDailyHistory(InvestmentType type, String symbol, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws IOException, InterruptedException, BusinessLogicException {
+        try {
+            return switch (type) {
+                case STOCK -> client.streamStockHistoryDaily(symbol, since, consumer);
+                case CRYPTO -> client.streamCryptoHistoryDaily(symbol, since, consumer);
+                case FIAT -> client.streamForexHistoryDaily(symbol, since, consumer);
+            };
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Map<String, Quote> getBulkStockQuotes(List<String> symbols) {
+        Map<String, Quote> quotes = new HashMap<>();
+        for (int from = 0; from < symbols.size(); from += BULK_QUOTES_MAX_SYMBOLS) {
+            List<String> batch = symbols.subList(from, Math.min(from + BULK_QUOTES_MAX_SYMBOLS, symbols.size()));
+            try {
+                BulkQuotesDTO bulkQuotes = client.getBulkStockData(batch);
+                if (bulkQuotes.getQuotes() != null) {
+                    bulkQuotes.getQuotes().forEach(quote -> quotes.put(quote.getSymbol(), toQuote(quote.getPrice(), quote.getPreviousClose())));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return quotes;
+            } catch (Exception e) {
+                log.error(String.format(LOG_FORMAT, batch, InvestmentType.STOCK), e);
+            }
+        }
+
+        return quotes;
+    }
+
+    private Quote toQuote(String price, String previousClose) {
+        return Quote.builder()
+                .price(price != null ? new BigDecimal(price) : null)
+                .previousClose(previousClose != null ? new BigDecimal(previousClose) : null)
+                .build();
+    }
+}
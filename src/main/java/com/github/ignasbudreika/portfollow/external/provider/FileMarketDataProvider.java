@@ -0,0 +1,195 @@
+package com.github.ignasbudreika.portfollow.external.provider;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads prices from daily close files on local disk, so prices can be replayed and load tested
+ * without network access or a vendor quota. Each symbol has a {@code <TYPE>/<SYMBOL>.csv} file
+ * of {@code yyyy-MM-dd,close} lines in ascending date order; lines not starting with a digit,
+ * such as a header, are ignored. Files are memory mapped once and read in place: the quote is
+ * taken from the last two lines and history dates are compared as bytes, so only the prices
+ * handed out are ever decoded.
+ */
+@Slf4j
+@Component
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=FileMarketDataProvider")
+@ConditionalOnProperty(name = "market.data.provider", havingValue = "file")
+public class FileMarketDataProvider implements MarketDataProvider {
+    private static final String LOG_FORMAT = "exception occured while fetching asset: %s of type: %s data";
+    private static final String FILE_EXTENSION = ".csv";
+    private static final int DATE_LENGTH = 10;
+    private static final byte SEPARATOR = ',';
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final Path directory;
+    private final Map<Path, ByteBuffer> files = new ConcurrentHashMap<>();
+
+    public FileMarketDataProvider(@Value("${market.data.file.directory}") Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public Quote getQuote(InvestmentType type, String symbol) throws IOException, BusinessLogicException {
+        ByteBuffer data = map(type, symbol);
+
+        int lastLineStart = previousLineStart(data, data.limit());
+        while (lastLineStart >= 0 && !isDataLine(data, lastLineStart)) {
+            lastLineStart = previousLineStart(data, lastLineStart);
+        }
+        if (lastLineStart < 0) {
+            throw new BusinessLogicException(String.format("failed to get symbol data with error: no prices for %s", symbol));
+        }
+
+        int previousLineStart = previousLineStart(data, lastLineStart);
+        BigDecimal previousClose = previousLineStart >= 0 && isDataLine(data, previousLineStart) ? readPrice(data, previousLineStart) : null;
+
+        return Quote.builder()
+                .price(readPrice(data, lastLineStart))
+                .previousClose(previousClose)
+                .build();
+    }
+
+    @Override
+    public Map<String, Quote> getQuotes(InvestmentType type, Collection<String> symbols) {
+        Map<String, Quote> quotes = new HashMap<>();
+        for (String symbol : symbols) {
+            try {
+                quotes.put(symbol, getQuote(type, symbol));
+            } catch (IOException | BusinessLogicException e) {
+                log.error(String.format(LOG_FORMAT, symbol, type), e);
+            }
+        }
+
+        return quotes;
+    }
+
+    @Override
+    public int streamDailyHistory(InvestmentType type, String symbol, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws IOException, BusinessLogicException {
+        ByteBuffer data = map(type, symbol);
+        byte[] sinceDate = since.toString().getBytes(StandardCharsets.US_ASCII);
+
+        int days = 0;
+        for (int lineStart = 0; lineStart < data.limit(); lineStart = nextLineStart(data, lineStart)) {
+            if (isDataLine(data, lineStart) && compareDate(data, lineStart, sinceDate) > 0) {
+                consumer.accept(readDate(data, lineStart), readPrice(data, lineStart));
+                days++;
+            }
+        }
+
+        return days;
+    }
+
+    @ManagedOperation(description = "Unmaps all files so that changed files are read again")
+    public void reload() {
+        files.clear();
+    }
+
+    private ByteBuffer map(InvestmentType type, String symbol) throws IOException, BusinessLogicException {
+        Path file = directory.resolve(type.name()).resolve(symbol + FILE_EXTENSION).normalize();
+        if (!file.startsWith(directory)) {
+            throw new BusinessLogicException(String.format("invalid symbol: %s", symbol));
+        }
+
+        ByteBuffer data = files.get(file);
+        if (data != null) {
+            return data;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            throw new BusinessLogicException(String.format("failed to get symbol data with error: no prices for %s", symbol));
+        }
+
+        ByteBuffer existing = files.putIfAbsent(file, data);
+        return existing != null ? existing : data;
+    }
+
+    private boolean isDataLine(ByteBuffer data, int lineStart) {
+        return lineStart + DATE_LENGTH < data.limit()
+                && Character.isDigit(data.get(lineStart))
+                && data.get(lineStart + DATE_LENGTH) == SEPARATOR;
+    }
+
+    private int compareDate(ByteBuffer data, int lineStart, byte[] date) {
+        for (int i = 0; i < DATE_LENGTH; i++) {
+            int difference = data.get(lineStart + i) - date[i];
+            if (difference != 0) {
+                return difference;
+            }
+        }
+
+        return 0;
+    }
+
+    private LocalDate readDate(ByteBuffer data, int lineStart) {
+        byte[] date = new byte[DATE_LENGTH];
+        data.get(lineStart, date);
+
+        return LocalDate.parse(new String(date, StandardCharsets.US_ASCII));
+    }
+
+    private BigDecimal readPrice(ByteBuffer data, int lineStart) {
+        int priceStart = lineStart + DATE_LENGTH + 1;
+        int priceEnd = priceStart;
+        while (priceEnd < data.limit() && data.get(priceEnd) != NEW_LINE && data.get(priceEnd) != CARRIAGE_RETURN && data.get(priceEnd) != SEPARATOR) {
+            priceEnd++;
+        }
+
+        byte[] price = new byte[priceEnd - priceStart];
+        data.get(priceStart, price);
+
+        return new BigDecimal(new String(price, StandardCharsets.US_ASCII));
+    }
+
+    private int nextLineStart(ByteBuffer data, int lineStart) {
+        int position = lineStart;
+        while (position < data.limit() && data.get(position) != NEW_LINE) {
+            position++;
+        }
+
+        return position + 1;
+    }
+
+    /**
+     * Returns the start of the last non blank line before the given position, or -1 when there is none.
+     */
+    private int previousLineStart(ByteBuffer data, int lineStart) {
+        int position = lineStart - 1;
+        while (position >= 0 && (data.get(position) == NEW_LINE || data.get(position) == CARRIAGE_RETURN)) {
+            position--;
+        }
+        if (position < 0) {
+            return -1;
+        }
+
+        while (position > 0 && data.get(position - 1) != NEW_LINE) {
+            position--;
+        }
+
+        return position;
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.ignasbudreika.portfollow.external.provider;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Source of asset prices. The implementation in use is chosen with the market.data.provider
+ * property.
+ */
+public interface MarketDataProvider {
+    /**
+     * Returns the current quote of a single symbol, failing when the symbol cannot be quoted.
+     */
+    Quote getQuote(InvestmentType type, String symbol) throws IOException, InterruptedException, BusinessLogicException;
+
+    /**
+     * Returns quotes by symbol, fetching many symbols of the same type in as few calls as the
+     * provider allows. Symbols that could not be quoted are left out of the result rather than
+     * failing the whole batch.
+     */
+    Map<String, Quote> getQuotes(InvestmentType type, Collection<String> symbols);
+
+    /**
+     * Hands the daily close of every day after the given date to the consumer and returns the
+     * number of days handed.
+     */
+    int streamDailyHistory(InvestmentType type, String symbol, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws IOException, InterruptedException, BusinessLogicException;
+}
@@ -0,0 +1,15 @@
+package com.github.ignasbudreika.portfollow.external.provider;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class Quote {
+    private BigDecimal price;
+    private BigDecimal previousClose;
+}
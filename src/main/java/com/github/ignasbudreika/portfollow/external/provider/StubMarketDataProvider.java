@@ -0,0 +1,67 @@
+package com.github.ignasbudreika.portfollow.external.provider;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Serves prices put into it in memory, for tests and local runs without network access.
+ */
+@Component
+@ConditionalOnProperty(name = "market.data.provider", havingValue = "stub")
+public class StubMarketDataProvider implements MarketDataProvider {
+    private final Map<InvestmentType, Map<String, Quote>> quotes = new ConcurrentHashMap<>();
+    private final Map<InvestmentType, Map<String, NavigableMap<LocalDate, BigDecimal>>> history = new ConcurrentHashMap<>();
+
+    public void putQuote(InvestmentType type, String symbol, Quote quote) {
+        quotes.computeIfAbsent(type, key -> new ConcurrentHashMap<>()).put(symbol, quote);
+    }
+
+    public void putHistory(InvestmentType type, String symbol, LocalDate date, BigDecimal price) {
+        history.computeIfAbsent(type, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(symbol, key -> new ConcurrentSkipListMap<>())
+                .put(date, price);
+    }
+
+    @Override
+    public Quote getQuote(InvestmentType type, String symbol) throws BusinessLogicException {
+        Quote quote = quotes.getOrDefault(type, Map.of()).get(symbol);
+        if (quote == null) {
+            throw new BusinessLogicException(String.format("failed to get symbol data with error: no quote for %s", symbol));
+        }
+
+        return quote;
+    }
+
+    @Override
+    public Map<String, Quote> getQuotes(InvestmentType type, Collection<String> symbols) {
+        Map<String, Quote> typeQuotes = quotes.getOrDefault(type, Map.of());
+
+        Map<String, Quote> result = new HashMap<>();
+        symbols.forEach(symbol -> {
+            Quote quote = typeQuotes.get(symbol);
+            if (quote != null) {
+                result.put(symbol, quote);
+            }
+        });
+
+        return result;
+    }
+
+    @Override
+    public int streamDailyHistory(InvestmentType type, String symbol, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) {
+        NavigableMap<LocalDate, BigDecimal> days = history.getOrDefault(type, Map.of()).getOrDefault(symbol, Collections.emptyNavigableMap())
+                .tailMap(since, false);
+        days.forEach(consumer);
+
+        return days.size();
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.ignasbudreika.portfollow.model;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+
+import java.time.LocalDate;
+
+public interface AssetHistoryFreshness {
+    String getAssetId();
+    String getSymbol();
+    InvestmentType getType();
+    LocalDate getLastDate();
+}
@@ -0,0 +1,35 @@
+package com.github.ignasbudreika.portfollow.model;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(uniqueConstraints = { @UniqueConstraint(columnNames = { "symbol", "type" }) })
+public class AssetPrice {
+    @Id
+    @GeneratedValue(generator = "uuid")
+    @GenericGenerator(name = "uuid", strategy = "uuid2")
+    private String id;
+    @Column(nullable = false)
+    private String symbol;
+    @Column(nullable = false)
+    private InvestmentType type;
+    @Column(precision = 19, scale = 8, nullable = false)
+    private BigDecimal price;
+    @Column(name = "previous_close", precision = 19, scale = 8)
+    private BigDecimal previousClose;
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
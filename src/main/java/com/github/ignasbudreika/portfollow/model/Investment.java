@@ -3,6 +3,7 @@ package com.github.ignasbudreika.portfollow.model;
 import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.util.FixedPoint;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
@@ -21,7 +22,11 @@ import java.util.stream.Collectors;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "investment")
+@NamedEntityGraph(name = Investment.WITH_ASSET_AND_TRANSACTIONS, attributeNodes = {
+        @NamedAttributeNode("user"), @NamedAttributeNode("asset"), @NamedAttributeNode("transactions") })
 public class Investment {
+    public static final String WITH_ASSET_AND_TRANSACTIONS = "Investment.withAssetAndTransactions";
+
     @Id
     @GeneratedValue(generator = "uuid")
     @GenericGenerator(name = "uuid", strategy = "uuid2")
@@ -47,18 +52,26 @@ public class Investment {
     private InvestmentUpdateType updateType;
     @OneToMany(mappedBy = "investment", cascade = CascadeType.REMOVE)
     private Set<InvestmentTransaction> transactions = new HashSet<>();
-    @ManyToMany(mappedBy = "investments")
-    @Getter(AccessLevel.NONE)
-    private Set<PortfolioHistory> portfolioHistories;
 
     public BigDecimal getQuantityAt(LocalDate date) {
-        return getTransactions().stream().filter(transaction -> !transaction.getDate().isAfter(date)).map(transaction -> {
+        return FixedPoint.toBigDecimal(getFixedQuantityAt(date));
+    }
+
+    public long getFixedQuantityAt(LocalDate date) {
+        long quantity = 0;
+        for (InvestmentTransaction transaction : getTransactions()) {
+            if (transaction.getDate().isAfter(date)) {
+                continue;
+            }
+
             if (transaction.getType().equals(InvestmentTransactionType.BUY)) {
-                return transaction.getQuantity();
+                quantity = FixedPoint.add(quantity, FixedPoint.of(transaction.getQuantity()));
             } else {
-                return transaction.getQuantity().negate();
+                quantity = FixedPoint.subtract(quantity, FixedPoint.of(transaction.getQuantity()));
             }
-        }).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        return quantity;
     }
 
     public BigDecimal getLowestQuantitySince(LocalDate date) {
@@ -0,0 +1,42 @@
+package com.github.ignasbudreika.portfollow.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "investment_daily_value", uniqueConstraints = { @UniqueConstraint(columnNames = { "investment_id", "date" }) })
+public class InvestmentDailyValue {
+    @Id
+    @GeneratedValue(generator = "uuid")
+    @GenericGenerator(name = "uuid", strategy = "uuid2")
+    private String id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name="investment_id", nullable=false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Investment investment;
+    @Column(nullable = false)
+    private LocalDate date;
+    @Column(precision = 19, scale = 8, nullable = false)
+    private BigDecimal quantity;
+    @Column(precision = 19, scale = 8, nullable = false)
+    private BigDecimal price;
+    @Column(precision = 19, scale = 8, nullable = false)
+    private BigDecimal value;
+    @Column(name = "cost_basis", precision = 19, scale = 8, nullable = false)
+    private BigDecimal costBasis;
+    @Column(precision = 19, scale = 8, nullable = false)
+    private BigDecimal proceeds;
+
+    public BigDecimal getProfitLoss() {
+        return value.add(proceeds).subtract(costBasis);
+    }
+}
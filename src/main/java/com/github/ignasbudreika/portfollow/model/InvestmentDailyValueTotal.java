@@ -0,0 +1,18 @@
+package com.github.ignasbudreika.portfollow.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class InvestmentDailyValueTotal {
+    private LocalDate date;
+    private BigDecimal value;
+    private BigDecimal costBasis;
+    private BigDecimal proceeds;
+}
@@ -1,13 +1,13 @@
 package com.github.ignasbudreika.portfollow.model;
 
+import com.github.ignasbudreika.portfollow.component.IdSetConverter;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Set;
 
 @Data
 @Entity
@@ -27,11 +27,8 @@ public class PortfolioHistory {
     @ManyToOne
     @JoinColumn(name="user_id", nullable=false)
     private User user;
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @Column(name = "investment_ids", columnDefinition = "text")
+    @Convert(converter = IdSetConverter.class)
     @EqualsAndHashCode.Exclude
-    @JoinTable(
-            name = "portfolio_history_investment",
-            joinColumns = @JoinColumn(name = "portfolio_history_id", referencedColumnName = "id"),
-            inverseJoinColumns = @JoinColumn(name = "investment_id", referencedColumnName = "id"))
-    private Collection<Investment> investments = new ArrayList<>();
+    private Set<String> investmentIds;
 }
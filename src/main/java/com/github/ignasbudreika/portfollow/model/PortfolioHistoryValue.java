@@ -0,0 +1,9 @@
+package com.github.ignasbudreika.portfollow.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface PortfolioHistoryValue {
+    LocalDate getDate();
+    BigDecimal getValue();
+}
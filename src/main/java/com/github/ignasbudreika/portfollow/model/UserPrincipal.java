@@ -0,0 +1,39 @@
+package com.github.ignasbudreika.portfollow.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+
+/**
+ * The authenticated user as resolved once per request. Its name is the Google id, as it was
+ * before the user was resolved, so {@code Authentication.getName()} keeps returning it.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal implements Principal {
+    private final String id;
+    private final String email;
+    private final String username;
+    private final String googleId;
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getUsername(), user.getGoogleId());
+    }
+
+    @Override
+    public String getName() {
+        return googleId;
+    }
+
+    /**
+     * Returns a detached user with the same state, which services can read, reference and save.
+     */
+    public User toUser() {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .username(username)
+                .googleId(googleId).build();
+    }
+}
@@ -2,10 +2,16 @@ package com.github.ignasbudreika.portfollow.repository;
 
 import com.github.ignasbudreika.portfollow.enums.ConnectionStatus;
 import com.github.ignasbudreika.portfollow.model.AlpacaConnection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AlpacaConnectionRepository extends CrudRepository<AlpacaConnection, String> {
     AlpacaConnection findByUserIdAndStatus(String userId, ConnectionStatus status);
+    @EntityGraph(attributePaths = "user")
+    List<AlpacaConnection> findAllByStatusAndIdGreaterThanOrderByIdAsc(ConnectionStatus status, String id, Pageable pageable);
 }
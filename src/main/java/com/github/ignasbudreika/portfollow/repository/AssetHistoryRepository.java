@@ -1,14 +1,23 @@
 package com.github.ignasbudreika.portfollow.repository;
 
 import com.github.ignasbudreika.portfollow.model.AssetHistory;
+import com.github.ignasbudreika.portfollow.model.AssetHistoryFreshness;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Repository
-public interface AssetHistoryRepository extends CrudRepository<AssetHistory, String> {
+public interface AssetHistoryRepository extends CrudRepository<AssetHistory, String>, AssetHistoryRepositoryCustom {
     AssetHistory findFirstByAssetIdAndDateLessThanEqualOrderByDateDesc(String id, LocalDate date);
-    AssetHistory findByAssetIdAndDate(String id, LocalDate date);
     boolean existsByAssetId(String id);
+    List<AssetHistory> findAllByAssetIdOrderByDateAsc(String id);
+    AssetHistory findFirstByAssetIdOrderByDateDesc(String id);
+    List<AssetHistory> findAllByAssetIdAndDateAfter(String id, LocalDate after);
+    @Query("select a.id as assetId, a.symbol as symbol, a.type as type, max(h.date) as lastDate " +
+            "from Asset a left join AssetHistory h on h.asset = a " +
+            "group by a.id, a.symbol, a.type order by max(h.date) asc nulls first")
+    List<AssetHistoryFreshness> findHistoryFreshness();
 }
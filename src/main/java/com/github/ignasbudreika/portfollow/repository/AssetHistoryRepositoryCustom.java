@@ -0,0 +1,9 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.model.AssetHistory;
+
+import java.util.Collection;
+
+public interface AssetHistoryRepositoryCustom {
+    void upsertAll(Collection<AssetHistory> histories);
+}
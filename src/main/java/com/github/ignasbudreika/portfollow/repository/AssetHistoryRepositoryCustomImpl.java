@@ -0,0 +1,43 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.model.AssetHistory;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Writes asset prices with batched INSERT ... ON CONFLICT statements, inserting missing days
+ * and updating existing ones in the same round trips. Pending entity changes are flushed first
+ * so that an asset created in the current transaction exists before its history is written.
+ */
+@AllArgsConstructor
+public class AssetHistoryRepositoryCustomImpl implements AssetHistoryRepositoryCustom {
+    private static final int BATCH_SIZE = 500;
+    private static final String UPSERT = "insert into asset_history (id, asset_id, date, price) values (?, ?, ?, ?) " +
+            "on conflict (asset_id, date) do update set price = excluded.price";
+
+    private JdbcTemplate jdbcTemplate;
+    private EntityManager entityManager;
+
+    @Override
+    public void upsertAll(Collection<AssetHistory> histories) {
+        if (histories.isEmpty()) {
+            return;
+        }
+
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT, histories, BATCH_SIZE, (statement, history) -> {
+            statement.setString(1, history.getId() != null ? history.getId() : UUID.randomUUID().toString());
+            statement.setString(2, history.getAsset().getId());
+            statement.setDate(3, Date.valueOf(history.getDate()));
+            statement.setBigDecimal(4, history.getPrice());
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.model.AssetPrice;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AssetPriceRepository extends CrudRepository<AssetPrice, String>, AssetPriceRepositoryCustom {
+    AssetPrice findBySymbolAndType(String symbol, InvestmentType type);
+}
@@ -0,0 +1,9 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.model.AssetPrice;
+
+import java.util.Collection;
+
+public interface AssetPriceRepositoryCustom {
+    void upsertAll(Collection<AssetPrice> prices);
+}
@@ -0,0 +1,38 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.model.AssetPrice;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Writes current asset prices with batched INSERT ... ON CONFLICT statements, so a price
+ * refresh replaces every asset's row in a few round trips without reading them first.
+ */
+@AllArgsConstructor
+public class AssetPriceRepositoryCustomImpl implements AssetPriceRepositoryCustom {
+    private static final int BATCH_SIZE = 500;
+    private static final String UPSERT = "insert into asset_price (id, symbol, type, price, previous_close, updated_at) values (?, ?, ?, ?, ?, ?) " +
+            "on conflict (symbol, type) do update set price = excluded.price, previous_close = excluded.previous_close, updated_at = excluded.updated_at";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(Collection<AssetPrice> prices) {
+        if (prices.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT, prices, BATCH_SIZE, (statement, price) -> {
+            statement.setString(1, price.getId() != null ? price.getId() : UUID.randomUUID().toString());
+            statement.setString(2, price.getSymbol());
+            statement.setInt(3, price.getType().ordinal());
+            statement.setBigDecimal(4, price.getPrice());
+            statement.setBigDecimal(5, price.getPreviousClose());
+            statement.setTimestamp(6, Timestamp.valueOf(price.getUpdatedAt()));
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValue;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValueTotal;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InvestmentDailyValueRepository extends CrudRepository<InvestmentDailyValue, String>, InvestmentDailyValueRepositoryCustom {
+    Collection<InvestmentDailyValue> findAllByInvestmentIdInAndDate(Collection<String> investmentIds, LocalDate date);
+
+    @Query("select new com.github.ignasbudreika.portfollow.model.InvestmentDailyValueTotal(v.date, sum(v.value), sum(v.costBasis), sum(v.proceeds)) " +
+            "from InvestmentDailyValue v where v.investment.id in :investmentIds and v.date between :from and :to " +
+            "group by v.date order by v.date")
+    List<InvestmentDailyValueTotal> sumByDate(@Param("investmentIds") Collection<String> investmentIds,
+                                              @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select v from InvestmentDailyValue v where v.investment.id in :investmentIds and v.date < :date " +
+            "and v.date = (select max(l.date) from InvestmentDailyValue l where l.investment.id = v.investment.id)")
+    List<InvestmentDailyValue> findAllLatestBefore(@Param("investmentIds") Collection<String> investmentIds, @Param("date") LocalDate date);
+
+    @Query("select max(v.date) from InvestmentDailyValue v where v.investment.id = :investmentId")
+    LocalDate findLatestDate(@Param("investmentId") String investmentId);
+
+    @Query("select v.investment.id, max(v.date) from InvestmentDailyValue v where v.investment.id in :investmentIds group by v.investment.id")
+    List<Object[]> findLatestDates(@Param("investmentIds") Collection<String> investmentIds);
+
+    @Modifying
+    @Transactional
+    @Query("delete from InvestmentDailyValue v where v.investment.id = :investmentId and v.date < :date")
+    void deleteAllByInvestmentIdBefore(@Param("investmentId") String investmentId, @Param("date") LocalDate date);
+
+    @Modifying
+    @Transactional
+    @Query("delete from InvestmentDailyValue v where v.investment.id = :investmentId")
+    void deleteAllByInvestmentId(@Param("investmentId") String investmentId);
+}
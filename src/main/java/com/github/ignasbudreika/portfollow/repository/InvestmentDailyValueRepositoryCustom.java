@@ -0,0 +1,9 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValue;
+
+import java.util.Collection;
+
+public interface InvestmentDailyValueRepositoryCustom {
+    void upsertAll(Collection<InvestmentDailyValue> values);
+}
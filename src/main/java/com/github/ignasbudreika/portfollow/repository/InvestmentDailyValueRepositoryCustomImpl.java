@@ -0,0 +1,50 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValue;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Writes investment daily values with batched INSERT ... ON CONFLICT statements, so that two
+ * recalculations of the same days overwrite each other instead of failing on the unique day.
+ * Pending entity changes are flushed first so that an investment created in the current
+ * transaction exists before its values are written.
+ */
+@AllArgsConstructor
+public class InvestmentDailyValueRepositoryCustomImpl implements InvestmentDailyValueRepositoryCustom {
+    private static final int BATCH_SIZE = 500;
+    private static final String UPSERT = "insert into investment_daily_value " +
+            "(id, investment_id, date, quantity, price, value, cost_basis, proceeds) values (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "on conflict (investment_id, date) do update set quantity = excluded.quantity, price = excluded.price, " +
+            "value = excluded.value, cost_basis = excluded.cost_basis, proceeds = excluded.proceeds";
+
+    private JdbcTemplate jdbcTemplate;
+    private EntityManager entityManager;
+
+    @Override
+    public void upsertAll(Collection<InvestmentDailyValue> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT, values, BATCH_SIZE, (statement, value) -> {
+            statement.setString(1, value.getId() != null ? value.getId() : UUID.randomUUID().toString());
+            statement.setString(2, value.getInvestment().getId());
+            statement.setDate(3, Date.valueOf(value.getDate()));
+            statement.setBigDecimal(4, value.getQuantity());
+            statement.setBigDecimal(5, value.getPrice());
+            statement.setBigDecimal(6, value.getValue());
+            statement.setBigDecimal(7, value.getCostBasis());
+            statement.setBigDecimal(8, value.getProceeds());
+        });
+    }
+}
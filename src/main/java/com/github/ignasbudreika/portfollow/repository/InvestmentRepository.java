@@ -3,18 +3,43 @@ package com.github.ignasbudreika.portfollow.repository;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
 import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface InvestmentRepository extends CrudRepository<Investment, String> {
+    @EntityGraph(Investment.WITH_ASSET_AND_TRANSACTIONS)
     Collection<Investment> findAllByUserIdAndType(String userId, InvestmentType type);
+    @EntityGraph(Investment.WITH_ASSET_AND_TRANSACTIONS)
     Collection<Investment> findAllByUserId(String userId);
+    @EntityGraph(Investment.WITH_ASSET_AND_TRANSACTIONS)
+    Collection<Investment> findAllByIdIn(Collection<String> ids);
     Collection<Investment> findAllByUserIdAndUpdateTypeIn(String userId, List<InvestmentUpdateType> types);
     boolean existsByUserId(String userId);
     Investment findBySymbolAndConnectionId(String symbol, String connectionId);
     Collection<Investment> findAllByConnectionId(String connectionId);
+    Collection<Investment> findAllByAssetId(String assetId);
+    @Query("select distinct i.user.id from Investment i where i.asset.id in :assetIds")
+    List<String> findAllUserIdsByAssetIdIn(@Param("assetIds") Collection<String> assetIds);
+
+    @Query("select distinct u from Investment i join i.user u where u.id > :userId and (" +
+            "(i.updateType = com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType.DAILY and not exists (select t from InvestmentTransaction t where t.investment = i and t.date > :dailyCutoff)) or " +
+            "(i.updateType = com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType.WEEKLY and not exists (select t from InvestmentTransaction t where t.investment = i and t.date > :weeklyCutoff)) or " +
+            "(i.updateType = com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType.MONTHLY and not exists (select t from InvestmentTransaction t where t.investment = i and t.date > :monthlyCutoff)) or " +
+            "(i.updateType = com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType.QUARTERLY and not exists (select t from InvestmentTransaction t where t.investment = i and t.date > :quarterlyCutoff)) or " +
+            "(i.updateType = com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType.YEARLY and not exists (select t from InvestmentTransaction t where t.investment = i and t.date > :yearlyCutoff))) " +
+            "order by u.id")
+    List<User> findAllUsersWithPeriodicInvestmentsDue(@Param("userId") String userId, @Param("dailyCutoff") LocalDate dailyCutoff,
+                                                      @Param("weeklyCutoff") LocalDate weeklyCutoff, @Param("monthlyCutoff") LocalDate monthlyCutoff,
+                                                      @Param("quarterlyCutoff") LocalDate quarterlyCutoff, @Param("yearlyCutoff") LocalDate yearlyCutoff,
+                                                      Pageable pageable);
 }
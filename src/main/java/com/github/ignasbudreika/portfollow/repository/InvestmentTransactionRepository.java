@@ -4,6 +4,9 @@ import com.github.ignasbudreika.portfollow.model.InvestmentTransaction;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface InvestmentTransactionRepository extends CrudRepository<InvestmentTransaction, String> {
+    List<InvestmentTransaction> findAllByInvestmentIdOrderByDateAsc(String investmentId);
 }
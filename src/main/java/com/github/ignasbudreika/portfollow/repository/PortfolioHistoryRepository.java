@@ -1,6 +1,7 @@
 package com.github.ignasbudreika.portfollow.repository;
 
 import com.github.ignasbudreika.portfollow.model.PortfolioHistory;
+import com.github.ignasbudreika.portfollow.model.PortfolioHistoryValue;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,10 +9,10 @@ import java.time.LocalDate;
 import java.util.Collection;
 
 @Repository
-public interface PortfolioHistoryRepository extends CrudRepository<PortfolioHistory, String> {
-    Collection<PortfolioHistory> findAllByUserIdAndDateAfterOrderByDateAsc(String userId, LocalDate after);
+public interface PortfolioHistoryRepository extends CrudRepository<PortfolioHistory, String>, PortfolioHistoryRepositoryCustom {
+    Collection<PortfolioHistoryValue> findAllByUserIdAndDateAfterOrderByDateAsc(String userId, LocalDate after);
+    Collection<PortfolioHistory> findAllByUserIdAndDateGreaterThanEqual(String userId, LocalDate from);
     PortfolioHistory findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(String userId, LocalDate before);
     PortfolioHistory findFirstByUserIdAndDate(String userId, LocalDate date);
     PortfolioHistory findFirstByUserIdOrderByDateDesc(String userId);
-    Collection<PortfolioHistory> findAllByInvestmentsId(String investmentId);
 }
@@ -0,0 +1,9 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.model.PortfolioHistory;
+
+import java.util.Collection;
+
+public interface PortfolioHistoryRepositoryCustom {
+    void upsertAll(Collection<PortfolioHistory> histories);
+}
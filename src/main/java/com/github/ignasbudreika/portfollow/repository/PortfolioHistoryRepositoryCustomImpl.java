@@ -0,0 +1,35 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.component.IdSetConverter;
+import com.github.ignasbudreika.portfollow.model.PortfolioHistory;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Writes a range of portfolio history days with batched INSERT ... ON CONFLICT statements,
+ * inserting missing days and updating existing ones in the same round trips.
+ */
+@AllArgsConstructor
+public class PortfolioHistoryRepositoryCustomImpl implements PortfolioHistoryRepositoryCustom {
+    private static final int BATCH_SIZE = 100;
+    private static final String UPSERT = "insert into portfolio_history (id, user_id, date, value, investment_ids) values (?, ?, ?, ?, ?) " +
+            "on conflict (user_id, date) do update set value = excluded.value, investment_ids = excluded.investment_ids";
+    private static final IdSetConverter ID_SET_CONVERTER = new IdSetConverter();
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void upsertAll(Collection<PortfolioHistory> histories) {
+        jdbcTemplate.batchUpdate(UPSERT, histories, BATCH_SIZE, (statement, history) -> {
+            statement.setString(1, history.getId() != null ? history.getId() : UUID.randomUUID().toString());
+            statement.setString(2, history.getUser().getId());
+            statement.setDate(3, Date.valueOf(history.getDate()));
+            statement.setBigDecimal(4, history.getValue());
+            statement.setString(5, ID_SET_CONVERTER.convertToDatabaseColumn(history.getInvestmentIds()));
+        });
+    }
+}
@@ -1,14 +1,18 @@
 package com.github.ignasbudreika.portfollow.repository;
 
 import com.github.ignasbudreika.portfollow.model.Portfolio;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PortfolioRepository extends CrudRepository<Portfolio, String> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Portfolio findByUserId(String userId);
     boolean existsByUserId(String userId);
-    Page<Portfolio> findAllByPublished(boolean published, Pageable pageable);
+    List<Portfolio> findAllByPublished(boolean published);
 }
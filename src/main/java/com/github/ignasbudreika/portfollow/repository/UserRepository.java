@@ -1,12 +1,20 @@
 package com.github.ignasbudreika.portfollow.repository;
 
 import com.github.ignasbudreika.portfollow.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface UserRepository extends CrudRepository<User, String> {
+public interface UserRepository extends CrudRepository<User, String>, UserRepositoryCustom {
     boolean existsByEmail(String email);
     boolean existsByGoogleId(String googleId);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     User getByGoogleId(String googleId);
+    List<User> findAllByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
 }
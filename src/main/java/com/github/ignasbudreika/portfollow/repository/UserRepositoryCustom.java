@@ -0,0 +1,8 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import java.util.Collection;
+
+public interface UserRepositoryCustom {
+    long getDataVersion(String userId);
+    void updateDataVersion(Collection<String> userIds, long changedAt);
+}
@@ -0,0 +1,39 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and moves the users' data versions with JDBC, joining the caller's transaction. The
+ * column is not part of the cached user entity, so moving it leaves the second level cache alone.
+ */
+@AllArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final int BATCH_SIZE = 500;
+    private static final String SELECT = "select data_version from users where id = ?";
+    private static final String UPDATE = "update users set data_version = greatest(?, data_version + 1) where id = ?";
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long getDataVersion(String userId) {
+        List<Long> versions = jdbcTemplate.queryForList(SELECT, Long.class, userId);
+
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    @Override
+    public void updateDataVersion(Collection<String> userIds, long changedAt) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE, userIds, BATCH_SIZE, (statement, userId) -> {
+            statement.setLong(1, changedAt);
+            statement.setString(2, userId);
+        });
+    }
+}
@@ -2,6 +2,7 @@ package com.github.ignasbudreika.portfollow.service;
 
 import com.github.ignasbudreika.portfollow.api.dto.request.CreateAlpacaConnectionDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.AlpacaConnectionDTO;
+import com.github.ignasbudreika.portfollow.component.KeysetIterable;
 import com.github.ignasbudreika.portfollow.enums.ConnectionStatus;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
@@ -101,44 +102,55 @@ public class AlpacaService {
         alpacaConnectionRepository.save(connection);
     }
 
+    public Iterable<AlpacaConnection> getActiveConnections() {
+        return new KeysetIterable<>((id, page) ->
+                alpacaConnectionRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(ConnectionStatus.ACTIVE, id, page), AlpacaConnection::getId);
+    }
+
     public void fetchPositions(User user) {
         try {
-            AlpacaConnection connection = getActiveConnectionOrThrowException(user.getId());
-
-            try {
-                List<PositionDTO> positions = alpacaClient.getPositions(connection.getApiKey(), connection.getSecret());
-
-                positions.forEach(position -> {
-                    if (US_EQUITY.equals(position.getAssetClass())) {
-                        try {
-                            investmentService.saveInvestmentFetchedFromConnection(Investment.builder()
-                                    .symbol(position.getSymbol())
-                                    .quantity(new BigDecimal(position.getQuantity()).setScale(8, RoundingMode.HALF_UP))
-                                    .type(InvestmentType.STOCK)
-                                    .updateType(InvestmentUpdateType.ALPACA)
-                                    .date(LocalDate.now())
-                                    .user(user).build(), connection.getId());
-
-                            log.info("imported {} stock for user: {} from Alpaca, balance: {}",
-                                    position.getSymbol(), user.getId(), position.getQuantity());
-                        } catch (Exception e) {
-                            log.error("failed to import: {} symbol for user: {}", position.getSymbol(), user.getId(), e);
-                        }
-                    }
-                });
-
-                connection.setLastFetched(LocalDateTime.now());
-                alpacaConnectionRepository.save(connection);
-            } catch (InvalidExternalRequestException e) {
-                log.warn("failed to fetch stocks from Alpaca for user: {}", user.getId(), e);
-
-                log.info("invalidating Alpaca connection: {} for user: {}", connection.getId(), user.getId());
-                invalidateConnection(connection.getId());
-            } catch (Exception e) {
-                log.error("error occurred while fetching stocks for user: {} from Alpaca", user.getId(), e);
-            }
+            fetchPositions(getActiveConnectionOrThrowException(user.getId()), user);
         } catch (EntityNotFoundException e) {
             log.info("could not fetch stocks for user: {} because no active Alpaca connection exists", user.getId());
         }
     }
+
+    public void fetchPositions(AlpacaConnection connection) {
+        fetchPositions(connection, connection.getUser());
+    }
+
+    private void fetchPositions(AlpacaConnection connection, User user) {
+        try {
+            List<PositionDTO> positions = alpacaClient.getPositions(connection.getApiKey(), connection.getSecret());
+
+            positions.forEach(position -> {
+                if (US_EQUITY.equals(position.getAssetClass())) {
+                    try {
+                        investmentService.saveInvestmentFetchedFromConnection(Investment.builder()
+                                .symbol(position.getSymbol())
+                                .quantity(new BigDecimal(position.getQuantity()).setScale(8, RoundingMode.HALF_UP))
+                                .type(InvestmentType.STOCK)
+                                .updateType(InvestmentUpdateType.ALPACA)
+                                .date(LocalDate.now())
+                                .user(user).build(), connection.getId());
+
+                        log.info("imported {} stock for user: {} from Alpaca, balance: {}",
+                                position.getSymbol(), user.getId(), position.getQuantity());
+                    } catch (Exception e) {
+                        log.error("failed to import: {} symbol for user: {}", position.getSymbol(), user.getId(), e);
+                    }
+                }
+            });
+
+            connection.setLastFetched(LocalDateTime.now());
+            alpacaConnectionRepository.save(connection);
+        } catch (InvalidExternalRequestException e) {
+            log.warn("failed to fetch stocks from Alpaca for user: {}", user.getId(), e);
+
+            log.info("invalidating Alpaca connection: {} for user: {}", connection.getId(), user.getId());
+            invalidateConnection(connection.getId());
+        } catch (Exception e) {
+            log.error("error occurred while fetching stocks for user: {} from Alpaca", user.getId(), e);
+        }
+    }
 }
@@ -0,0 +1,95 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.model.Asset;
+import com.github.ignasbudreika.portfollow.model.AssetHistory;
+import com.github.ignasbudreika.portfollow.repository.AssetHistoryRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects the daily prices of an asset as they are parsed and writes them in fixed size
+ * batches, so an imported history is never held in memory as a whole. Rows still buffered
+ * are written on close. When given the rows already stored, days whose price is unchanged
+ * are skipped and changed days update the existing row.
+ */
+class AssetHistoryBatchWriter implements BiConsumer<LocalDate, BigDecimal>, AutoCloseable {
+    private static final int BATCH_SIZE = 500;
+
+    private final Asset asset;
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final Map<LocalDate, AssetHistory> existing;
+    private final List<AssetHistory> batch = new ArrayList<>(BATCH_SIZE);
+    private LocalDate firstWrittenDate;
+    private int written;
+
+    AssetHistoryBatchWriter(Asset asset, AssetHistoryRepository assetHistoryRepository) {
+        this(asset, assetHistoryRepository, Collections.emptyMap());
+    }
+
+    AssetHistoryBatchWriter(Asset asset, AssetHistoryRepository assetHistoryRepository, Map<LocalDate, AssetHistory> existing) {
+        this.asset = asset;
+        this.assetHistoryRepository = assetHistoryRepository;
+        this.existing = existing;
+    }
+
+    @Override
+    public void accept(LocalDate date, BigDecimal price) {
+        BigDecimal scaledPrice = price.setScale(8, RoundingMode.HALF_UP);
+
+        AssetHistory history = existing.get(date);
+        if (history == null) {
+            batch.add(AssetHistory.builder()
+                    .asset(asset)
+                    .date(date)
+                    .price(scaledPrice)
+                    .build());
+        } else if (history.getPrice().compareTo(scaledPrice) != 0) {
+            batch.add(AssetHistory.builder()
+                    .id(history.getId())
+                    .asset(asset)
+                    .date(date)
+                    .price(scaledPrice)
+                    .build());
+        } else {
+            return;
+        }
+
+        written++;
+        if (firstWrittenDate == null || date.isBefore(firstWrittenDate)) {
+            firstWrittenDate = date;
+        }
+
+        if (batch.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    LocalDate getFirstWrittenDate() {
+        return firstWrittenDate;
+    }
+
+    int getWritten() {
+        return written;
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void flush() {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        assetHistoryRepository.upsertAll(List.copyOf(batch));
+        batch.clear();
+    }
+}
@@ -1,15 +1,37 @@
 package com.github.ignasbudreika.portfollow.service;
 
+import com.github.ignasbudreika.portfollow.model.AssetHistoryFreshness;
 import com.github.ignasbudreika.portfollow.repository.AssetHistoryRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Service
 @AllArgsConstructor
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=AssetHistoryService")
 public class AssetHistoryService {
     private AssetHistoryRepository assetHistoryRepository;
 
     public boolean assetHistoryExists(String assetId) {
         return assetHistoryRepository.existsByAssetId(assetId);
     }
+
+    public List<AssetHistoryFreshness> getHistoryFreshness() {
+        return assetHistoryRepository.findHistoryFreshness();
+    }
+
+    @ManagedOperation(description = "Assets whose price history ends more than the given number of days ago, stalest first")
+    public List<String> getStaleAssets(int days) {
+        LocalDate cutoff = LocalDate.now().minusDays(days);
+
+        return getHistoryFreshness().stream()
+                .filter(freshness -> freshness.getLastDate() == null || freshness.getLastDate().isBefore(cutoff))
+                .map(freshness -> String.format("%s %s: %s", freshness.getType(), freshness.getSymbol(),
+                        freshness.getLastDate() == null ? "no history" : freshness.getLastDate()))
+                .toList();
+    }
 }
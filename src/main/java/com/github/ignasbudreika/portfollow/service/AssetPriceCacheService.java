@@ -0,0 +1,123 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.model.AssetPrice;
+import com.github.ignasbudreika.portfollow.repository.AssetPriceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the current price and previous close of every asset in memory, written through by the
+ * price refresh so that reading them needs no query. Local entries expire after the ttl. With
+ * the shared tier enabled, prices are also written to the asset_price table and local misses are
+ * read from there, so every node sees the prices fetched by any of them.
+ */
+@Slf4j
+@Service
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=AssetPriceCache")
+public class AssetPriceCacheService {
+    private final AssetPriceRepository assetPriceRepository;
+    private final long ttlNanos;
+    private final boolean sharedEnabled;
+    private final Map<String, Entry> prices = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong sharedHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AssetPriceCacheService(AssetPriceRepository assetPriceRepository,
+                                  @Value("${asset.price.cache.ttl:PT15M}") Duration ttl,
+                                  @Value("${asset.price.cache.shared.enabled:false}") boolean sharedEnabled) {
+        this.assetPriceRepository = assetPriceRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.sharedEnabled = sharedEnabled;
+    }
+
+    /**
+     * @return the cached price, or null if neither tier holds one
+     */
+    public AssetPrice get(String symbol, InvestmentType type) {
+        String key = key(symbol, type);
+        long now = System.nanoTime();
+
+        Entry entry = prices.get(key);
+        if (entry != null && now - entry.cachedAt < ttlNanos) {
+            hits.incrementAndGet();
+            return entry.price;
+        }
+
+        if (sharedEnabled) {
+            AssetPrice price = assetPriceRepository.findBySymbolAndType(symbol, type);
+            if (price != null) {
+                sharedHits.incrementAndGet();
+                prices.put(key, new Entry(price, now));
+                return price;
+            }
+        }
+
+        if (entry != null) {
+            prices.remove(key, entry);
+        }
+        misses.incrementAndGet();
+
+        return null;
+    }
+
+    public void putAll(Collection<AssetPrice> updated) {
+        if (sharedEnabled) {
+            assetPriceRepository.upsertAll(updated);
+        }
+
+        long now = System.nanoTime();
+        updated.forEach(price -> prices.put(key(price.getSymbol(), price.getType()), new Entry(price, now)));
+        log.info("cached current prices of {} assets", updated.size());
+    }
+
+    @ManagedOperation(description = "Removes all locally cached prices")
+    public void clear() {
+        prices.clear();
+    }
+
+    @ManagedAttribute(description = "Number of locally cached prices")
+    public int getSize() {
+        return prices.size();
+    }
+
+    @ManagedAttribute(description = "Number of prices read from the local cache")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of prices read from the shared cache")
+    public long getSharedHits() {
+        return sharedHits.get();
+    }
+
+    @ManagedAttribute(description = "Number of prices found in neither cache")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static String key(String symbol, InvestmentType type) {
+        return type.name() + ':' + symbol;
+    }
+
+    private static final class Entry {
+        private final AssetPrice price;
+        private final long cachedAt;
+
+        private Entry(AssetPrice price, long cachedAt) {
+            this.price = price;
+            this.cachedAt = cachedAt;
+        }
+    }
+}
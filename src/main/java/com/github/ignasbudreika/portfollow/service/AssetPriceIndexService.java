@@ -0,0 +1,164 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.model.Asset;
+import com.github.ignasbudreika.portfollow.model.AssetHistory;
+import com.github.ignasbudreika.portfollow.repository.AssetHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps each asset's price history in memory as date sorted primitive arrays, so that
+ * "latest price on or before date" lookups are a binary search instead of a query.
+ * An asset's series is loaded on first use and kept current by price writes. Series are loaded
+ * outside the map, and one loaded while a price write landed is dropped so it is loaded again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AssetPriceIndexService {
+    private static final int PRICE_SCALE = 8;
+
+    private final AssetHistoryRepository assetHistoryRepository;
+    private final Map<String, PriceSeries> index = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+
+    public BigDecimal getLatestAssetPriceForDate(Asset asset, LocalDate date) {
+        if (date.equals(LocalDate.now())) {
+            return asset.getPrice();
+        }
+
+        BigDecimal price = getSeries(asset.getId()).priceAt(date.toEpochDay());
+        if (price == null) {
+            return asset.getPrice();
+        }
+
+        return price;
+    }
+
+    public void recordPrice(String assetId, LocalDate date, BigDecimal price) {
+        afterCommit(() -> {
+            writes.incrementAndGet();
+            index.computeIfPresent(assetId, (id, series) -> series.with(date.toEpochDay(), scale(price)));
+        });
+    }
+
+    public void evict(String assetId) {
+        afterCommit(() -> {
+            writes.incrementAndGet();
+            index.remove(assetId);
+        });
+    }
+
+    private PriceSeries getSeries(String assetId) {
+        PriceSeries series = index.get(assetId);
+        if (series != null) {
+            return series;
+        }
+
+        long writesBeforeLoad = writes.get();
+        series = load(assetId);
+
+        PriceSeries existing = index.putIfAbsent(assetId, series);
+        if (existing != null) {
+            return existing;
+        }
+        if (writes.get() != writesBeforeLoad) {
+            index.remove(assetId, series);
+        }
+
+        return series;
+    }
+
+    private PriceSeries load(String assetId) {
+        List<AssetHistory> history = assetHistoryRepository.findAllByAssetIdOrderByDateAsc(assetId);
+        log.info("loading asset: {} price index, entries: {}", assetId, history.size());
+
+        int[] days = new int[history.size()];
+        long[] prices = new long[history.size()];
+        int size = 0;
+        for (AssetHistory entry : history) {
+            int day = (int) entry.getDate().toEpochDay();
+            if (size > 0 && days[size - 1] == day) {
+                prices[size - 1] = scale(entry.getPrice());
+                continue;
+            }
+
+            days[size] = day;
+            prices[size] = scale(entry.getPrice());
+            size++;
+        }
+
+        return new PriceSeries(Arrays.copyOf(days, size), Arrays.copyOf(prices, size));
+    }
+
+    private static long scale(BigDecimal price) {
+        return price.setScale(PRICE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class PriceSeries {
+        private final int[] days;
+        private final long[] prices;
+
+        private PriceSeries(int[] days, long[] prices) {
+            this.days = days;
+            this.prices = prices;
+        }
+
+        private BigDecimal priceAt(long day) {
+            int position = Arrays.binarySearch(days, (int) day);
+            if (position < 0) {
+                position = -position - 2;
+            }
+
+            return position < 0 ? null : BigDecimal.valueOf(prices[position], PRICE_SCALE);
+        }
+
+        private PriceSeries with(long day, long price) {
+            int position = Arrays.binarySearch(days, (int) day);
+            if (position >= 0) {
+                long[] updatedPrices = prices.clone();
+                updatedPrices[position] = price;
+
+                return new PriceSeries(days, updatedPrices);
+            }
+
+            int insertAt = -position - 1;
+            int[] updatedDays = new int[days.length + 1];
+            long[] updatedPrices = new long[prices.length + 1];
+            System.arraycopy(days, 0, updatedDays, 0, insertAt);
+            System.arraycopy(prices, 0, updatedPrices, 0, insertAt);
+            updatedDays[insertAt] = (int) day;
+            updatedPrices[insertAt] = price;
+            System.arraycopy(days, insertAt, updatedDays, insertAt + 1, days.length - insertAt);
+            System.arraycopy(prices, insertAt, updatedPrices, insertAt + 1, prices.length - insertAt);
+
+            return new PriceSeries(updatedDays, updatedPrices);
+        }
+    }
+}
@@ -1,26 +1,36 @@
 package com.github.ignasbudreika.portfollow.service;
 
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.event.AssetPricesChangedEvent;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
-import com.github.ignasbudreika.portfollow.external.client.AlphaVantageClient;
-import com.github.ignasbudreika.portfollow.external.dto.response.*;
+import com.github.ignasbudreika.portfollow.external.provider.MarketDataProvider;
+import com.github.ignasbudreika.portfollow.external.provider.Quote;
 import com.github.ignasbudreika.portfollow.model.Asset;
 import com.github.ignasbudreika.portfollow.model.AssetHistory;
+import com.github.ignasbudreika.portfollow.model.AssetPrice;
 import com.github.ignasbudreika.portfollow.repository.AssetHistoryRepository;
 import com.github.ignasbudreika.portfollow.repository.AssetRepository;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,10 +38,15 @@ import java.util.Collection;
 public class AssetService {
     private static final String LOG_FORMAT = "exception occured while fetching asset: %s of type: %s data";
     private static final LocalDate PRICE_HISTORY_FETCH_SINCE = LocalDate.of(2022, 12, 1);
+    private static final int PRICE_HISTORY_SYNC_OVERLAP_DAYS = 3;
 
     private AssetRepository assetRepository;
     private AssetHistoryRepository assetHistoryRepository;
-    private AlphaVantageClient alphaVantageClient;
+    private MarketDataProvider marketDataProvider;
+    private AssetPriceIndexService assetPriceIndexService;
+    private InvestmentDailyValueService investmentDailyValueService;
+    private AssetPriceCacheService assetPriceCacheService;
+    private ApplicationEventPublisher eventPublisher;
 
     public Asset getAsset(String symbol, InvestmentType type) {
         return assetRepository.getBySymbolAndType(symbol, type);
@@ -52,114 +67,70 @@ public class AssetService {
     }
 
     public BigDecimal fetchPrice(String symbol, InvestmentType type) throws IOException, URISyntaxException, BusinessLogicException, InterruptedException {
-        switch (type) {
-            case STOCK -> {
-                StockDTO stock = null;
-                try {
-                    stock = alphaVantageClient.getStockData(symbol);
-                } catch (Exception e) {
-                    log.error(String.format(LOG_FORMAT, symbol, type), e);
-                    throw e;
-                }
-
-                return stock == null || stock.getPrice() == null ?
-                        BigDecimal.ZERO : new BigDecimal(stock.getPrice());
-            }
-            case CRYPTO -> {
-                CryptocurrencyDTO cryptocurrency = null;
-                try {
-                    cryptocurrency = alphaVantageClient.getCryptocurrencyData(symbol);
-                } catch (Exception e) {
-                    log.error(String.format(LOG_FORMAT, symbol, type), e);
-                    throw e;
-                }
-
-                return cryptocurrency == null || cryptocurrency.getExchangeRate() == null ?
-                        BigDecimal.ZERO : new BigDecimal(cryptocurrency.getExchangeRate());
-            }
-            case FIAT -> {
-                ForexDTO forex = null;
-                try {
-                    forex = alphaVantageClient.getCurrencyData(symbol);
-                } catch (Exception e) {
-                    log.error(String.format(LOG_FORMAT, symbol, type), e);
-                    throw e;
-                }
-
-                return forex == null || forex.getExchangeRate() == null ?
-                        BigDecimal.ZERO : new BigDecimal(forex.getExchangeRate());
-            }
-            default -> {
-                return BigDecimal.ZERO;
-            }
+        Quote quote;
+        try {
+            quote = marketDataProvider.getQuote(type, symbol);
+        } catch (Exception e) {
+            log.error(String.format(LOG_FORMAT, symbol, type), e);
+            throw e;
         }
+
+        return quote == null || quote.getPrice() == null ? BigDecimal.ZERO : quote.getPrice();
     }
 
     public void fetchPriceHistory(Asset asset) throws URISyntaxException, IOException, InterruptedException, BusinessLogicException {
-        switch (asset.getType()) {
-            case STOCK -> {
-                try {
-                    StockHistoryDailyDTO history = alphaVantageClient.getStockHistoryDaily(asset.getSymbol());
-
-                    Collection<AssetHistory> assetHistory = history.getHistory().entrySet().stream()
-                            .filter(entry -> LocalDate.parse(entry.getKey()).isAfter(PRICE_HISTORY_FETCH_SINCE))
-                            .map(entry ->
-                                    AssetHistory.builder()
-                                            .asset(asset)
-                                            .date(LocalDate.parse(entry.getKey()))
-                                            .price(new BigDecimal(entry.getValue().getPrice()).setScale(8, RoundingMode.HALF_UP))
-                                            .build()
-                            ).toList();
-
-                    assetHistoryRepository.saveAll(assetHistory);
-                } catch (Exception e) {
-                    log.error(String.format(LOG_FORMAT, asset.getSymbol(), asset.getType()), e);
-                    throw e;
-                }
-            }
-            case FIAT -> {
-                try {
-                    ForexHistoryDailyDTO history = alphaVantageClient.getForexHistoryDaily(asset.getSymbol());
-
-                    Collection<AssetHistory> assetHistory = history.getHistory().entrySet().stream()
-                            .filter(entry -> LocalDate.parse(entry.getKey()).isAfter(PRICE_HISTORY_FETCH_SINCE))
-                            .map(entry ->
-                                    AssetHistory.builder()
-                                            .asset(asset)
-                                            .date(LocalDate.parse(entry.getKey()))
-                                            .price(new BigDecimal(entry.getValue().getPrice()).setScale(8, RoundingMode.HALF_UP))
-                                            .build()
-                            ).toList();
-
-                    assetHistoryRepository.saveAll(assetHistory);
-                } catch (Exception e) {
-                    log.error(String.format(LOG_FORMAT, asset.getSymbol(), asset.getType()), e);
-                    throw e;
-                }
-            }
-            case CRYPTO -> {
-                try {
-                    CryptocurrencyHistoryDailyDTO history = alphaVantageClient.getCryptoHistoryDaily(asset.getSymbol());
-
-                    Collection<AssetHistory> assetHistory = history.getHistory().entrySet().stream()
-                            .filter(entry -> LocalDate.parse(entry.getKey()).isAfter(PRICE_HISTORY_FETCH_SINCE))
-                            .map(entry ->
-                                    AssetHistory.builder()
-                                            .asset(asset)
-                                            .date(LocalDate.parse(entry.getKey()))
-                                            .price(new BigDecimal(entry.getValue().getPrice()).setScale(8, RoundingMode.HALF_UP))
-                                            .build()
-                            ).toList();
-
-                    assetHistoryRepository.saveAll(assetHistory);
-                } catch (Exception e) {
-                    log.warn(String.format(LOG_FORMAT, asset.getSymbol(), asset.getType()), e);
-                    throw e;
-                }
-            }
+        try (AssetHistoryBatchWriter writer = new AssetHistoryBatchWriter(asset, assetHistoryRepository)) {
+            int days = streamPriceHistory(asset, PRICE_HISTORY_FETCH_SINCE, writer);
+            log.info("saved asset: {} price history of {} days", asset.getId(), days);
+        } catch (Exception e) {
+            log.error(String.format(LOG_FORMAT, asset.getSymbol(), asset.getType()), e);
+            throw e;
+        }
+
+        assetPriceIndexService.evict(asset.getId());
+    }
+
+    /**
+     * Fills the days missing since the last stored price, re-checking the last few stored days
+     * as well. Only missing or changed days are written, and investment values are recalculated
+     * from the earliest of them.
+     */
+    public void syncPriceHistory(Asset asset, LocalDate today) throws URISyntaxException, IOException, InterruptedException, BusinessLogicException {
+        AssetHistory last = assetHistoryRepository.findFirstByAssetIdOrderByDateDesc(asset.getId());
+        if (last == null) {
+            log.info("creating asset: {} price history", asset.getSymbol());
+            fetchPriceHistory(asset);
+            return;
+        }
+
+        if (!last.getDate().isBefore(today.minusDays(1))) {
+            return;
+        }
+
+        LocalDate since = last.getDate().minusDays(PRICE_HISTORY_SYNC_OVERLAP_DAYS);
+        Map<LocalDate, AssetHistory> existing = assetHistoryRepository.findAllByAssetIdAndDateAfter(asset.getId(), since).stream()
+                .collect(Collectors.toMap(AssetHistory::getDate, Function.identity()));
+
+        AssetHistoryBatchWriter writer = new AssetHistoryBatchWriter(asset, assetHistoryRepository, existing);
+        try (writer) {
+            streamPriceHistory(asset, since, writer);
+        } catch (Exception e) {
+            log.error(String.format(LOG_FORMAT, asset.getSymbol(), asset.getType()), e);
+            throw e;
+        }
+
+        log.info("synced asset: {} price history since: {}, days written: {}", asset.getId(), last.getDate(), writer.getWritten());
+        if (writer.getFirstWrittenDate() != null) {
+            assetPriceIndexService.evict(asset.getId());
+            investmentDailyValueService.recalculateAssetInvestments(asset.getId(), writer.getFirstWrittenDate());
+            eventPublisher.publishEvent(new AssetPricesChangedEvent(List.of(asset.getId())));
         }
     }
 
+    private int streamPriceHistory(Asset asset, LocalDate since, BiConsumer<LocalDate, BigDecimal> consumer) throws IOException, InterruptedException, BusinessLogicException {
+        return marketDataProvider.streamDailyHistory(asset.getType(), asset.getSymbol(), since, consumer);
+    }
+
     public void fetchPriceAndSaveInHistory(String symbol, InvestmentType type, LocalDate date) {
         Asset asset = assetRepository.getBySymbolAndType(symbol, type);
         if (asset == null) {
@@ -167,95 +138,65 @@ public class AssetService {
             return;
         }
 
-        BigDecimal price = BigDecimal.ZERO;
-        BigDecimal priceForHistory = BigDecimal.ZERO;
+        savePrices(List.of(asset), marketDataProvider.getQuotes(type, List.of(symbol)), date);
+    }
 
-        switch (type) {
-            case STOCK -> {
-                StockDTO stock = new StockDTO();
-                try {
-                    stock = alphaVantageClient.getStockData(symbol);
-                } catch (Exception e) {
-                    log.error(String.format(LOG_FORMAT, asset.getSymbol(), asset.getType()), e);
-                }
+    public void refreshPrices(LocalDate date) {
+        Map<InvestmentType, List<Asset>> assetsByType = new EnumMap<>(InvestmentType.class);
+        getAllAssets().forEach(asset -> assetsByType.computeIfAbsent(asset.getType(), type -> new ArrayList<>()).add(asset));
 
-//                BigDecimal usdEur = getRecentPrice(USD, InvestmentType.FOREX);
+        assetsByType.forEach((type, assets) -> {
+            Map<String, Quote> quotes = marketDataProvider.getQuotes(type, assets.stream().map(Asset::getSymbol).toList());
+            log.info("fetched prices of {} out of {} assets of type: {}", quotes.size(), assets.size(), type);
 
-                if (stock.getPrice() != null) {
-                    price = new BigDecimal(stock.getPrice());
-                }
+            savePrices(assets, quotes, date);
+        });
+    }
 
-                if (stock.getPreviousClose() != null) {
-                    priceForHistory = new BigDecimal(stock.getPreviousClose());
-                }
-            }
-            case CRYPTO -> {
-                CryptocurrencyDTO cryptocurrency = new CryptocurrencyDTO();
-                try {
-                    cryptocurrency = alphaVantageClient.getCryptocurrencyData(symbol);
-                } catch (Exception e) {
-                    log.error(String.format(LOG_FORMAT, asset.getSymbol(), asset.getType()), e);
-                }
-
-                if (cryptocurrency.getExchangeRate() != null) {
-                    price = new BigDecimal(cryptocurrency.getExchangeRate());
-                }
-            }
-            case FIAT -> {
-                ForexDTO forex = new ForexDTO();
-                try {
-                    forex = alphaVantageClient.getCurrencyData(symbol);
-                } catch (Exception e) {
-                    log.error(String.format(LOG_FORMAT, asset.getSymbol(), asset.getType()), e);
-                }
-
-                if (forex.getExchangeRate() != null) {
-                    price = new BigDecimal(forex.getExchangeRate());
-                }
-            }
-        }
+    private void savePrices(Collection<Asset> assets, Map<String, Quote> quotes, LocalDate date) {
+        List<AssetHistory> histories = new ArrayList<>();
+        List<AssetPrice> currentPrices = new ArrayList<>();
+        Map<String, LocalDate> recalculateFrom = new LinkedHashMap<>();
+
+        for (Asset asset : assets) {
+            Quote quote = quotes.get(asset.getSymbol());
+            BigDecimal price = quote == null || quote.getPrice() == null ? BigDecimal.ZERO : quote.getPrice();
+            BigDecimal priceForHistory = quote == null || quote.getPreviousClose() == null ? BigDecimal.ZERO : quote.getPreviousClose();
 
-        if (!price.equals(BigDecimal.ZERO)) {
-            log.info("saving current asset: {} price: {}", asset.getId(), price);
-            asset.setPrice(price);
-            asset.setUpdatedAt(LocalDateTime.now());
-            asset = assetRepository.save(asset);
+            if (!price.equals(BigDecimal.ZERO)) {
+                log.info("saving current asset: {} price: {}", asset.getId(), price);
+                asset.setPrice(price);
+                asset.setUpdatedAt(LocalDateTime.now());
+                asset = assetRepository.save(asset);
 
-            AssetHistory history = assetHistoryRepository.findByAssetIdAndDate(asset.getId(), date);
-            if (history == null) {
                 log.info("saving asset: {} price: {} for: {}", asset.getId(), price, date);
-                assetHistoryRepository.save(AssetHistory.builder().asset(asset).date(date).price(price).build());
-            } else {
-                log.info("updating asset: {} price: {} for: {}", asset.getId(), price, date);
-                history.setPrice(price);
-                assetHistoryRepository.save(history);
+                histories.add(AssetHistory.builder().asset(asset).date(date).price(price).build());
+                assetPriceIndexService.recordPrice(asset.getId(), date, price);
+                currentPrices.add(AssetPrice.builder()
+                        .symbol(asset.getSymbol())
+                        .type(asset.getType())
+                        .price(price)
+                        .previousClose(priceForHistory.equals(BigDecimal.ZERO) ? null : priceForHistory)
+                        .updatedAt(asset.getUpdatedAt()).build());
             }
-        }
 
-        if (!priceForHistory.equals(BigDecimal.ZERO)) {
-            AssetHistory history = assetHistoryRepository.findByAssetIdAndDate(asset.getId(), date.minusDays(1));
-            if (history == null) {
+            if (!priceForHistory.equals(BigDecimal.ZERO)) {
                 log.info("saving asset: {} price: {} for: {}", asset.getId(), priceForHistory, date.minusDays(1));
-                assetHistoryRepository.save(AssetHistory.builder().asset(asset).date(date.minusDays(1)).price(priceForHistory).build());
-            } else {
-                log.info("updating asset: {} price: {} for: {}", asset.getId(), priceForHistory, date.minusDays(1));
-                history.setPrice(priceForHistory);
-                assetHistoryRepository.save(history);
+                histories.add(AssetHistory.builder().asset(asset).date(date.minusDays(1)).price(priceForHistory).build());
+                assetPriceIndexService.recordPrice(asset.getId(), date.minusDays(1), priceForHistory);
             }
-        }
-    }
-
-    public BigDecimal getLatestAssetPriceForDate(Asset asset, LocalDate date) {
-        if (date.equals(LocalDate.now())) {
-            return asset.getPrice();
-        }
 
-        AssetHistory history = assetHistoryRepository.findFirstByAssetIdAndDateLessThanEqualOrderByDateDesc(asset.getId(), date);
-        if (history == null) {
-            return asset.getPrice();
+            if (!priceForHistory.equals(BigDecimal.ZERO)) {
+                recalculateFrom.put(asset.getId(), date.minusDays(1));
+            } else if (!price.equals(BigDecimal.ZERO)) {
+                recalculateFrom.put(asset.getId(), date);
+            }
         }
 
-        return history.getPrice();
+        assetHistoryRepository.upsertAll(histories);
+        assetPriceCacheService.putAll(currentPrices);
+        recalculateFrom.forEach(investmentDailyValueService::recalculateAssetInvestments);
+        eventPublisher.publishEvent(new AssetPricesChangedEvent(recalculateFrom.keySet()));
     }
 
     public Iterable<Asset> getAllAssets() {
@@ -8,6 +8,7 @@ import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValue;
 import com.github.ignasbudreika.portfollow.model.InvestmentTransaction;
 import com.github.ignasbudreika.portfollow.model.User;
 import lombok.AllArgsConstructor;
@@ -21,6 +22,7 @@ import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -29,6 +31,7 @@ public class CurrencyService {
     private StatisticsService statisticsService;
     private InvestmentService investmentService;
     private PortfolioHistoryService portfolioHistoryService;
+    private InvestmentDailyValueService investmentDailyValueService;
 
     public CurrencyInvestmentDTO createCurrencyInvestment(CurrencyDTO currency, User user) throws BusinessLogicException, URISyntaxException, IOException, InterruptedException {
         Investment investment = Investment.builder()
@@ -51,17 +54,21 @@ public class CurrencyService {
         Collection<Investment> forexInvestments = investmentService.getInvestmentsByUserIdAndType(userId, InvestmentType.FIAT);
         investments.addAll(forexInvestments);
         LocalDate date = LocalDate.now();
+        Map<String, InvestmentDailyValue> values = investmentDailyValueService.getValuesAt(investments, date);
 
-        return investments.stream().map(investment ->
-            CurrencyInvestmentDTO.builder()
+        return investments.stream().map(investment -> {
+            InvestmentDailyValue value = values.get(investment.getId());
+            BigDecimal quantity = value != null ? value.getQuantity() : investment.getQuantityAt(date);
+
+            return CurrencyInvestmentDTO.builder()
                     .id(investment.getId())
                     .symbol(investment.getSymbol())
-                    .quantity(investment.getQuantityAt(date).setScale(8, RoundingMode.HALF_UP))
+                    .quantity(quantity.setScale(8, RoundingMode.HALF_UP))
                     .price(investment.getAsset().getPrice().setScale(8, RoundingMode.HALF_UP))
-                    .value(investment.getQuantityAt(date).multiply(investment.getAsset().getPrice()).setScale(2, RoundingMode.HALF_UP))
+                    .value(quantity.multiply(investment.getAsset().getPrice()).setScale(2, RoundingMode.HALF_UP))
                     .crypto(investment.getType().equals(InvestmentType.CRYPTO))
                     .dayTrend(statisticsService.getAssetDayTrend(investment.getAsset()))
-                    .totalChange(statisticsService.getInvestmentTotalChange(investment))
+                    .totalChange(value != null ? value.getProfitLoss() : statisticsService.getInvestmentTotalChange(investment))
                     .updateType(investment.getUpdateType().toString())
                     .transactions(investment.getTransactions().stream()
                             .sorted(Comparator.comparing(InvestmentTransaction::getDate))
@@ -70,8 +77,8 @@ public class CurrencyService {
                                     .quantity(transaction.getQuantity())
                                     .type(transaction.getType())
                                     .date(transaction.getDate()).build())
-                            .toArray(TransactionDTO[]::new)).build()
-        ).toList();
+                            .toArray(TransactionDTO[]::new)).build();
+        }).toList();
     }
 
     public InvestmentStatsDTO getUserCurrencyInvestmentsStats(String userId) {
@@ -79,11 +86,19 @@ public class CurrencyService {
         Collection<Investment> forexInvestments = investmentService.getInvestmentsByUserIdAndType(userId, InvestmentType.FIAT);
         investments.addAll(forexInvestments);
 
-        BigDecimal totalValue = investments.stream().map(investment ->
-                investment.getQuantityAt(LocalDate.now()).multiply(investment.getAsset().getPrice())
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate date = LocalDate.now();
+        Map<String, InvestmentDailyValue> values = investmentDailyValueService.getValuesAt(investments, date);
+
+        BigDecimal totalValue = investments.stream().map(investment -> {
+            InvestmentDailyValue value = values.get(investment.getId());
+
+            return (value != null ? value.getQuantity() : investment.getQuantityAt(date)).multiply(investment.getAsset().getPrice());
+        }).reduce(BigDecimal.ZERO, BigDecimal::add);
         BigDecimal trend = statisticsService.calculateTrend(investments);
-        BigDecimal totalChange = statisticsService.calculateTotalChange(investments);
+        BigDecimal totalChange = values.values().stream().map(InvestmentDailyValue::getProfitLoss)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .add(statisticsService.calculateTotalChange(investments.stream()
+                        .filter(investment -> !values.containsKey(investment.getId())).toList()));
 
         return InvestmentStatsDTO.builder()
                 .totalValue(totalValue)
@@ -0,0 +1,111 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the computed dashboard responses of each user for as long as the user's data version is
+ * unchanged, see {@link UserDataVersionService}. A response computed from an older version than
+ * the one already cached is returned but not kept, so a change is never hidden by a slow request.
+ */
+@Slf4j
+@Service
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=DashboardCache")
+public class DashboardCacheService {
+    private final UserDataVersionService userDataVersionService;
+    private final int maxUsers;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DashboardCacheService(UserDataVersionService userDataVersionService,
+                                 @Value("${dashboard.cache.max.users:10000}") int maxUsers) {
+        this.userDataVersionService = userDataVersionService;
+        this.maxUsers = maxUsers;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String userId, String key, Supplier<T> compute) {
+        long version = userDataVersionService.getVersion(userId).getLastModified();
+        Snapshot snapshot = getSnapshot(userId, version);
+
+        Object value = snapshot.version == version ? snapshot.values.get(key) : null;
+        if (value != null) {
+            hits.incrementAndGet();
+            return (T) value;
+        }
+
+        misses.incrementAndGet();
+        T computed = compute.get();
+        if (computed != null && snapshot.version == version) {
+            snapshot.values.put(key, computed);
+        }
+
+        return computed;
+    }
+
+    @ManagedOperation(description = "Removes all dashboard snapshots")
+    public void clear() {
+        snapshots.clear();
+    }
+
+    @ManagedAttribute(description = "Number of users with a dashboard snapshot")
+    public int getSize() {
+        return snapshots.size();
+    }
+
+    @ManagedAttribute(description = "Number of responses served from a snapshot")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of responses computed")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagedAttribute(description = "Number of snapshots replaced after the user's data changed")
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private Snapshot getSnapshot(String userId, long version) {
+        if (snapshots.size() >= maxUsers && !snapshots.containsKey(userId)) {
+            Iterator<String> users = snapshots.keySet().iterator();
+            if (users.hasNext()) {
+                snapshots.remove(users.next());
+            }
+        }
+
+        return snapshots.compute(userId, (id, current) -> {
+            if (current != null && current.version >= version) {
+                return current;
+            }
+
+            if (current != null) {
+                evictions.incrementAndGet();
+            }
+            return new Snapshot(version);
+        });
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+    }
+}
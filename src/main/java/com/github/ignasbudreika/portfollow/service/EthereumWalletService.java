@@ -2,6 +2,7 @@ package com.github.ignasbudreika.portfollow.service;
 
 import com.github.ignasbudreika.portfollow.api.dto.request.CreateEthereumWalletConnectionDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.EthereumWalletConnectionDTO;
+import com.github.ignasbudreika.portfollow.component.KeysetIterable;
 import com.github.ignasbudreika.portfollow.enums.ConnectionStatus;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
@@ -91,12 +92,25 @@ public class EthereumWalletService {
         connectionRepository.save(connection);
     }
 
+    public Iterable<EthereumWalletConnection> getActiveConnections() {
+        return new KeysetIterable<>((id, page) ->
+                connectionRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(ConnectionStatus.ACTIVE, id, page), EthereumWalletConnection::getId);
+    }
+
     public void fetchBalance(User user) throws BusinessLogicException {
         EthereumWalletConnection connection = connectionRepository.findByUserIdAndStatus(user.getId(), ConnectionStatus.ACTIVE);
         if (connection == null) {
             return;
         }
 
+        fetchBalance(connection, user);
+    }
+
+    public void fetchBalance(EthereumWalletConnection connection) throws BusinessLogicException {
+        fetchBalance(connection, connection.getUser());
+    }
+
+    private void fetchBalance(EthereumWalletConnection connection, User user) throws BusinessLogicException {
         try {
             BigDecimal etherQuantity = walletHelper.getWalletBalanceInEther(connection.getAddress());
 
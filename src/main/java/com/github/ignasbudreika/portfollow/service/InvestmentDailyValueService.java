@@ -0,0 +1,174 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
+import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValue;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValueTotal;
+import com.github.ignasbudreika.portfollow.model.InvestmentTransaction;
+import com.github.ignasbudreika.portfollow.repository.InvestmentDailyValueRepository;
+import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
+import com.github.ignasbudreika.portfollow.repository.InvestmentTransactionRepository;
+import com.github.ignasbudreika.portfollow.util.FixedPoint;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the investment_daily_value table: one row per investment and day since its first
+ * transaction, holding the quantity, price and value of that day together with the cumulative
+ * purchase cost and sale proceeds up to it. Rows are written when transactions or prices change
+ * and extended to the current day by a scheduled job, reads never write. Until the job reaches an
+ * investment, its daily totals repeat the last row it has.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor
+public class InvestmentDailyValueService {
+    private AssetPriceIndexService assetPriceIndexService;
+    private InvestmentDailyValueRepository investmentDailyValueRepository;
+    private InvestmentTransactionRepository transactionRepository;
+    private InvestmentRepository investmentRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public void recalculate(Investment investment, LocalDate from) {
+        LocalDate latest = investmentDailyValueRepository.findLatestDate(investment.getId());
+        if (latest == null) {
+            from = null;
+        } else if (latest.plusDays(1).isBefore(from)) {
+            from = latest.plusDays(1);
+        }
+
+        List<InvestmentTransaction> transactions = transactionRepository.findAllByInvestmentIdOrderByDateAsc(investment.getId());
+        if (transactions.isEmpty()) {
+            investmentDailyValueRepository.deleteAllByInvestmentId(investment.getId());
+            return;
+        }
+
+        LocalDate firstDate = transactions.get(0).getDate();
+        if (from == null || from.isBefore(firstDate)) {
+            from = firstDate;
+        }
+        investmentDailyValueRepository.deleteAllByInvestmentIdBefore(investment.getId(), firstDate);
+
+        LocalDate today = LocalDate.now();
+        long quantity = 0;
+        long costBasis = 0;
+        long proceeds = 0;
+        int position = 0;
+
+        List<InvestmentDailyValue> values = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(today); day = day.plusDays(1)) {
+            for (; position < transactions.size() && !transactions.get(position).getDate().isAfter(day); position++) {
+                InvestmentTransaction tx = transactions.get(position);
+                long txQuantity = FixedPoint.of(tx.getQuantity());
+                long amount = FixedPoint.multiply(txQuantity,
+                        FixedPoint.of(assetPriceIndexService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate())));
+
+                if (tx.getType().equals(InvestmentTransactionType.BUY)) {
+                    quantity = FixedPoint.add(quantity, txQuantity);
+                    costBasis = FixedPoint.add(costBasis, amount);
+                } else {
+                    quantity = FixedPoint.subtract(quantity, txQuantity);
+                    proceeds = FixedPoint.add(proceeds, amount);
+                }
+            }
+
+            BigDecimal price = assetPriceIndexService.getLatestAssetPriceForDate(investment.getAsset(), day);
+            values.add(InvestmentDailyValue.builder()
+                    .investment(investment)
+                    .date(day)
+                    .quantity(FixedPoint.toBigDecimal(quantity))
+                    .price(price)
+                    .value(FixedPoint.toBigDecimal(FixedPoint.multiply(quantity, FixedPoint.of(price))))
+                    .costBasis(FixedPoint.toBigDecimal(costBasis))
+                    .proceeds(FixedPoint.toBigDecimal(proceeds)).build());
+        }
+
+        log.info("saving investment: {} daily values since: {}, days: {}", investment.getId(), from, values.size());
+        investmentDailyValueRepository.upsertAll(values);
+    }
+
+    public void recalculateAssetInvestments(String assetId, LocalDate from) {
+        investmentRepository.findAllByAssetId(assetId).forEach(investment -> recalculateInTransaction(investment, from));
+    }
+
+    /**
+     * Extends the daily values of the user's investments that have no row for the current day yet.
+     */
+    public void refreshUserValues(String userId) {
+        Collection<Investment> investments = investmentRepository.findAllByUserId(userId);
+        if (investments.isEmpty()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        Map<String, LocalDate> latestDates = investmentDailyValueRepository.findLatestDates(getIds(investments)).stream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (LocalDate) row[1]));
+
+        investments.stream()
+                .filter(investment -> !latestDates.containsKey(investment.getId()) || latestDates.get(investment.getId()).isBefore(today))
+                .forEach(investment -> recalculateInTransaction(investment, today));
+    }
+
+    public void deleteInvestmentValues(String investmentId) {
+        investmentDailyValueRepository.deleteAllByInvestmentId(investmentId);
+    }
+
+    public Map<LocalDate, InvestmentDailyValueTotal> getDailyTotals(Collection<Investment> investments, LocalDate from, LocalDate to) {
+        if (investments.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<String> ids = getIds(investments);
+        Map<LocalDate, InvestmentDailyValueTotal> totals = investmentDailyValueRepository.sumByDate(ids, from, to).stream()
+                .collect(Collectors.toMap(InvestmentDailyValueTotal::getDate, Function.identity()));
+
+        // investments the scheduled job has not extended to the end of the range yet keep their last known value
+        investmentDailyValueRepository.findAllLatestBefore(ids, to).forEach(latest -> {
+            LocalDate day = latest.getDate().plusDays(1).isBefore(from) ? from : latest.getDate().plusDays(1);
+            for (; !day.isAfter(to); day = day.plusDays(1)) {
+                totals.merge(day, InvestmentDailyValueTotal.builder()
+                        .date(day)
+                        .value(latest.getValue())
+                        .costBasis(latest.getCostBasis())
+                        .proceeds(latest.getProceeds()).build(), InvestmentDailyValueService::sum);
+            }
+        });
+
+        return totals;
+    }
+
+    public Map<String, InvestmentDailyValue> getValuesAt(Collection<Investment> investments, LocalDate date) {
+        if (investments.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return investmentDailyValueRepository.findAllByInvestmentIdInAndDate(getIds(investments), date).stream()
+                .collect(Collectors.toMap(value -> value.getInvestment().getId(), Function.identity()));
+    }
+
+    private static InvestmentDailyValueTotal sum(InvestmentDailyValueTotal first, InvestmentDailyValueTotal second) {
+        return InvestmentDailyValueTotal.builder()
+                .date(first.getDate())
+                .value(first.getValue().add(second.getValue()))
+                .costBasis(first.getCostBasis().add(second.getCostBasis()))
+                .proceeds(first.getProceeds().add(second.getProceeds())).build();
+    }
+
+    private void recalculateInTransaction(Investment investment, LocalDate from) {
+        transactionTemplate.executeWithoutResult(status -> recalculate(investment, from));
+    }
+
+    private List<String> getIds(Collection<Investment> investments) {
+        return investments.stream().map(Investment::getId).toList();
+    }
+}
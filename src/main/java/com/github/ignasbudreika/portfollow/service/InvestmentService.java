@@ -2,9 +2,11 @@ package com.github.ignasbudreika.portfollow.service;
 
 import com.github.ignasbudreika.portfollow.api.dto.request.CreateTransactionDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.InvestmentDTO;
+import com.github.ignasbudreika.portfollow.component.KeysetIterable;
 import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.event.PortfolioChangedEvent;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.exception.UnauthorizedException;
 import com.github.ignasbudreika.portfollow.model.*;
@@ -14,6 +16,7 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -41,6 +44,8 @@ public class InvestmentService {
     private InvestmentTransactionService transactionService;
     private InvestmentRepository investmentRepository;
     private PortfolioHistoryRepository historyRepository;
+    private InvestmentDailyValueService investmentDailyValueService;
+    private ApplicationEventPublisher eventPublisher;
 
     public Collection<InvestmentDTO> getUserInvestments(User user) {
         Collection<Investment> investments = investmentRepository.findAllByUserId(user.getId());
@@ -118,6 +123,7 @@ public class InvestmentService {
         investment.setTransactions(transactions);
 
         portfolioHistoryService.createOrUpdatePortfolioHistory(investment);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(user.getId()));
 
         return investment;
     }
@@ -160,6 +166,7 @@ public class InvestmentService {
                 existing = investmentRepository.save(existing);
 
                 portfolioHistoryService.createOrUpdatePortfolioHistory(existing);
+                eventPublisher.publishEvent(new PortfolioChangedEvent(existing.getUser().getId()));
             } else {
                 log.info("investment: {} for connection: {} exists, but quantity does not differ", investment.getSymbol(), connectionId);
             }
@@ -179,6 +186,7 @@ public class InvestmentService {
         investment.setTransactions(transactions);
 
         portfolioHistoryService.createOrUpdatePortfolioHistory(investment);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(investment.getUser().getId()));
 
         return investment;
     }
@@ -212,6 +220,7 @@ public class InvestmentService {
         investment = investmentRepository.save(investment);
 
         portfolioHistoryService.createOrUpdatePortfolioHistory(investment);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(investment.getUser().getId()));
 
         return investment;
     }
@@ -230,18 +239,18 @@ public class InvestmentService {
             throw new UnauthorizedException();
         }
 
-        inv.setPortfolioHistories(new HashSet<>());
-        investmentRepository.save(inv);
-
-        Collection<PortfolioHistory> histories = historyRepository.findAllByInvestmentsId(investmentId);
-        histories.forEach(history -> {
-            history.setInvestments(history.getInvestments().stream().filter(investment1 -> !investment1.getId().equals(investmentId)).collect(Collectors.toList()));
-            historyRepository.save(history);
-        });
+        Collection<PortfolioHistory> histories = historyRepository.findAllByUserIdAndDateGreaterThanEqual(user.getId(), inv.getDate());
+        histories.stream().filter(history -> history.getInvestmentIds() != null && history.getInvestmentIds().contains(investmentId))
+                .forEach(history -> {
+                    history.setInvestmentIds(history.getInvestmentIds().stream().filter(id -> !id.equals(investmentId)).collect(Collectors.toCollection(LinkedHashSet::new)));
+                    historyRepository.save(history);
+                });
 
+        investmentDailyValueService.deleteInvestmentValues(investmentId);
         investmentRepository.delete(inv);
 
         portfolioHistoryService.updatePortfolioHistoryValue(user, inv.getDate());
+        eventPublisher.publishEvent(new PortfolioChangedEvent(user.getId()));
     }
 
     public void stopPeriodicInvestments(String id, User user) throws UnauthorizedException {
@@ -265,6 +274,7 @@ public class InvestmentService {
         inv.setUpdateType(InvestmentUpdateType.MANUAL);
 
         investmentRepository.save(inv);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(user.getId()));
     }
 
     public void deleteConnection(String connectionId) {
@@ -273,58 +283,68 @@ public class InvestmentService {
                     investment.setConnectionId(null);
                     investment.setUpdateType(InvestmentUpdateType.MANUAL);
                     investmentRepository.save(investment);
+                    eventPublisher.publishEvent(new PortfolioChangedEvent(investment.getUser().getId()));
                 });
     }
 
+    /**
+     * Iterates users that have at least one periodic investment whose last transaction is old
+     * enough for a new one to be due on the date.
+     */
+    public Iterable<User> getUsersWithPeriodicInvestmentsDue(LocalDate date) {
+        return new KeysetIterable<>((id, page) -> investmentRepository.findAllUsersWithPeriodicInvestmentsDue(id,
+                date.minusDays(1), date.minusWeeks(1), getDueCutoff(date, 1), getDueCutoff(date, 3), getDueCutoff(date, 12), page), User::getId);
+    }
+
+    private LocalDate getDueCutoff(LocalDate date, int months) {
+        // adding months clamps to the month's last day, so on a last day the whole cutoff month is due
+        LocalDate cutoff = date.minusMonths(months);
+        if (date.getDayOfMonth() == date.lengthOfMonth()) {
+            return cutoff.withDayOfMonth(cutoff.lengthOfMonth());
+        }
+
+        return cutoff;
+    }
+
     @Transactional
     public void fetchPeriodicInvestments(User user, LocalDate date) {
-        investmentRepository.findAllByUserIdAndUpdateTypeIn(user.getId(), PERIODIC_INVESTMENT_TYPES)
-            .forEach(investment -> {
-                InvestmentTransaction lastTx = investment.getTransactions().stream()
-                        .sorted(Comparator.comparing(InvestmentTransaction::getDate).reversed())
-                        .findFirst().orElse(null);
-                try {
-                    if (lastTx == null) {
-                            createPeriodicTransaction(investment, date);
-                            return;
-                    }
-                    switch (investment.getUpdateType()) {
-                        case DAILY -> {
-                            if (!lastTx.getDate().plusDays(1).isAfter(date)) {
-                                createPeriodicTransaction(investment, date);
-                            }
-                        }
-                        case WEEKLY -> {
-                            if (!lastTx.getDate().plusWeeks(1).isAfter(date)) {
-                                createPeriodicTransaction(investment, date);
-                            }
-                        }
-                        case MONTHLY -> {
-                            if (!lastTx.getDate().plusMonths(1).isAfter(date)) {
-                                createPeriodicTransaction(investment, date);
-                            }
-                        }
-                        case QUARTERLY -> {
-                            if (!lastTx.getDate().plusMonths(3).isAfter(date)) {
-                                createPeriodicTransaction(investment, date);
-                            }
-                        }
-                        case YEARLY -> {
-                            if (!lastTx.getDate().plusYears(1).isAfter(date)) {
-                                createPeriodicTransaction(investment, date);
-                            }
-                        }
-                    }
-                } catch (BusinessLogicException e) {
-                    log.error("failed to create periodic transaction for investment: {}", investment.getId(), e);
+        boolean created = false;
+        for (Investment investment : investmentRepository.findAllByUserIdAndUpdateTypeIn(user.getId(), PERIODIC_INVESTMENT_TYPES)) {
+            try {
+                if (isPeriodicTransactionDue(investment, date)) {
+                    created |= createPeriodicTransaction(investment, date);
                 }
+            } catch (BusinessLogicException e) {
+                log.error("failed to create periodic transaction for investment: {}", investment.getId(), e);
             }
-        );
+        }
+
+        if (created) {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(user.getId()));
+        }
     }
 
-    private void createPeriodicTransaction(Investment investment, LocalDate date) throws BusinessLogicException {
+    private boolean isPeriodicTransactionDue(Investment investment, LocalDate date) {
+        InvestmentTransaction lastTx = investment.getTransactions().stream()
+                .sorted(Comparator.comparing(InvestmentTransaction::getDate).reversed())
+                .findFirst().orElse(null);
+        if (lastTx == null) {
+            return true;
+        }
+
+        return switch (investment.getUpdateType()) {
+            case DAILY -> !lastTx.getDate().plusDays(1).isAfter(date);
+            case WEEKLY -> !lastTx.getDate().plusWeeks(1).isAfter(date);
+            case MONTHLY -> !lastTx.getDate().plusMonths(1).isAfter(date);
+            case QUARTERLY -> !lastTx.getDate().plusMonths(3).isAfter(date);
+            case YEARLY -> !lastTx.getDate().plusYears(1).isAfter(date);
+            default -> false;
+        };
+    }
+
+    private boolean createPeriodicTransaction(Investment investment, LocalDate date) throws BusinessLogicException {
         if (investment.getAsset().getPrice().equals(BigDecimal.ZERO)) {
-            return;
+            return false;
         }
 
         BigDecimal quantity = investment.getAmount().divide(investment.getAsset().getPrice(), 8, RoundingMode.HALF_UP);
@@ -339,5 +359,7 @@ public class InvestmentService {
         investment = investmentRepository.save(investment);
 
         portfolioHistoryService.createOrUpdatePortfolioHistory(investment);
+
+        return true;
     }
 }
@@ -2,6 +2,7 @@ package com.github.ignasbudreika.portfollow.service;
 
 import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.event.PortfolioChangedEvent;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.exception.UnauthorizedException;
 import com.github.ignasbudreika.portfollow.model.Investment;
@@ -11,6 +12,7 @@ import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
 import com.github.ignasbudreika.portfollow.repository.InvestmentTransactionRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -25,6 +27,8 @@ public class InvestmentTransactionService {
     private InvestmentTransactionRepository transactionRepository;
     private InvestmentRepository investmentRepository;
     private PortfolioHistoryService portfolioHistoryService;
+    private InvestmentDailyValueService investmentDailyValueService;
+    private ApplicationEventPublisher eventPublisher;
 
     public InvestmentTransaction createTransaction(Investment investment, BigDecimal quantity, InvestmentTransactionType type, LocalDate date) throws BusinessLogicException {
         log.info("creating: {} transaction for investment: {}", type, investment.getId());
@@ -38,11 +42,16 @@ public class InvestmentTransactionService {
                     investment.getId(), date));
         }
 
-        return transactionRepository.save(InvestmentTransaction.builder()
+        InvestmentTransaction transaction = transactionRepository.save(InvestmentTransaction.builder()
                 .investment(investment)
                 .quantity(quantity)
                 .type(type)
                 .date(date).build());
+
+        investmentDailyValueService.recalculate(investment, date);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(investment.getUser().getId()));
+
+        return transaction;
     }
 
     public void deleteTransaction(String txId, User user) throws UnauthorizedException, BusinessLogicException {
@@ -81,7 +90,9 @@ public class InvestmentTransactionService {
 
         transactionRepository.deleteById(txId);
         investmentRepository.save(investment);
+        investmentDailyValueService.recalculate(investment, tx.getDate());
 
         portfolioHistoryService.updatePortfolioHistoryValue(user, tx.getDate());
+        eventPublisher.publishEvent(new PortfolioChangedEvent(user.getId()));
     }
 }
@@ -3,13 +3,15 @@ package com.github.ignasbudreika.portfollow.service;
 import com.github.ignasbudreika.portfollow.api.dto.response.PortfolioDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.DateValueDTO;
 import com.github.ignasbudreika.portfollow.enums.HistoryType;
-import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
+import com.github.ignasbudreika.portfollow.event.PortfolioChangedEvent;
 import com.github.ignasbudreika.portfollow.model.*;
 import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
 import com.github.ignasbudreika.portfollow.repository.PortfolioHistoryRepository;
+import com.github.ignasbudreika.portfollow.util.FixedPoint;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -22,43 +24,49 @@ import java.util.stream.Collectors;
 @Service
 @AllArgsConstructor
 public class PortfolioHistoryService {
-    private AssetService assetService;
+    private AssetPriceIndexService assetPriceIndexService;
     private StatisticsService statisticsService;
     private PortfolioHistoryRepository portfolioHistoryRepository;
     private InvestmentRepository investmentRepository;
-
+    private PortfolioSeriesService portfolioSeriesService;
+    private PortfolioHoldingsService portfolioHoldingsService;
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Writes today's value with an upsert, so it can run alongside a connection sync backfilling
+     * the same day. When the value moved, the user's data version moves with it in the same
+     * transaction, so cached and validated portfolio responses do not outlive it.
+     */
     @Transactional
     public PortfolioHistory saveCurrentPortfolio(String userId) {
         LocalDate date = LocalDate.now();
         PortfolioHistory portfolioHistory = portfolioHistoryRepository.findFirstByUserIdAndDate(userId, date);
-        if (portfolioHistory == null) {
-            PortfolioHistory lastDaysPortfolioHistory = portfolioHistoryRepository.findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(userId, date);
-            if (lastDaysPortfolioHistory == null) {
-                return portfolioHistoryRepository.save(PortfolioHistory.builder()
-                        .user(User.builder().id(userId).build())
-                        .value(BigDecimal.ZERO)
-                        .investments(new ArrayList<>())
-                        .date(date).build());
-            }
+        PortfolioHistory lastKnown = portfolioHistory != null
+                ? portfolioHistory : portfolioHistoryRepository.findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(userId, date);
 
-            Collection<Investment> investments = lastDaysPortfolioHistory.getInvestments().stream().collect(Collectors.toList());
-            BigDecimal totalValue = investments.stream().map(investment ->
-                    investment.getQuantityAt(date).multiply(investment.getAsset().getPrice()).setScale(8, RoundingMode.HALF_UP)
-            ).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(2, RoundingMode.HALF_UP);
-
-            return portfolioHistoryRepository.save(PortfolioHistory.builder()
+        PortfolioHistory current;
+        if (lastKnown == null) {
+            current = PortfolioHistory.builder()
                     .user(User.builder().id(userId).build())
-                    .value(totalValue)
-                    .investments(investments)
-                    .date(date).build());
+                    .value(BigDecimal.ZERO)
+                    .investmentIds(new LinkedHashSet<>())
+                    .date(date).build();
+        } else {
+            Collection<Investment> investments = portfolioHoldingsService.getInvestments(lastKnown);
+            current = PortfolioHistory.builder()
+                    .id(portfolioHistory != null ? portfolioHistory.getId() : null)
+                    .user(User.builder().id(userId).build())
+                    .value(calculateCurrentValue(investments, date).setScale(2, RoundingMode.HALF_UP))
+                    .investmentIds(portfolioHistory != null ? portfolioHistory.getInvestmentIds() : PortfolioHoldingsService.getIds(investments))
+                    .date(date).build();
         }
 
-        BigDecimal totalValue = portfolioHistory.getInvestments().stream().map(investment ->
-                investment.getQuantityAt(date).multiply(investment.getAsset().getPrice()).setScale(8, RoundingMode.HALF_UP)
-        ).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(2, RoundingMode.HALF_UP);
+        portfolioHistoryRepository.upsertAll(List.of(current));
+        if (portfolioHistory == null || portfolioHistory.getValue() == null || portfolioHistory.getValue().compareTo(current.getValue()) != 0) {
+            eventPublisher.publishEvent(new PortfolioChangedEvent(userId));
+        }
 
-        portfolioHistory.setValue(totalValue);
-        return portfolioHistoryRepository.save(portfolioHistory);
+        return current;
     }
 
     public void initPortfolio(User user) {
@@ -67,7 +75,8 @@ public class PortfolioHistoryService {
             portfolioHistoryRepository.save(PortfolioHistory.builder()
                     .date(date)
                     .user(user)
-                    .value(BigDecimal.ZERO).build());
+                    .value(BigDecimal.ZERO)
+                    .investmentIds(new LinkedHashSet<>()).build());
         }
     }
 
@@ -84,9 +93,7 @@ public class PortfolioHistoryService {
                     .trend(BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP)).build();
         }
 
-        BigDecimal totalValue = portfolioHistory.getInvestments().stream().map(investment ->
-                investment.getQuantityAt(LocalDate.now()).multiply(investment.getAsset().getPrice())
-        ).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalValue = calculateCurrentValue(portfolioHoldingsService.getInvestments(portfolioHistory), LocalDate.now()).setScale(2, RoundingMode.HALF_UP);
 
         Collection<Investment> investments = investmentRepository.findAllByUserId(user.getId());
 
@@ -108,42 +115,8 @@ public class PortfolioHistoryService {
         }
 
         Collection<Investment> investments = investmentRepository.findAllByUserId(user.getId());
-        BigDecimal initialProfitLoss = null;
-
-        List<DateValueDTO> history = new ArrayList<>();
-        for (LocalDate at = from; !at.isAfter(LocalDate.now()); at = at.plusDays(1)) {
-            LocalDate finalAt = at;
-
-            BigDecimal daysProfitLoss = investments.stream().map(investment -> {
-                BigDecimal purchasePrice = investment.getTransactions().stream().filter(tx ->
-                                tx.getType().equals(InvestmentTransactionType.BUY) && !tx.getDate().isAfter(finalAt))
-                        .map(tx -> tx.getQuantity()
-                                .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                                .setScale(8, RoundingMode.HALF_UP))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                BigDecimal sellPrice = investment.getTransactions().stream().filter(tx ->
-                                tx.getType().equals(InvestmentTransactionType.SELL) && !tx.getDate().isAfter(finalAt))
-                        .map(tx -> tx.getQuantity()
-                                .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                                .setScale(8, RoundingMode.HALF_UP))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                BigDecimal daysValue = investment.getQuantityAt(finalAt)
-                        .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), finalAt))
-                        .setScale(8, RoundingMode.HALF_UP);
-
-                return daysValue.add(sellPrice).subtract(purchasePrice);
-            }).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            if (initialProfitLoss == null) {
-                initialProfitLoss = daysProfitLoss;
-            }
-
-            daysProfitLoss = daysProfitLoss.subtract(initialProfitLoss);
-
-            history.add(DateValueDTO.builder().date(at).value(daysProfitLoss).build());
-        }
 
-        return history;
+        return portfolioSeriesService.getProfitLossSeries(investments, from, LocalDate.now());
     }
 
     public List<DateValueDTO> getUserPerformanceHistory(User user, HistoryType type) {
@@ -157,57 +130,7 @@ public class PortfolioHistoryService {
 
         Collection<Investment> investments = investmentRepository.findAllByUserId(user.getId());
 
-        List<DateValueDTO> history = new ArrayList<>();
-        BigDecimal initialPerformance = null;
-        for (LocalDate at = from; !at.isAfter(LocalDate.now()); at = at.plusDays(1)) {
-            LocalDate finalAt = at;
-
-            BigDecimal totalPurchasePrice = investments.stream().map(investment ->
-                        investment.getTransactions().stream().filter(tx ->
-                                        tx.getType().equals(InvestmentTransactionType.BUY) && !tx.getDate().isAfter(finalAt))
-                                .map(tx -> tx.getQuantity()
-                                        .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                                        .setScale(8, RoundingMode.HALF_UP))
-                                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                    ).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal totalSellPrice = investments.stream().map(investment ->
-                investment.getTransactions().stream().filter(tx ->
-                                tx.getType().equals(InvestmentTransactionType.SELL) && !tx.getDate().isAfter(finalAt))
-                        .map(tx -> tx.getQuantity()
-                                .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                                .setScale(8, RoundingMode.HALF_UP))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add)
-            ).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            BigDecimal totalDaysValue = investments.stream().map(investment ->
-                investment.getQuantityAt(finalAt)
-                        .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), finalAt))
-                        .setScale(8, RoundingMode.HALF_UP)
-            ).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            if (totalPurchasePrice.compareTo(BigDecimal.ZERO) == 0) {
-                if (initialPerformance == null) {
-                    initialPerformance = BigDecimal.ZERO;
-                }
-
-                history.add(DateValueDTO.builder().date(at).value(BigDecimal.ZERO.subtract(initialPerformance)).build());
-            } else {
-                BigDecimal performance = totalDaysValue.add(totalSellPrice).subtract(totalPurchasePrice)
-                        .divide(totalPurchasePrice, 4, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(100L).setScale(2, RoundingMode.HALF_UP));
-
-                if (initialPerformance == null) {
-                    initialPerformance = performance;
-                }
-
-                performance = performance.subtract(initialPerformance);
-
-                history.add(DateValueDTO.builder().date(at).value(performance).build());
-            }
-        }
-
-        return history;
+        return portfolioSeriesService.getPerformanceSeries(investments, from, LocalDate.now());
     }
 
     public List<DateValueDTO> getUserPortfolioHistory(User user, HistoryType type) {
@@ -219,7 +142,7 @@ public class PortfolioHistoryService {
             case ALL -> from = LocalDate.of(2022, 12, 31);
         }
 
-        Collection<PortfolioHistory> portfolioHistories = portfolioHistoryRepository.findAllByUserIdAndDateAfterOrderByDateAsc(user.getId(), from);
+        Collection<PortfolioHistoryValue> portfolioHistories = portfolioHistoryRepository.findAllByUserIdAndDateAfterOrderByDateAsc(user.getId(), from);
 
         return portfolioHistories.stream().map(portfolioHistory -> DateValueDTO.builder()
                 .value(portfolioHistory.getValue().setScale(2, RoundingMode.HALF_UP))
@@ -227,77 +150,105 @@ public class PortfolioHistoryService {
                 .toList();
     }
 
+    @Transactional
     public void createOrUpdatePortfolioHistory(Investment investment) {
-        for (LocalDate date = investment.getDate(); date.isBefore(LocalDate.now().plusDays(1)); date = date.plusDays(1))
-        {
-            final LocalDate day = date;
+        String userId = investment.getUser().getId();
+        LocalDate today = LocalDate.now();
 
-            PortfolioHistory portfolioHistory = portfolioHistoryRepository.findFirstByUserIdAndDate(investment.getUser().getId(), date);
+        Collection<PortfolioHistory> existingHistories = portfolioHistoryRepository.findAllByUserIdAndDateGreaterThanEqual(userId, investment.getDate());
+        PortfolioHistory lastDaysPortfolioHistory = portfolioHistoryRepository.findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(userId, investment.getDate().minusDays(1));
+
+        List<PortfolioHistory> loadedHistories = new ArrayList<>(existingHistories);
+        if (lastDaysPortfolioHistory != null) {
+            loadedHistories.add(lastDaysPortfolioHistory);
+        }
+        Map<LocalDate, Collection<Investment>> holdings = portfolioHoldingsService.getInvestmentsByDate(loadedHistories);
+        Map<LocalDate, PortfolioHistory> historiesByDate = existingHistories.stream()
+                .collect(Collectors.toMap(PortfolioHistory::getDate, history -> history, (first, second) -> first));
+
+        Collection<Investment> lastDaysInvestments = lastDaysPortfolioHistory != null
+                ? holdings.getOrDefault(lastDaysPortfolioHistory.getDate(), List.of()) : null;
+        List<PortfolioHistory> histories = new ArrayList<>();
+        for (LocalDate date = investment.getDate(); !date.isAfter(today); date = date.plusDays(1)) {
+            PortfolioHistory portfolioHistory = historiesByDate.get(date);
+
+            Collection<Investment> investments;
+            BigDecimal totalValue;
             if (portfolioHistory != null) {
-                Collection<Investment> investments = portfolioHistory.getInvestments()
-                        .stream().filter(i -> !i.getId().equals(investment.getId())).collect(Collectors.toList());
-                investments.add(investment);
-                portfolioHistory.setInvestments(investments);
-
-                BigDecimal totalValue = investments.stream().map(previousDayInvestment ->
-                        previousDayInvestment.getQuantityAt(day).multiply(
-                                assetService.getLatestAssetPriceForDate(previousDayInvestment.getAsset(), day)
-                        ).setScale(8, RoundingMode.HALF_UP)
-                ).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(8, RoundingMode.HALF_UP);
-
-                portfolioHistory.setValue(totalValue);
+                investments = withInvestment(holdings.getOrDefault(date, List.of()), investment);
+                totalValue = calculateValue(investments, date);
+            } else if (lastDaysInvestments != null) {
+                investments = withInvestment(lastDaysInvestments, investment);
+                totalValue = calculateValue(investments, date).setScale(2, RoundingMode.HALF_UP).setScale(8, RoundingMode.HALF_UP);
             } else {
-                PortfolioHistory lastDaysPortfolioHistory = portfolioHistoryRepository.findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(investment.getUser().getId(), date.minusDays(1));
-                if (lastDaysPortfolioHistory != null) {
-                    Collection<Investment> investments = lastDaysPortfolioHistory.getInvestments()
-                            .stream().filter(i -> !i.getId().equals(investment.getId())).collect(Collectors.toList());
-                    investments.add(investment);
-
-                    BigDecimal totalValue = investments.stream().map(previousDayInvestment ->
-                            previousDayInvestment.getQuantityAt(day).multiply(
-                                    assetService.getLatestAssetPriceForDate(previousDayInvestment.getAsset(), day)
-                            ).setScale(8, RoundingMode.HALF_UP)
-                    ).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(2, RoundingMode.HALF_UP).setScale(8, RoundingMode.HALF_UP);
-
-                    portfolioHistory = PortfolioHistory.builder()
-                            .value(totalValue)
-                            .date(date)
-                            .investments(investments)
-                            .user(investment.getUser()).build();
-                } else {
-                    portfolioHistory = PortfolioHistory.builder()
-                            .value(investment.getQuantityAt(day).multiply(
-                                    assetService.getLatestAssetPriceForDate(investment.getAsset(), date)
-                            ).setScale(8, RoundingMode.HALF_UP))
-                            .investments(Set.of(investment))
-                            .date(date)
-                            .user(investment.getUser()).build();
-                }
+                investments = List.of(investment);
+                totalValue = calculateValue(investments, date);
             }
 
-            log.info("saving portfolio for user: {} at: {}, total value: {}",
-                    investment.getUser().getId(), date, portfolioHistory.getValue());
-
-            portfolioHistoryRepository.save(portfolioHistory);
+            histories.add(PortfolioHistory.builder()
+                    .id(portfolioHistory != null ? portfolioHistory.getId() : null)
+                    .user(investment.getUser())
+                    .date(date)
+                    .value(totalValue)
+                    .investmentIds(PortfolioHoldingsService.getIds(investments)).build());
+            lastDaysInvestments = investments;
         }
+
+        log.info("saving portfolio for user: {} since: {}, days: {}", userId, investment.getDate(), histories.size());
+
+        portfolioHistoryRepository.upsertAll(histories);
     }
 
+    @Transactional
     public void updatePortfolioHistoryValue(User user, LocalDate from) {
-        for (; from.isBefore(LocalDate.now().plusDays(1)); from = from.plusDays(1)) {
-            final LocalDate day = from;
+        LocalDate today = LocalDate.now();
 
-            PortfolioHistory portfolioHistory = portfolioHistoryRepository.findFirstByUserIdAndDate(user.getId(), from);
-            if (portfolioHistory != null) {
-                BigDecimal totalValue = portfolioHistory.getInvestments().stream().map(previousDayInvestment ->
-                        previousDayInvestment.getQuantityAt(day).multiply(
-                                assetService.getLatestAssetPriceForDate(previousDayInvestment.getAsset(), day)
-                        ).setScale(8, RoundingMode.HALF_UP)
-                ).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(2, RoundingMode.HALF_UP).setScale(8, RoundingMode.HALF_UP);
+        Collection<PortfolioHistory> existingHistories = portfolioHistoryRepository.findAllByUserIdAndDateGreaterThanEqual(user.getId(), from);
+        if (existingHistories.isEmpty()) {
+            return;
+        }
 
-                portfolioHistory.setValue(totalValue);
+        Map<LocalDate, Collection<Investment>> holdings = portfolioHoldingsService.getInvestmentsByDate(existingHistories);
+        List<PortfolioHistory> histories = existingHistories.stream()
+                .filter(history -> !history.getDate().isAfter(today))
+                .map(history -> PortfolioHistory.builder()
+                        .id(history.getId())
+                        .user(user)
+                        .date(history.getDate())
+                        .value(calculateValue(holdings.getOrDefault(history.getDate(), List.of()), history.getDate())
+                                .setScale(2, RoundingMode.HALF_UP).setScale(8, RoundingMode.HALF_UP))
+                        .investmentIds(history.getInvestmentIds()).build())
+                .toList();
 
-                portfolioHistoryRepository.save(portfolioHistory);
-            }
+        log.info("updating portfolio values for user: {} since: {}, days: {}", user.getId(), from, histories.size());
+
+        portfolioHistoryRepository.upsertAll(histories);
+    }
+
+    private Collection<Investment> withInvestment(Collection<Investment> investments, Investment investment) {
+        Collection<Investment> result = investments.stream()
+                .filter(i -> !i.getId().equals(investment.getId())).collect(Collectors.toList());
+        result.add(investment);
+
+        return result;
+    }
+
+    private BigDecimal calculateValue(Collection<Investment> investments, LocalDate date) {
+        long value = 0;
+        for (Investment investment : investments) {
+            BigDecimal price = assetPriceIndexService.getLatestAssetPriceForDate(investment.getAsset(), date);
+            value = FixedPoint.add(value, FixedPoint.multiply(investment.getFixedQuantityAt(date), FixedPoint.of(price)));
         }
+
+        return FixedPoint.toBigDecimal(value);
+    }
+
+    private BigDecimal calculateCurrentValue(Collection<Investment> investments, LocalDate date) {
+        long value = 0;
+        for (Investment investment : investments) {
+            value = FixedPoint.add(value, FixedPoint.multiply(investment.getFixedQuantityAt(date), FixedPoint.of(investment.getAsset().getPrice())));
+        }
+
+        return FixedPoint.toBigDecimal(value);
     }
 }
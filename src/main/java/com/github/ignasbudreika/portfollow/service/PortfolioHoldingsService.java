@@ -0,0 +1,58 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.PortfolioHistory;
+import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves the investments held on a portfolio history day. Each day stores only the ids of its
+ * holdings, investments are loaded when a caller actually needs them. Investments come with their
+ * asset and transactions, as every caller values them.
+ */
+@Service
+@AllArgsConstructor
+public class PortfolioHoldingsService {
+    private InvestmentRepository investmentRepository;
+
+    public Collection<Investment> getInvestments(PortfolioHistory history) {
+        if (history.getInvestmentIds() == null || history.getInvestmentIds().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return new ArrayList<>(investmentRepository.findAllByIdIn(history.getInvestmentIds()));
+    }
+
+    public Map<LocalDate, Collection<Investment>> getInvestmentsByDate(Collection<PortfolioHistory> histories) {
+        Set<String> ids = histories.stream()
+                .map(PortfolioHistory::getInvestmentIds)
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toSet());
+        Map<String, Investment> investments = new HashMap<>();
+        if (!ids.isEmpty()) {
+            investmentRepository.findAllByIdIn(ids).forEach(investment -> investments.put(investment.getId(), investment));
+        }
+
+        Map<LocalDate, Collection<Investment>> investmentsByDate = new HashMap<>();
+        histories.forEach(history -> investmentsByDate.put(history.getDate(), history.getInvestmentIds() == null ? new ArrayList<>() :
+                history.getInvestmentIds().stream()
+                        .map(investments::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList())));
+
+        return investmentsByDate;
+    }
+
+    public static Set<String> getIds(Collection<Investment> investments) {
+        Set<String> ids = new LinkedHashSet<>();
+        investments.forEach(investment -> ids.add(investment.getId()));
+
+        return ids;
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.api.dto.response.DateValueDTO;
+import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValueTotal;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds daily profit/loss and performance series in a single pass over the date range,
+ * reading the per-day value, purchase cost and sale proceeds totals of the investments
+ * from their materialized daily values.
+ */
+@Service
+@AllArgsConstructor
+public class PortfolioSeriesService {
+    private static final BigDecimal ZERO_VALUE = BigDecimal.ZERO.setScale(8, RoundingMode.HALF_UP);
+
+    private InvestmentDailyValueService investmentDailyValueService;
+
+    public List<DateValueDTO> getProfitLossSeries(Collection<Investment> investments, LocalDate from, LocalDate to) {
+        List<DateValueDTO> history = new ArrayList<>();
+        BigDecimal[] initialProfitLoss = new BigDecimal[1];
+
+        sweep(investments, from, to, (day, value, purchases, sales) -> {
+            BigDecimal daysProfitLoss = value.add(sales).subtract(purchases);
+            if (initialProfitLoss[0] == null) {
+                initialProfitLoss[0] = daysProfitLoss;
+            }
+
+            history.add(DateValueDTO.builder().date(day).value(daysProfitLoss.subtract(initialProfitLoss[0])).build());
+        });
+
+        return history;
+    }
+
+    public List<DateValueDTO> getPerformanceSeries(Collection<Investment> investments, LocalDate from, LocalDate to) {
+        List<DateValueDTO> history = new ArrayList<>();
+        BigDecimal[] initialPerformance = new BigDecimal[1];
+
+        sweep(investments, from, to, (day, value, purchases, sales) -> {
+            if (purchases.compareTo(BigDecimal.ZERO) == 0) {
+                if (initialPerformance[0] == null) {
+                    initialPerformance[0] = BigDecimal.ZERO;
+                }
+
+                history.add(DateValueDTO.builder().date(day).value(BigDecimal.ZERO.subtract(initialPerformance[0])).build());
+                return;
+            }
+
+            BigDecimal performance = value.add(sales).subtract(purchases)
+                    .divide(purchases, 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100L).setScale(2, RoundingMode.HALF_UP));
+            if (initialPerformance[0] == null) {
+                initialPerformance[0] = performance;
+            }
+
+            history.add(DateValueDTO.builder().date(day).value(performance.subtract(initialPerformance[0])).build());
+        });
+
+        return history;
+    }
+
+    private void sweep(Collection<Investment> investments, LocalDate from, LocalDate to, DayConsumer consumer) {
+        Map<LocalDate, InvestmentDailyValueTotal> totals = investmentDailyValueService.getDailyTotals(investments, from, to);
+        BigDecimal emptyValue = investments.isEmpty() ? BigDecimal.ZERO : ZERO_VALUE;
+
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            InvestmentDailyValueTotal total = totals.get(day);
+            if (total == null) {
+                consumer.accept(day, emptyValue, BigDecimal.ZERO, BigDecimal.ZERO);
+            } else {
+                consumer.accept(day, total.getValue(), total.getCostBasis(), total.getProceeds());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface DayConsumer {
+        void accept(LocalDate day, BigDecimal value, BigDecimal purchases, BigDecimal sales);
+    }
+}
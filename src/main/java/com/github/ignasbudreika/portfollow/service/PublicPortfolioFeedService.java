@@ -0,0 +1,133 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.api.dto.response.DateValueDTO;
+import com.github.ignasbudreika.portfollow.api.dto.response.PublicPortfolioDTO;
+import com.github.ignasbudreika.portfollow.api.dto.response.PublicPortfolioListDTO;
+import com.github.ignasbudreika.portfollow.enums.HistoryType;
+import com.github.ignasbudreika.portfollow.event.PortfolioSettingsChangedEvent;
+import com.github.ignasbudreika.portfollow.model.Portfolio;
+import com.github.ignasbudreika.portfollow.repository.PortfolioRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serves the public portfolio feed from pages computed ahead of time, so a visitor's request
+ * never computes a history. The feed is built once the application is ready and served empty
+ * until then. All entries are recomputed after portfolio values are collected and a single entry
+ * when its owner changes the portfolio settings. Every page carries an ETag of its content, which
+ * only changes when the page does.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PublicPortfolioFeedService {
+    private static final int PAGE_SIZE = 3;
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioHistoryService portfolioHistoryService;
+    private final Map<String, PublicPortfolioDTO> entries = new TreeMap<>();
+    private volatile List<Page> pages = List.of();
+    private boolean built;
+
+    public Page getPage(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("page index must not be less than zero");
+        }
+
+        List<Page> feed = pages;
+        return index < feed.size() ? feed.get(index) : page(index, new PublicPortfolioDTO[]{}, false);
+    }
+
+    public synchronized void refresh() {
+        long start = System.currentTimeMillis();
+
+        entries.clear();
+        portfolioRepository.findAllByPublished(true).forEach(portfolio -> entries.put(portfolio.getId(), toEntry(portfolio)));
+        pages = paginate();
+        built = true;
+
+        log.info("refreshed public portfolio feed of {} portfolios in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("failed to build public portfolio feed, serving it empty until the next refresh", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPortfolioSettingsChanged(PortfolioSettingsChangedEvent event) {
+        if (!built) {
+            return;
+        }
+
+        portfolioRepository.findById(event.getPortfolioId()).ifPresentOrElse(portfolio -> {
+            if (portfolio.isPublished()) {
+                entries.put(portfolio.getId(), toEntry(portfolio));
+            } else {
+                entries.remove(portfolio.getId());
+            }
+        }, () -> entries.remove(event.getPortfolioId()));
+        pages = paginate();
+    }
+
+    private PublicPortfolioDTO toEntry(Portfolio portfolio) {
+        return PublicPortfolioDTO.builder()
+                .id(portfolio.getId())
+                .title(portfolio.getTitle())
+                .description(portfolio.getDescription())
+                .history(portfolio.isHiddenValue() ?
+                        portfolioHistoryService.getUserPerformanceHistory(portfolio.getUser(), HistoryType.MONTHLY).toArray(DateValueDTO[]::new) :
+                        portfolioHistoryService.getUserProfitLossHistory(portfolio.getUser(), HistoryType.MONTHLY).toArray(DateValueDTO[]::new))
+                .build();
+    }
+
+    private List<Page> paginate() {
+        List<PublicPortfolioDTO> all = new ArrayList<>(entries.values());
+        int total = (all.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+
+        List<Page> paginated = new ArrayList<>(total);
+        for (int index = 0; index < total; index++) {
+            PublicPortfolioDTO[] portfolios = all.subList(index * PAGE_SIZE, Math.min(all.size(), (index + 1) * PAGE_SIZE))
+                    .toArray(PublicPortfolioDTO[]::new);
+            paginated.add(page(index, portfolios, index + 1 < total));
+        }
+
+        return List.copyOf(paginated);
+    }
+
+    private Page page(int index, PublicPortfolioDTO[] portfolios, boolean more) {
+        PublicPortfolioListDTO content = PublicPortfolioListDTO.builder()
+                .more(more)
+                .index(index + 1)
+                .portfolios(portfolios).build();
+
+        return new Page(content, DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Getter
+    public static final class Page {
+        private final PublicPortfolioListDTO content;
+        private final String eTag;
+
+        private Page(PublicPortfolioListDTO content, String eTag) {
+            this.content = content;
+            this.eTag = eTag;
+        }
+    }
+}
@@ -15,8 +15,6 @@ import com.github.ignasbudreika.portfollow.repository.PortfolioRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -28,31 +26,14 @@ import java.util.Optional;
 @Service
 @AllArgsConstructor
 public class PublicPortfolioService {
-    private static final int LIMIT = 3;
     private PortfolioRepository portfolioRepository;
     private StatisticsService statisticsService;
     private CommentRepository commentRepository;
     private InvestmentRepository investmentRepository;
     private PortfolioHistoryService portfolioHistoryService;
 
-    public PublicPortfolioListDTO getPublicPortfolios(int index) {
-        Page<Portfolio> portfolios = portfolioRepository.findAllByPublished(true, PageRequest.of(index, LIMIT));
-
-        PublicPortfolioDTO[] portfolioDTOs = portfolios.stream().map(portfolio ->
-            PublicPortfolioDTO.builder()
-                    .id(portfolio.getId())
-                    .title(portfolio.getTitle())
-                    .description(portfolio.getDescription())
-                    .history(portfolio.isHiddenValue() ?
-                            portfolioHistoryService.getUserPerformanceHistory(portfolio.getUser(), HistoryType.MONTHLY).toArray(DateValueDTO[]::new) :
-                            portfolioHistoryService.getUserProfitLossHistory(portfolio.getUser(), HistoryType.MONTHLY).toArray(DateValueDTO[]::new))
-                    .build()
-        ).toArray(PublicPortfolioDTO[]::new);
-
-        return PublicPortfolioListDTO.builder()
-                .more(index+1 < portfolios.getTotalPages())
-                .index(index+1)
-                .portfolios(portfolioDTOs).build();
+    public String getOwnerId(String id) {
+        return portfolioRepository.findById(id).orElseThrow(EntityNotFoundException::new).getUser().getId();
     }
 
     public PublicPortfolioDTO getPublicPortfolio(String id) {
@@ -4,12 +4,14 @@ import com.github.ignasbudreika.portfollow.api.dto.request.SettingsUpdateDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.PortfolioInfoDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.SettingsDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.UserInfoDTO;
+import com.github.ignasbudreika.portfollow.event.PortfolioSettingsChangedEvent;
 import com.github.ignasbudreika.portfollow.model.Portfolio;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.repository.PortfolioRepository;
 import com.github.ignasbudreika.portfollow.repository.UserRepository;
 import lombok.AllArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Service;
 public class SettingsService {
     private PortfolioRepository portfolioRepository;
     private UserRepository userRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     public SettingsDTO getUserSettings(User user) {
         Portfolio portfolio = portfolioRepository.findByUserId(user.getId());
@@ -53,6 +56,7 @@ public class SettingsService {
         portfolio.setAllowedUsers(settings.getAllowedUsers());
 
         portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(new PortfolioSettingsChangedEvent(portfolio.getId(), user.getId()));
 
         return SettingsDTO.builder()
                 .userInfo(UserInfoDTO.builder()
@@ -2,6 +2,7 @@ package com.github.ignasbudreika.portfollow.service;
 
 import com.github.ignasbudreika.portfollow.api.dto.request.CreateSpectroCoinConnectionDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.SpectroCoinConnectionDTO;
+import com.github.ignasbudreika.portfollow.component.KeysetIterable;
 import com.github.ignasbudreika.portfollow.enums.ConnectionStatus;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
@@ -110,45 +111,56 @@ public class SpectroCoinService {
         spectroCoinConnectionRepository.save(connection);
     }
 
+    public Iterable<SpectroCoinConnection> getActiveConnections() {
+        return new KeysetIterable<>((id, page) ->
+                spectroCoinConnectionRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(ConnectionStatus.ACTIVE, id, page), SpectroCoinConnection::getId);
+    }
+
     public void fetchCryptocurrencies(User user) {
         try {
-            SpectroCoinConnection connection = getActiveConnectionOrThrowException(user.getId());
-
-            try {
-                AccountsDTO accounts = spectroCoinClient.getAccountData(connection.getClientId(), connection.getClientSecret());
-
-                Arrays.stream(accounts.getAccounts()).forEach(account -> {
-                    if (SUPPORTED_CRYPTOCURRENCIES.contains(account.getCurrencyCode())
-                            && account.getBalance().compareTo(BigDecimal.ZERO) > 0) {
-                        try {
-                            investmentService.saveInvestmentFetchedFromConnection(Investment.builder()
-                                    .symbol(account.getCurrencyCode())
-                                    .quantity(account.getBalance().setScale(8, RoundingMode.HALF_UP))
-                                    .type(InvestmentType.CRYPTO)
-                                    .updateType(InvestmentUpdateType.SPECTROCOIN)
-                                    .date(LocalDate.now())
-                                    .user(user).build(), connection.getId());
-
-                            log.info("imported {} cryptocurrency for user: {} from SpectroCoin, balance: {}",
-                                    account.getCurrencyCode(), user.getId(), account.getBalance());
-                        } catch (Exception e) {
-                            log.error("failed to import: {} symbol for user: {}", account.getCurrencyCode(), user.getId(), e);
-                        }
-                    }
-                });
-
-                connection.setLastFetched(LocalDateTime.now());
-                spectroCoinConnectionRepository.save(connection);
-            } catch (InvalidExternalRequestException e) {
-                log.warn("failed to fetch cryptocurrencies from SpectroCoin for user: {}", user.getId(), e);
-
-                log.info("invalidating SpectroCoin connection: {} for user: {}", connection.getId(), user.getId());
-                invalidateConnection(connection.getId());
-            } catch (Exception e) {
-                log.error("error occurred while fetching cryptocurrencies for user: {} from SpectroCoin", user.getId(), e);
-            }
+            fetchCryptocurrencies(getActiveConnectionOrThrowException(user.getId()), user);
         } catch (EntityNotFoundException e) {
             log.info("could not fetch cryptocurrencies for user: {} because no active SpectroCoin connection exists", user.getId());
         }
     }
+
+    public void fetchCryptocurrencies(SpectroCoinConnection connection) {
+        fetchCryptocurrencies(connection, connection.getUser());
+    }
+
+    private void fetchCryptocurrencies(SpectroCoinConnection connection, User user) {
+        try {
+            AccountsDTO accounts = spectroCoinClient.getAccountData(connection.getClientId(), connection.getClientSecret());
+
+            Arrays.stream(accounts.getAccounts()).forEach(account -> {
+                if (SUPPORTED_CRYPTOCURRENCIES.contains(account.getCurrencyCode())
+                        && account.getBalance().compareTo(BigDecimal.ZERO) > 0) {
+                    try {
+                        investmentService.saveInvestmentFetchedFromConnection(Investment.builder()
+                                .symbol(account.getCurrencyCode())
+                                .quantity(account.getBalance().setScale(8, RoundingMode.HALF_UP))
+                                .type(InvestmentType.CRYPTO)
+                                .updateType(InvestmentUpdateType.SPECTROCOIN)
+                                .date(LocalDate.now())
+                                .user(user).build(), connection.getId());
+
+                        log.info("imported {} cryptocurrency for user: {} from SpectroCoin, balance: {}",
+                                account.getCurrencyCode(), user.getId(), account.getBalance());
+                    } catch (Exception e) {
+                        log.error("failed to import: {} symbol for user: {}", account.getCurrencyCode(), user.getId(), e);
+                    }
+                }
+            });
+
+            connection.setLastFetched(LocalDateTime.now());
+            spectroCoinConnectionRepository.save(connection);
+        } catch (InvalidExternalRequestException e) {
+            log.warn("failed to fetch cryptocurrencies from SpectroCoin for user: {}", user.getId(), e);
+
+            log.info("invalidating SpectroCoin connection: {} for user: {}", connection.getId(), user.getId());
+            invalidateConnection(connection.getId());
+        } catch (Exception e) {
+            log.error("error occurred while fetching cryptocurrencies for user: {} from SpectroCoin", user.getId(), e);
+        }
+    }
 }
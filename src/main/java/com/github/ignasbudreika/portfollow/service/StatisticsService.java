@@ -6,10 +6,13 @@ import com.github.ignasbudreika.portfollow.enums.HistoryType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.model.Asset;
+import com.github.ignasbudreika.portfollow.model.AssetPrice;
 import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentTransaction;
 import com.github.ignasbudreika.portfollow.model.PortfolioHistory;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.repository.PortfolioHistoryRepository;
+import com.github.ignasbudreika.portfollow.util.FixedPoint;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -18,117 +21,100 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class StatisticsService {
     private AssetService assetService;
+    private AssetPriceIndexService assetPriceIndexService;
     private PortfolioHistoryRepository portfolioHistoryRepository;
+    private PortfolioHoldingsService portfolioHoldingsService;
+    private AssetPriceCacheService assetPriceCacheService;
 
     public BigDecimal getAssetDayTrend(Asset asset) {
-        BigDecimal yesterdaysPrice = assetService.getLatestAssetPriceForDate(asset, LocalDate.now().minusDays(1));
+        LocalDate today = LocalDate.now();
+        AssetPrice cached = assetPriceCacheService.get(asset.getSymbol(), asset.getType());
+
+        BigDecimal price = cached != null ? cached.getPrice() : asset.getPrice();
+        BigDecimal yesterdaysPrice = cached != null && cached.getPreviousClose() != null && cached.getUpdatedAt().toLocalDate().equals(today)
+                ? cached.getPreviousClose()
+                : assetPriceIndexService.getLatestAssetPriceForDate(asset, today.minusDays(1));
         if (yesterdaysPrice == null || yesterdaysPrice.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
         }
 
-        return asset.getPrice()
+        return price
                 .subtract(yesterdaysPrice)
                 .divide(yesterdaysPrice, 4, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(100));
     }
 
     public BigDecimal getInvestmentTotalChange(Investment investment) {
-        BigDecimal purchasePrice = investment.getTransactions().stream().filter(transaction -> transaction.getType().equals(InvestmentTransactionType.BUY))
-                .map(tx -> tx.getQuantity()
-                        .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                        .setScale(8, RoundingMode.HALF_UP))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal sellPrice = investment.getTransactions().stream().filter(transaction -> transaction.getType().equals(InvestmentTransactionType.SELL))
-                .map(tx -> tx.getQuantity()
-                        .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                        .setScale(8, RoundingMode.HALF_UP))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal daysValue = investment.getQuantity()
-                .multiply(investment.getAsset().getPrice())
-                .setScale(8, RoundingMode.HALF_UP);
-
-        return daysValue.add(sellPrice).subtract(purchasePrice);
+        long purchasePrice = getTransactionsValue(investment, InvestmentTransactionType.BUY);
+        long sellPrice = getTransactionsValue(investment, InvestmentTransactionType.SELL);
+        long daysValue = FixedPoint.multiply(FixedPoint.of(investment.getQuantity()), FixedPoint.of(investment.getAsset().getPrice()));
+
+        return FixedPoint.toBigDecimal(FixedPoint.subtract(FixedPoint.add(daysValue, sellPrice), purchasePrice));
     }
 
     public BigDecimal calculateTotalChange(Collection<Investment> investments) {
-        return investments.stream().map(investment -> {
-            BigDecimal purchasePrice = investment.getTransactions().stream().filter(tx -> tx.getType().equals(InvestmentTransactionType.BUY))
-                    .map(tx -> tx.getQuantity()
-                            .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                            .setScale(8, RoundingMode.HALF_UP))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal sellPrice = investment.getTransactions().stream().filter(tx -> tx.getType().equals(InvestmentTransactionType.SELL))
-                    .map(tx -> tx.getQuantity()
-                            .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                            .setScale(8, RoundingMode.HALF_UP))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal currentValue = investment.getQuantityAt(LocalDate.now())
-                    .multiply(investment.getAsset().getPrice()).setScale(8, RoundingMode.HALF_UP);
-
-            return currentValue.add(sellPrice).subtract(purchasePrice);
-        }).reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate now = LocalDate.now();
+
+        long totalChange = 0;
+        for (Investment investment : investments) {
+            long purchasePrice = getTransactionsValue(investment, InvestmentTransactionType.BUY);
+            long sellPrice = getTransactionsValue(investment, InvestmentTransactionType.SELL);
+            long currentValue = getCurrentValue(investment, now);
+
+            totalChange = FixedPoint.add(totalChange, FixedPoint.subtract(FixedPoint.add(currentValue, sellPrice), purchasePrice));
+        }
+
+        return FixedPoint.toBigDecimal(totalChange);
     }
 
     public BigDecimal calculateTrend(Collection<Investment> investments) {
         LocalDate now = LocalDate.now();
         LocalDate yesterday = now.minusDays(1);
 
-        BigDecimal currentValue = investments.stream().map(investment ->
-                investment.getQuantityAt(now).multiply(investment.getAsset().getPrice()).setScale(8, RoundingMode.HALF_UP)
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal yesterdaysValue = investments.stream().map(investment ->
-                investment.getQuantityAt(now).multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), yesterday)).setScale(8, RoundingMode.HALF_UP)
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
+        long currentValue = 0;
+        long yesterdaysValue = 0;
+        for (Investment investment : investments) {
+            long quantity = investment.getFixedQuantityAt(now);
+            currentValue = FixedPoint.add(currentValue, FixedPoint.multiply(quantity, FixedPoint.of(investment.getAsset().getPrice())));
+            yesterdaysValue = FixedPoint.add(yesterdaysValue, FixedPoint.multiply(quantity,
+                    FixedPoint.of(assetPriceIndexService.getLatestAssetPriceForDate(investment.getAsset(), yesterday))));
+        }
 
-        if (yesterdaysValue.compareTo(BigDecimal.ZERO) == 0) {
+        if (yesterdaysValue == 0) {
             return BigDecimal.ZERO;
         }
 
-        return currentValue.subtract(yesterdaysValue)
-                .divide(yesterdaysValue, 4, RoundingMode.HALF_UP)
+        return FixedPoint.toBigDecimal(FixedPoint.subtract(currentValue, yesterdaysValue))
+                .divide(FixedPoint.toBigDecimal(yesterdaysValue), 4, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(100L).setScale(2, RoundingMode.HALF_UP));
     }
 
     public BigDecimal calculateTotalPerformance(Collection<Investment> investments) {
-        BigDecimal totalPurchasePrice = investments.stream().map(investment ->
-            investment.getTransactions().stream().filter(tx ->
-                            tx.getType().equals(InvestmentTransactionType.BUY))
-                    .map(tx -> tx.getQuantity()
-                            .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                            .setScale(8, RoundingMode.HALF_UP))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalSellPrice = investments.stream().map(investment ->
-            investment.getTransactions().stream().filter(tx ->
-                            tx.getType().equals(InvestmentTransactionType.SELL))
-                    .map(tx -> tx.getQuantity()
-                            .multiply(assetService.getLatestAssetPriceForDate(investment.getAsset(), tx.getDate()))
-                            .setScale(8, RoundingMode.HALF_UP))
-                    .reduce(BigDecimal.ZERO, BigDecimal::add)
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalDaysValue = investments.stream().map(investment ->
-            investment.getQuantityAt(LocalDate.now())
-                    .multiply(investment.getAsset().getPrice())
-                    .setScale(8, RoundingMode.HALF_UP)
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        if (totalPurchasePrice.compareTo(BigDecimal.ZERO) == 0) {
+        LocalDate now = LocalDate.now();
+
+        long totalPurchasePrice = 0;
+        long totalSellPrice = 0;
+        long totalDaysValue = 0;
+        for (Investment investment : investments) {
+            totalPurchasePrice = FixedPoint.add(totalPurchasePrice, getTransactionsValue(investment, InvestmentTransactionType.BUY));
+            totalSellPrice = FixedPoint.add(totalSellPrice, getTransactionsValue(investment, InvestmentTransactionType.SELL));
+            totalDaysValue = FixedPoint.add(totalDaysValue, getCurrentValue(investment, now));
+        }
+
+        if (totalPurchasePrice == 0) {
             return BigDecimal.ZERO;
         }
 
-        return totalDaysValue.add(totalSellPrice).subtract(totalPurchasePrice)
-                .divide(totalPurchasePrice, 4, RoundingMode.HALF_UP)
+        return FixedPoint.toBigDecimal(FixedPoint.subtract(FixedPoint.add(totalDaysValue, totalSellPrice), totalPurchasePrice))
+                .divide(FixedPoint.toBigDecimal(totalPurchasePrice), 4, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(100L).setScale(2, RoundingMode.HALF_UP));
     }
 
@@ -142,11 +128,11 @@ public class StatisticsService {
         }
 
         Asset asset = assetService.getAsset("SPY", InvestmentType.STOCK);
-        BigDecimal initialValue = assetService.getLatestAssetPriceForDate(asset, from);
+        BigDecimal initialValue = assetPriceIndexService.getLatestAssetPriceForDate(asset, from);
         List<DateValueDTO> history = new ArrayList<>();
 
         for (; !from.isAfter(LocalDate.now()); from = from.plusDays(1)) {
-            BigDecimal daysValue = assetService.getLatestAssetPriceForDate(asset, from);
+            BigDecimal daysValue = assetPriceIndexService.getLatestAssetPriceForDate(asset, from);
 
             BigDecimal change = daysValue.subtract(initialValue)
                     .divide(initialValue, 4, RoundingMode.HALF_UP)
@@ -164,32 +150,31 @@ public class StatisticsService {
             return new ArrayList<>();
         }
 
-        BigDecimal portfolioValue = history.getInvestments().stream().map(investment ->
-                investment.getQuantityAt(LocalDate.now()).multiply(investment.getAsset().getPrice())
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate now = LocalDate.now();
+        Map<InvestmentType, Long> valuesByType = new EnumMap<>(InvestmentType.class);
+        long portfolioValue = 0;
+        for (Investment investment : portfolioHoldingsService.getInvestments(history)) {
+            long value = getCurrentValue(investment, now);
+            valuesByType.merge(investment.getType(), value, FixedPoint::add);
+            portfolioValue = FixedPoint.add(portfolioValue, value);
+        }
 
-        if (portfolioValue.compareTo(BigDecimal.ZERO) == 0) {
+        if (portfolioValue == 0) {
             return new ArrayList<>();
         }
 
-        Map<InvestmentType, List<Investment>> investmentsByType = history.getInvestments().stream().collect(
-                Collectors.groupingBy(Investment::getType));
-
-        List<PortfolioDistributionDTO> distribution = investmentsByType.entrySet().stream().map(typeInvestments -> {
-            BigDecimal value = typeInvestments.getValue().stream().map(investment ->
-                    investment.getQuantityAt(LocalDate.now()).multiply(investment.getAsset().getPrice())
-            ).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalValue = FixedPoint.toBigDecimal(portfolioValue);
+        return valuesByType.entrySet().stream().map(typeValue -> {
+            BigDecimal value = FixedPoint.toBigDecimal(typeValue.getValue());
 
             return PortfolioDistributionDTO.builder()
-                    .label(typeInvestments.getKey().toString())
+                    .label(typeValue.getKey().toString())
                     .value(value)
                     .percentage(value
-                            .divide(portfolioValue, 4, RoundingMode.HALF_UP)
+                            .divide(totalValue, 4, RoundingMode.HALF_UP)
                             .multiply(BigDecimal.valueOf(100)).setScale(2, RoundingMode.HALF_UP))
                     .build();
         }).toList();
-
-        return distribution;
     }
 
     public List<PortfolioDistributionDTO> getUserPortfolioDistributionByType(User user, InvestmentType type) {
@@ -198,23 +183,48 @@ public class StatisticsService {
             return new ArrayList<>();
         }
 
-        Collection<Investment> investments = history.getInvestments().stream().filter(investment -> investment.getType().equals(type)).toList();
+        LocalDate now = LocalDate.now();
+        Collection<Investment> investments = portfolioHoldingsService.getInvestments(history).stream().filter(investment -> investment.getType().equals(type)).toList();
+
+        long[] values = new long[investments.size()];
+        long totalValue = 0;
+        int position = 0;
+        for (Investment investment : investments) {
+            values[position] = getCurrentValue(investment, now);
+            totalValue = FixedPoint.add(totalValue, values[position++]);
+        }
 
-        BigDecimal totalValue = investments.stream().map(investment ->
-                investment.getQuantityAt(LocalDate.now()).multiply(investment.getAsset().getPrice())
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = FixedPoint.toBigDecimal(totalValue);
+        List<PortfolioDistributionDTO> distribution = new ArrayList<>();
+        position = 0;
+        for (Investment investment : investments) {
+            BigDecimal value = FixedPoint.toBigDecimal(values[position++]);
 
-        List<PortfolioDistributionDTO> distribution = investments.stream().map(investment ->
-                PortfolioDistributionDTO.builder()
-                        .label(investment.getSymbol())
-                        .value(investment.getQuantityAt(LocalDate.now()).multiply(investment.getAsset().getPrice()))
-                        .percentage(investment.getQuantityAt(LocalDate.now()).multiply(investment.getAsset().getPrice())
-                                .divide(totalValue, 4, RoundingMode.HALF_UP)
-                                .multiply(BigDecimal.valueOf(100)).setScale(2, RoundingMode.HALF_UP))
-                        .build()
-        ).toList();
+            distribution.add(PortfolioDistributionDTO.builder()
+                    .label(investment.getSymbol())
+                    .value(value)
+                    .percentage(value
+                            .divide(total, 4, RoundingMode.HALF_UP)
+                            .multiply(BigDecimal.valueOf(100)).setScale(2, RoundingMode.HALF_UP))
+                    .build());
+        }
 
         return distribution;
     }
 
+    private long getCurrentValue(Investment investment, LocalDate date) {
+        return FixedPoint.multiply(investment.getFixedQuantityAt(date), FixedPoint.of(investment.getAsset().getPrice()));
+    }
+
+    private long getTransactionsValue(Investment investment, InvestmentTransactionType type) {
+        long value = 0;
+        for (InvestmentTransaction transaction : investment.getTransactions()) {
+            if (transaction.getType().equals(type)) {
+                BigDecimal price = assetPriceIndexService.getLatestAssetPriceForDate(investment.getAsset(), transaction.getDate());
+                value = FixedPoint.add(value, FixedPoint.multiply(FixedPoint.of(transaction.getQuantity()), FixedPoint.of(price)));
+            }
+        }
+
+        return value;
+    }
 }
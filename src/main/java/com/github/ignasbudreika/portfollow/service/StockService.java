@@ -8,6 +8,7 @@ import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValue;
 import com.github.ignasbudreika.portfollow.model.InvestmentTransaction;
 import com.github.ignasbudreika.portfollow.model.User;
 import lombok.AllArgsConstructor;
@@ -21,6 +22,7 @@ import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -28,20 +30,25 @@ import java.util.Comparator;
 public class StockService {
     private StatisticsService statisticsService;
     private InvestmentService investmentService;
+    private InvestmentDailyValueService investmentDailyValueService;
 
     public Collection<StockInvestmentDTO> getUserStockInvestments(String userId) {
         Collection<Investment> stockInvestments = investmentService.getInvestmentsByUserIdAndType(userId, InvestmentType.STOCK);
         LocalDate date = LocalDate.now();
+        Map<String, InvestmentDailyValue> values = investmentDailyValueService.getValuesAt(stockInvestments, date);
 
-        return stockInvestments.stream().map(investment ->
-            StockInvestmentDTO.builder()
+        return stockInvestments.stream().map(investment -> {
+            InvestmentDailyValue value = values.get(investment.getId());
+            BigDecimal quantity = value != null ? value.getQuantity() : investment.getQuantityAt(date);
+
+            return StockInvestmentDTO.builder()
                     .id(investment.getId())
                     .ticker(investment.getSymbol())
-                    .quantity(investment.getQuantityAt(date).setScale(2, RoundingMode.HALF_UP))
+                    .quantity(quantity.setScale(2, RoundingMode.HALF_UP))
                     .price(investment.getAsset().getPrice().setScale(2, RoundingMode.HALF_UP))
-                    .value(investment.getQuantityAt(date).multiply(investment.getAsset().getPrice()).setScale(2, RoundingMode.HALF_UP))
+                    .value(quantity.multiply(investment.getAsset().getPrice()).setScale(2, RoundingMode.HALF_UP))
                     .dayTrend(statisticsService.getAssetDayTrend(investment.getAsset()))
-                    .totalChange(statisticsService.getInvestmentTotalChange(investment))
+                    .totalChange(value != null ? value.getProfitLoss() : statisticsService.getInvestmentTotalChange(investment))
                     .updateType(investment.getUpdateType().toString())
                     .transactions(investment.getTransactions().stream()
                             .sorted(Comparator.comparing(InvestmentTransaction::getDate))
@@ -50,18 +57,26 @@ public class StockService {
                                     .quantity(transaction.getQuantity())
                                     .type(transaction.getType())
                                     .date(transaction.getDate()).build())
-                            .toArray(TransactionDTO[]::new)).build()
-        ).toList();
+                            .toArray(TransactionDTO[]::new)).build();
+        }).toList();
     }
 
     public InvestmentStatsDTO getUserStockInvestmentsStats(String userId) {
         Collection<Investment> stockInvestments = investmentService.getInvestmentsByUserIdAndType(userId, InvestmentType.STOCK);
 
-        BigDecimal totalValue = stockInvestments.stream().map(investment ->
-                investment.getQuantityAt(LocalDate.now()).multiply(investment.getAsset().getPrice())
-        ).reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDate date = LocalDate.now();
+        Map<String, InvestmentDailyValue> values = investmentDailyValueService.getValuesAt(stockInvestments, date);
+
+        BigDecimal totalValue = stockInvestments.stream().map(investment -> {
+            InvestmentDailyValue value = values.get(investment.getId());
+
+            return (value != null ? value.getQuantity() : investment.getQuantityAt(date)).multiply(investment.getAsset().getPrice());
+        }).reduce(BigDecimal.ZERO, BigDecimal::add);
         BigDecimal trend = statisticsService.calculateTrend(stockInvestments);
-        BigDecimal totalChange = statisticsService.calculateTotalChange(stockInvestments);
+        BigDecimal totalChange = values.values().stream().map(InvestmentDailyValue::getProfitLoss)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .add(statisticsService.calculateTotalChange(stockInvestments.stream()
+                        .filter(investment -> !values.containsKey(investment.getId())).toList()));
 
         return InvestmentStatsDTO.builder()
                 .totalValue(totalValue)
@@ -0,0 +1,74 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.event.AssetPricesChangedEvent;
+import com.github.ignasbudreika.portfollow.event.PortfolioChangedEvent;
+import com.github.ignasbudreika.portfollow.event.PortfolioSettingsChangedEvent;
+import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
+import com.github.ignasbudreika.portfollow.repository.UserRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tracks when the data behind each user's portfolio last changed, so that responses computed from
+ * it can be validated with ETag and Last-Modified headers, and cached, without being computed.
+ * The version is stored on the user and moves forward in the transaction that changes the user's
+ * investments, transactions, connections or portfolio settings, or the price of an asset they
+ * hold, so every node sees it once the change commits. It also moves at midnight, since
+ * responses depend on the current date.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserDataVersionService {
+    private final InvestmentRepository investmentRepository;
+    private final UserRepository userRepository;
+
+    public Version getVersion(String userId) {
+        long startOfDay = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long lastModified = Math.max(userRepository.getDataVersion(userId), startOfDay);
+
+        return new Version(lastModified, DigestUtils.md5DigestAsHex((userId + ':' + lastModified).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public void change(Collection<String> userIds) {
+        userRepository.updateDataVersion(userIds, System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        change(List.of(event.getUserId()));
+    }
+
+    @EventListener
+    public void onPortfolioSettingsChanged(PortfolioSettingsChangedEvent event) {
+        change(List.of(event.getUserId()));
+    }
+
+    @EventListener
+    public void onAssetPricesChanged(AssetPricesChangedEvent event) {
+        if (event.getAssetIds().isEmpty()) {
+            return;
+        }
+
+        change(investmentRepository.findAllUserIdsByAssetIdIn(event.getAssetIds()));
+    }
+
+    @Getter
+    public static final class Version {
+        private final long lastModified;
+        private final String eTag;
+
+        Version(long lastModified, String eTag) {
+            this.lastModified = lastModified;
+            this.eTag = eTag;
+        }
+    }
+}
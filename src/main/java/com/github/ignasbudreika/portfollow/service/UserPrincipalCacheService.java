@@ -0,0 +1,109 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.event.PortfolioSettingsChangedEvent;
+import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.model.UserPrincipal;
+import com.github.ignasbudreika.portfollow.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the users authenticated recently by their Google id for a short time, so resolving the
+ * caller of a request does not query the database. A user's entry is dropped when their settings
+ * change; changes made elsewhere are picked up once the entry expires. Unknown ids are not kept,
+ * so a user signing up is recognised on their next request.
+ */
+@Service
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=UserPrincipalCache")
+public class UserPrincipalCacheService {
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final int maxUsers;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UserPrincipalCacheService(UserRepository userRepository,
+                                     @Value("${user.principal.cache.ttl:PT1M}") Duration ttl,
+                                     @Value("${user.principal.cache.max.users:10000}") int maxUsers) {
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * Returns the user with the given Google id, or null when there is none.
+     */
+    public UserPrincipal getByGoogleId(String googleId) {
+        long now = System.nanoTime();
+
+        Entry entry = entries.get(googleId);
+        if (entry != null && entry.expiresAt - now > 0) {
+            hits.incrementAndGet();
+            return entry.principal;
+        }
+
+        misses.incrementAndGet();
+        User user = userRepository.getByGoogleId(googleId);
+        if (user == null) {
+            entries.remove(googleId);
+            return null;
+        }
+
+        UserPrincipal principal = UserPrincipal.of(user);
+        if (entries.size() >= maxUsers && !entries.containsKey(googleId)) {
+            Iterator<String> googleIds = entries.keySet().iterator();
+            if (googleIds.hasNext()) {
+                entries.remove(googleIds.next());
+            }
+        }
+        entries.put(googleId, new Entry(principal, now + ttl.toNanos()));
+
+        return principal;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioSettingsChanged(PortfolioSettingsChangedEvent event) {
+        entries.values().removeIf(entry -> entry.principal.getId().equals(event.getUserId()));
+    }
+
+    @ManagedOperation(description = "Removes all users")
+    public void clear() {
+        entries.clear();
+    }
+
+    @ManagedAttribute(description = "Number of users kept")
+    public int getSize() {
+        return entries.size();
+    }
+
+    @ManagedAttribute(description = "Number of users resolved without a query")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of users loaded from the database")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static final class Entry {
+        private final UserPrincipal principal;
+        private final long expiresAt;
+
+        private Entry(UserPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
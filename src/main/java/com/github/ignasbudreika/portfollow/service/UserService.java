@@ -1,17 +1,21 @@
 package com.github.ignasbudreika.portfollow.service;
 
+import com.github.ignasbudreika.portfollow.component.KeysetIterable;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.repository.UserRepository;
 import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @Slf4j
 @AllArgsConstructor
 public class UserService {
     private UserRepository repo;
+    private EntityManager entityManager;
 
     public boolean existsByGoogleId(String googleId) {
         return repo.existsByGoogleId(googleId);
@@ -23,6 +27,18 @@ public class UserService {
 
     public Iterable<User> getAll() { return repo.findAll(); }
 
+    /**
+     * Iterates all users in pages of ids. Within a transaction a consumed page is detached
+     * before the next one is loaded, so the persistence context holds one page at most.
+     */
+    public Iterable<User> getAllPaged() {
+        return new KeysetIterable<>(repo::findAllByIdGreaterThanOrderByIdAsc, User::getId, page -> {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                page.forEach(entityManager::detach);
+            }
+        });
+    }
+
     public User createUser(User user) {
         if (repo.existsByEmail(user.getEmail()) || repo.existsByGoogleId(user.getGoogleId())) {
             throw new EntityExistsException(String.format("user with email: %s or googleId: %s already exists", user.getEmail(), user.getGoogleId()));
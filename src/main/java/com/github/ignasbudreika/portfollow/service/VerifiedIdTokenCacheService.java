@@ -0,0 +1,114 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers ID tokens that passed verification until they expire, so a client sending the same
+ * token on every request pays for the signature check once. Tokens are kept by their SHA-256 hash
+ * and are never served after their {@code exp} claim, even though the verifier allows some skew.
+ */
+@Slf4j
+@Service
+@ManagedResource(objectName = "com.github.ignasbudreika.portfollow:type=VerifiedIdTokenCache")
+public class VerifiedIdTokenCacheService {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final GoogleIdTokenVerifier verifier;
+    private final int maxTokens;
+    private final Map<String, GoogleIdToken> tokens = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public VerifiedIdTokenCacheService(GoogleIdTokenVerifier verifier,
+                                       @Value("${id.token.cache.max.tokens:10000}") int maxTokens) {
+        this.verifier = verifier;
+        this.maxTokens = maxTokens;
+    }
+
+    /**
+     * Returns the verified token, or null when the token is invalid.
+     */
+    public GoogleIdToken verify(String idToken) throws GeneralSecurityException, IOException {
+        String hash = hash(idToken);
+        long now = System.currentTimeMillis();
+
+        GoogleIdToken cached = tokens.get(hash);
+        if (cached != null) {
+            if (!isExpired(cached, now)) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            tokens.remove(hash, cached);
+        }
+
+        misses.incrementAndGet();
+        GoogleIdToken verified = verifier.verify(idToken);
+        if (verified != null && !isExpired(verified, now)) {
+            makeRoom(now);
+            tokens.put(hash, verified);
+        }
+
+        return verified;
+    }
+
+    @ManagedOperation(description = "Removes all verified tokens")
+    public void clear() {
+        tokens.clear();
+    }
+
+    @ManagedAttribute(description = "Number of verified tokens")
+    public int getSize() {
+        return tokens.size();
+    }
+
+    @ManagedAttribute(description = "Number of tokens served without verification")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of tokens verified")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private void makeRoom(long now) {
+        if (tokens.size() < maxTokens) {
+            return;
+        }
+
+        tokens.values().removeIf(token -> isExpired(token, now));
+        if (tokens.size() >= maxTokens) {
+            Iterator<String> hashes = tokens.keySet().iterator();
+            if (hashes.hasNext()) {
+                tokens.remove(hashes.next());
+            }
+        }
+    }
+
+    private boolean isExpired(GoogleIdToken token, long now) {
+        Long expirationTimeSeconds = token.getPayload().getExpirationTimeSeconds();
+        return expirationTimeSeconds == null || expirationTimeSeconds * 1000 <= now;
+    }
+
+    private String hash(String idToken) throws GeneralSecurityException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance(DIGEST_ALGORITHM)
+                .digest(idToken.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
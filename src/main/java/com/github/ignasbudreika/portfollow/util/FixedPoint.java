@@ -0,0 +1,82 @@
+package com.github.ignasbudreika.portfollow.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Arithmetic on amounts held as longs with eight decimal places, the scale quantities and prices
+ * are stored with. Valuations add up a quantity and price product for every investment and day,
+ * so they work on these longs and only convert from and to {@link BigDecimal} where values enter
+ * and leave the calculation. Products are rounded half up, as {@code setScale(8, HALF_UP)} does,
+ * and every operation throws {@link ArithmeticException} on overflow instead of wrapping around.
+ */
+public final class FixedPoint {
+    public static final int SCALE = 8;
+    public static final long ONE = 100_000_000L;
+
+    private static final long HALF = ONE / 2;
+    private static final long WORD_MASK = 0xFFFFFFFFL;
+
+    private FixedPoint() {
+    }
+
+    public static long of(BigDecimal value) {
+        if (value.scale() > SCALE) {
+            value = value.setScale(SCALE, RoundingMode.HALF_UP);
+        }
+
+        return value.scaleByPowerOfTen(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+
+    public static long add(long first, long second) {
+        return Math.addExact(first, second);
+    }
+
+    public static long subtract(long first, long second) {
+        return Math.subtractExact(first, second);
+    }
+
+    public static long multiply(long first, long second) {
+        long high = Math.multiplyHigh(first, second);
+        long low = first * second;
+        if (high == (low >> 63)) {
+            long quotient = low / ONE;
+            long remainder = low % ONE;
+
+            return Math.abs(remainder) >= HALF ? quotient + Long.signum(low) : quotient;
+        }
+
+        long firstMagnitude = Math.absExact(first);
+        long secondMagnitude = Math.absExact(second);
+        long product = divide(Math.multiplyHigh(firstMagnitude, secondMagnitude), firstMagnitude * secondMagnitude);
+
+        return (first < 0) != (second < 0) ? -product : product;
+    }
+
+    /**
+     * Divides the unsigned 128 bit product given as its high and low words by {@link #ONE} a 32 bit
+     * word at a time, rounding half up. The remainder stays below 2^27, so no step overflows.
+     */
+    private static long divide(long high, long low) {
+        long dividend = high >>> 32;
+        long first = dividend / ONE;
+        dividend = (dividend % ONE) << 32 | (high & WORD_MASK);
+        long second = dividend / ONE;
+        dividend = (dividend % ONE) << 32 | (low >>> 32);
+        long third = dividend / ONE;
+        dividend = (dividend % ONE) << 32 | (low & WORD_MASK);
+        long fourth = dividend / ONE;
+        long remainder = dividend % ONE;
+
+        if (first != 0 || second != 0 || third > Integer.MAX_VALUE) {
+            throw new ArithmeticException("fixed point overflow");
+        }
+
+        long result = third << 32 | fourth;
+        return remainder >= HALF ? Math.addExact(result, 1) : result;
+    }
+}
@@ -0,0 +1,23 @@
+-- Portfolio history days keep the ids of their holdings in investment_ids instead of the
+-- portfolio_history_investment join table. Days written before that get their ids copied from
+-- the join table, days without join rows held nothing. The table is dropped afterwards, as its
+-- foreign keys would block deleting investments and portfolio history days. This runs first, so
+-- the duplicate days removed by the next migration are no longer referenced.
+
+do $$
+begin
+    if to_regclass('portfolio_history_investment') is not null then
+        update portfolio_history history
+        set investment_ids = holdings.investment_ids
+        from (
+            select portfolio_history_id, string_agg(investment_id, ',' order by investment_id) as investment_ids
+            from portfolio_history_investment
+            group by portfolio_history_id
+        ) holdings
+        where history.id = holdings.portfolio_history_id and history.investment_ids is null;
+
+        update portfolio_history set investment_ids = '' where investment_ids is null;
+
+        drop table portfolio_history_investment;
+    end if;
+end $$;
@@ -0,0 +1,24 @@
+-- One portfolio value per day, which the ON CONFLICT (user_id, date) upserts of
+-- PortfolioHistoryRepositoryCustomImpl rely on. Hibernate only tried to add this key and silently
+-- gave up where duplicate days already existed, so duplicates are removed first and the generated
+-- constraint is replaced by a named index that also covers the finders' columns.
+
+delete from portfolio_history duplicate
+using portfolio_history kept
+where duplicate.user_id = kept.user_id and duplicate.date = kept.date and duplicate.id < kept.id;
+
+do $$
+declare
+    existing record;
+begin
+    for existing in
+        select c.conname
+        from pg_constraint c
+        where c.conrelid = 'portfolio_history'::regclass and c.contype = 'u'
+    loop
+        execute format('alter table portfolio_history drop constraint %I', existing.conname);
+    end loop;
+end $$;
+
+-- portfolio value of a day, and the value series of a user
+create unique index if not exists portfolio_history_user_id_date_key on portfolio_history (user_id, date) include (value);
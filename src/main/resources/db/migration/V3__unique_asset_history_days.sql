@@ -0,0 +1,24 @@
+-- One asset price per day, which the ON CONFLICT (asset_id, date) upserts of
+-- AssetHistoryRepositoryCustomImpl rely on. Hibernate only tried to add this key and silently gave
+-- up where duplicate days already existed, so duplicates are removed first and the generated
+-- constraint is replaced by a named index that also covers the finders' columns.
+
+delete from asset_history duplicate
+using asset_history kept
+where duplicate.asset_id = kept.asset_id and duplicate.date = kept.date and duplicate.id < kept.id;
+
+do $$
+declare
+    existing record;
+begin
+    for existing in
+        select c.conname
+        from pg_constraint c
+        where c.conrelid = 'asset_history'::regclass and c.contype = 'u'
+    loop
+        execute format('alter table asset_history drop constraint %I', existing.conname);
+    end loop;
+end $$;
+
+-- latest price on or before a date, and the price series of an asset
+create unique index if not exists asset_history_asset_id_date_key on asset_history (asset_id, date) include (price);
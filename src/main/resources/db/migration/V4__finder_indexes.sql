@@ -0,0 +1,27 @@
+-- Access paths of the repository finders that are not served by a primary or unique key.
+
+-- findAllByUserIdAndType, findAllByUserId, existsByUserId and the other per user finders
+create index if not exists investment_user_id_type_idx on investment (user_id, type);
+-- findBySymbolAndConnectionId, findAllByConnectionId
+create index if not exists investment_connection_id_symbol_idx on investment (connection_id, symbol);
+-- findAllByAssetId, findAllUserIdsByAssetIdIn
+create index if not exists investment_asset_id_idx on investment (asset_id) include (user_id);
+
+-- findAllByInvestmentIdOrderByDateAsc
+create index if not exists investment_transaction_investment_id_date_idx on investment_transaction (investment_id, date);
+
+-- findAllByPortfolioId
+create index if not exists comment_portfolio_id_idx on comment (portfolio_id);
+-- findAllByPublished(true) of the public feed
+create index if not exists portfolio_published_idx on portfolio (published) where published;
+
+-- existsByGoogleId
+create index if not exists users_google_id_idx on users (google_id);
+
+-- findByUserIdAndStatus and the keyset pages of findAllByStatusAndIdGreaterThanOrderByIdAsc
+create index if not exists alpaca_connection_user_id_status_idx on alpaca_connection (user_id, status);
+create index if not exists alpaca_connection_status_id_idx on alpaca_connection (status, id);
+create index if not exists spectrocoin_connection_user_id_status_idx on spectrocoin_connection (user_id, status);
+create index if not exists spectrocoin_connection_status_id_idx on spectrocoin_connection (status, id);
+create index if not exists ethereum_wallet_connection_user_id_status_idx on ethereum_wallet_connection (user_id, status);
+create index if not exists ethereum_wallet_connection_status_id_idx on ethereum_wallet_connection (status, id);
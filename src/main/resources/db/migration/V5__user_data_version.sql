@@ -0,0 +1,4 @@
+-- When the data behind a user's portfolio last changed, in epoch milliseconds. It is moved in the
+-- transaction that changes the data, so every node derives the same ETag and Last-Modified from it.
+-- The column is written with JDBC only and is not mapped, so changes do not evict cached users.
+alter table users add column if not exists data_version bigint not null default 0;
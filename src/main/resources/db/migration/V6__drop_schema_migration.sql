@@ -0,0 +1,3 @@
+-- Versions applied before Flyway took over were recorded here. The scripts are idempotent, so
+-- Flyway reapplies them from its baseline and the table is no longer read.
+drop table if exists schema_migration;
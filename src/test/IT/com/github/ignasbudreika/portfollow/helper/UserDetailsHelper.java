@@ -2,13 +2,13 @@ package com.github.ignasbudreika.portfollow.helper;
 
 import com.github.ignasbudreika.portfollow.model.Portfolio;
 import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.model.UserPrincipal;
 import com.github.ignasbudreika.portfollow.repository.PortfolioRepository;
 import com.github.ignasbudreika.portfollow.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 
@@ -23,16 +23,14 @@ public class UserDetailsHelper {
     private PortfolioRepository portfolioRepository;
 
     public void setUpUser(String userId, String userEmail, String username, String title, String description, boolean isPublic, boolean isHiddenValue) {
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(USER_GOOGLE_ID,
-                "", List.of(new SimpleGrantedAuthority("USER")));
+        User user = userRepository.save(User.builder().id(userId).email(userEmail).username(username).googleId(USER_GOOGLE_ID).build());
 
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                userDetails, null, userDetails.getAuthorities());
+                UserPrincipal.of(user), null, List.of(new SimpleGrantedAuthority("USER")));
         usernamePasswordAuthenticationToken
                 .setDetails(new WebAuthenticationDetailsSource());
         SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
 
-        User user = userRepository.save(User.builder().id(userId).email(userEmail).username(username).googleId(USER_GOOGLE_ID).build());
         portfolioRepository.save(Portfolio.builder()
                 .user(user)
                 .title(title)
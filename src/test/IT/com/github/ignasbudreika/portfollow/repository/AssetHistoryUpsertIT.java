@@ -0,0 +1,84 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.model.Asset;
+import com.github.ignasbudreika.portfollow.model.AssetHistory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Testcontainers
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = {AssetHistoryUpsertIT.Initializer.class})
+class AssetHistoryUpsertIT {
+    private static final LocalDate FROM = LocalDate.of(2000, 1, 1);
+    private static final int DAYS = 5000;
+
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres")
+            .withDatabaseName("postgres")
+            .withUsername("integrationUser")
+            .withPassword("testPass");
+
+    static class Initializer
+            implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                    "spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword()
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    @Test
+    void shouldInsertMissingDaysAndUpdateExistingOnes() {
+        Asset asset = assetRepository.save(Asset.builder()
+                .symbol("UPSERT")
+                .price(BigDecimal.TEN)
+                .type(InvestmentType.STOCK).build());
+
+
+        assetHistoryRepository.upsertAll(history(asset, 0, DAYS, BigDecimal.ONE));
+        assetHistoryRepository.upsertAll(history(asset, DAYS / 2, DAYS, BigDecimal.TEN));
+
+
+        List<AssetHistory> result = assetHistoryRepository.findAllByAssetIdOrderByDateAsc(asset.getId());
+        Assertions.assertEquals(DAYS + DAYS / 2, result.size());
+        Assertions.assertEquals(0, BigDecimal.ONE.compareTo(result.get(DAYS / 2 - 1).getPrice()));
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(result.get(DAYS / 2).getPrice()));
+        Assertions.assertEquals(0, BigDecimal.TEN.compareTo(result.get(result.size() - 1).getPrice()));
+    }
+
+    private List<AssetHistory> history(Asset asset, int fromDay, int days, BigDecimal price) {
+        return IntStream.range(fromDay, fromDay + days)
+                .mapToObj(day -> AssetHistory.builder()
+                        .asset(asset)
+                        .date(FROM.plusDays(day))
+                        .price(price).build())
+                .toList();
+    }
+}
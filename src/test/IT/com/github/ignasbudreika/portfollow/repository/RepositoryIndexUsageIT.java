@@ -0,0 +1,195 @@
+package com.github.ignasbudreika.portfollow.repository;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Seeds enough rows for the planner to prefer indexes, calls the hot repository finders and
+ * explains the SQL Hibernate sent for them. Fails when a finder's table is read with a
+ * sequential scan, e.g. because a migration stopped creating the index it relies on.
+ * The statements are explained as generic plans, which needs PostgreSQL 16 or later.
+ */
+@Testcontainers
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = {RepositoryIndexUsageIT.Initializer.class})
+class RepositoryIndexUsageIT {
+    private static final LocalDate DATE = LocalDate.of(2023, 6, 1);
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private AssetHistoryRepository assetHistoryRepository;
+    @Autowired
+    private PortfolioHistoryRepository portfolioHistoryRepository;
+    @Autowired
+    private InvestmentRepository investmentRepository;
+    @Autowired
+    private InvestmentTransactionRepository transactionRepository;
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16")
+            .withDatabaseName("postgres")
+            .withUsername("integrationUser")
+            .withPassword("testPass");
+
+    static class Initializer
+            implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                    "spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword(),
+                    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + StatementRecorder.class.getName()
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    public static class StatementRecorder implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        if (!seeded) {
+            jdbcTemplate.execute("insert into users (id, email, username, google_id) " +
+                    "select 'u' || n, 'u' || n || '@e.mail', 'user ' || n, 'g' || n from generate_series(1, 2000) n");
+            jdbcTemplate.execute("insert into asset (id, symbol, price, type, updated_at) " +
+                    "select 'a' || n, 'S' || n, 10, n % 3, now() from generate_series(1, 200) n");
+            jdbcTemplate.execute("insert into asset_history (id, asset_id, date, price) " +
+                    "select md5(a || '-' || d), 'a' || a, date '2020-01-01' + d, 10 + d % 7 from generate_series(1, 200) a, generate_series(0, 1499) d");
+            jdbcTemplate.execute("insert into portfolio_history (id, user_id, date, value, investment_ids) " +
+                    "select md5(u || '-' || d), 'u' || u, date '2023-01-01' + d, 100, '' from generate_series(1, 1000) u, generate_series(0, 364) d");
+            jdbcTemplate.execute("insert into investment (id, symbol, quantity, amount, type, user_id, connection_id, asset_id, date, update_type) " +
+                    "select 'i' || n, 'S' || (n % 200 + 1), 1, 10, n % 3, 'u' || (n % 2000 + 1), 'c' || (n % 500), 'a' || (n % 200 + 1), date '2023-01-01', 0 " +
+                    "from generate_series(1, 20000) n");
+            jdbcTemplate.execute("insert into investment_transaction (id, type, quantity, investment_id, date) " +
+                    "select 't' || n, 0, 1, 'i' || (n % 20000 + 1), date '2023-01-01' + n % 300 from generate_series(1, 60000) n");
+            jdbcTemplate.execute("analyze");
+            seeded = true;
+        }
+
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void shouldFindLatestAssetPriceWithIndex() {
+        assetHistoryRepository.findFirstByAssetIdAndDateLessThanEqualOrderByDateDesc("a7", DATE);
+
+
+        assertNoSequentialScan("asset_history");
+    }
+
+    @Test
+    void shouldFindAssetPriceSeriesWithIndex() {
+        assetHistoryRepository.findAllByAssetIdAndDateAfter("a7", DATE);
+
+
+        assertNoSequentialScan("asset_history");
+    }
+
+    @Test
+    void shouldFindPortfolioDayWithIndex() {
+        portfolioHistoryRepository.findFirstByUserIdAndDate("u7", DATE);
+
+
+        assertNoSequentialScan("portfolio_history");
+    }
+
+    @Test
+    void shouldFindPortfolioSeriesWithIndex() {
+        portfolioHistoryRepository.findAllByUserIdAndDateAfterOrderByDateAsc("u7", DATE);
+
+
+        assertNoSequentialScan("portfolio_history");
+    }
+
+    @Test
+    void shouldFindLatestPortfolioDayWithIndex() {
+        portfolioHistoryRepository.findFirstByUserIdOrderByDateDesc("u7");
+
+
+        assertNoSequentialScan("portfolio_history");
+    }
+
+    @Test
+    void shouldFindInvestmentsByUserAndTypeWithIndex() {
+        investmentRepository.findAllByUserIdAndType("u7", InvestmentType.STOCK);
+
+
+        assertNoSequentialScan("investment");
+    }
+
+    @Test
+    void shouldFindInvestmentBySymbolAndConnectionWithIndex() {
+        investmentRepository.findBySymbolAndConnectionId("S8", "c7");
+
+
+        assertNoSequentialScan("investment");
+    }
+
+    @Test
+    void shouldFindInvestmentsByAssetWithIndex() {
+        investmentRepository.findAllUserIdsByAssetIdIn(List.of("a7", "a8"));
+
+
+        assertNoSequentialScan("investment");
+    }
+
+    @Test
+    void shouldFindTransactionsByInvestmentWithIndex() {
+        transactionRepository.findAllByInvestmentIdOrderByDateAsc("i7");
+
+
+        assertNoSequentialScan("investment_transaction");
+    }
+
+    /**
+     * Explains the finder's own statement, the first one recorded; the rest load associations by id.
+     */
+    private void assertNoSequentialScan(String table) {
+        Assertions.assertFalse(STATEMENTS.isEmpty());
+        String sql = STATEMENTS.get(0);
+
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        List<String> plan = jdbcTemplate.queryForList("explain (generic_plan) " + numbered, String.class);
+        Assertions.assertTrue(plan.stream().noneMatch(line -> line.contains("Seq Scan on " + table + " ")),
+                () -> String.format("sequential scan on %s for: %s%n%s", table, sql, String.join("\n", plan)));
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.model.*;
+import com.github.ignasbudreika.portfollow.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Counts the statements the dashboard read paths prepare for a user with few and a user with many
+ * holdings. Each path runs in one persistence context, as a request does, after a first call has
+ * materialized daily values and loaded price indexes.
+ */
+@Testcontainers
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = {DashboardQueryCountIT.Initializer.class})
+class DashboardQueryCountIT {
+    private static final LocalDate INVESTMENT_DATE = LocalDate.now().minusDays(10);
+
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private PortfolioHistoryService portfolioHistoryService;
+    @Autowired
+    private StatisticsService statisticsService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AssetRepository assetRepository;
+    @Autowired
+    private InvestmentRepository investmentRepository;
+    @Autowired
+    private InvestmentTransactionRepository transactionRepository;
+    @Autowired
+    private PortfolioHistoryRepository portfolioHistoryRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres")
+            .withDatabaseName("postgres")
+            .withUsername("integrationUser")
+            .withPassword("testPass");
+
+    static class Initializer
+            implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                    "spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword(),
+                    "spring.jpa.properties.hibernate.generate_statistics=true"
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    @Test
+    void shouldRunSameNumberOfQueries_regardlessOfHoldingCount() {
+        User fewHoldings = createUser("few", 2);
+        User manyHoldings = createUser("many", 20);
+
+
+
+        long fewHoldingsQueries = countQueries(fewHoldings);
+        long manyHoldingsQueries = countQueries(manyHoldings);
+
+
+        Assertions.assertEquals(fewHoldingsQueries, manyHoldingsQueries);
+    }
+
+    private long countQueries(User user) {
+        Runnable dashboard = () -> transactionTemplate.executeWithoutResult(status -> {
+            portfolioHistoryService.getUserPortfolio(user);
+            statisticsService.getUserPortfolioDistribution(user);
+            stockService.getUserStockInvestments(user.getId());
+            stockService.getUserStockInvestmentsStats(user.getId());
+        });
+        dashboard.run();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        dashboard.run();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User createUser(String username, int holdings) {
+        User user = userRepository.save(User.builder()
+                .email(username + "@e.mail")
+                .username(username)
+                .googleId(username).build());
+
+        Set<String> investmentIds = new LinkedHashSet<>();
+        for (int i = 0; i < holdings; i++) {
+            Asset asset = assetRepository.save(Asset.builder()
+                    .symbol(username.toUpperCase() + i)
+                    .price(BigDecimal.TEN)
+                    .type(InvestmentType.STOCK).build());
+            Investment investment = investmentRepository.save(Investment.builder()
+                    .symbol(asset.getSymbol())
+                    .quantity(BigDecimal.ONE)
+                    .amount(BigDecimal.TEN)
+                    .type(InvestmentType.STOCK)
+                    .updateType(InvestmentUpdateType.MANUAL)
+                    .user(user)
+                    .asset(asset)
+                    .date(INVESTMENT_DATE).build());
+            transactionRepository.save(InvestmentTransaction.builder()
+                    .investment(investment)
+                    .type(InvestmentTransactionType.BUY)
+                    .quantity(BigDecimal.ONE)
+                    .date(INVESTMENT_DATE).build());
+            investmentIds.add(investment.getId());
+        }
+
+        portfolioHistoryRepository.save(PortfolioHistory.builder()
+                .user(user)
+                .date(LocalDate.now())
+                .value(BigDecimal.TEN.multiply(BigDecimal.valueOf(holdings)))
+                .investmentIds(investmentIds).build());
+
+        return user;
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.model.*;
+import com.github.ignasbudreika.portfollow.repository.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Set;
+
+@Testcontainers
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = {PortfolioHistoryBackfillIT.Initializer.class})
+class PortfolioHistoryBackfillIT {
+    private static final LocalDate INVESTMENT_DATE = LocalDate.of(2023, 1, 1);
+    private static final BigDecimal ASSET_PRICE = BigDecimal.TEN;
+    private static final LocalDate SECOND_INVESTMENT_DATE = INVESTMENT_DATE.plusDays(10);
+    private static final BigDecimal QUANTITY = BigDecimal.ONE;
+
+    @Autowired
+    private PortfolioHistoryService portfolioHistoryService;
+    @Autowired
+    private PortfolioHistoryRepository portfolioHistoryRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private AssetRepository assetRepository;
+    @Autowired
+    private InvestmentRepository investmentRepository;
+    @Autowired
+    private InvestmentTransactionRepository transactionRepository;
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres")
+            .withDatabaseName("postgres")
+            .withUsername("integrationUser")
+            .withPassword("testPass");
+
+    static class Initializer
+            implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        public void initialize(ConfigurableApplicationContext configurableApplicationContext) {
+            TestPropertyValues.of(
+                    "spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "spring.datasource.username=" + postgres.getUsername(),
+                    "spring.datasource.password=" + postgres.getPassword()
+            ).applyTo(configurableApplicationContext.getEnvironment());
+        }
+    }
+
+    @Test
+    void shouldWriteOneRowPerDaySinceInvestment() {
+        Asset asset = createAsset("BACKFILL");
+        Investment investment = createInvestment(asset, createUser("backfill"), INVESTMENT_DATE);
+        long days = INVESTMENT_DATE.until(LocalDate.now().plusDays(1), ChronoUnit.DAYS);
+
+
+        portfolioHistoryService.createOrUpdatePortfolioHistory(investment);
+
+
+        Collection<PortfolioHistory> result = portfolioHistoryRepository.findAllByUserIdAndDateGreaterThanEqual(investment.getUser().getId(), INVESTMENT_DATE);
+        Assertions.assertEquals(days, result.size());
+        result.forEach(history -> {
+            Assertions.assertEquals(0, QUANTITY.multiply(ASSET_PRICE).compareTo(history.getValue()));
+            Assertions.assertEquals(Set.of(investment.getId()), history.getInvestmentIds());
+        });
+    }
+
+    @Test
+    void shouldUpdateExistingRows_whenAnotherInvestmentIsBackfilled() {
+        Asset asset = createAsset("REBACKFILL");
+        User user = createUser("rebackfill");
+        Investment first = createInvestment(asset, user, INVESTMENT_DATE);
+        portfolioHistoryService.createOrUpdatePortfolioHistory(first);
+        Investment second = createInvestment(asset, user, SECOND_INVESTMENT_DATE);
+        long days = INVESTMENT_DATE.until(LocalDate.now().plusDays(1), ChronoUnit.DAYS);
+
+
+        portfolioHistoryService.createOrUpdatePortfolioHistory(second);
+
+
+        Assertions.assertEquals(days, portfolioHistoryRepository.findAllByUserIdAndDateGreaterThanEqual(user.getId(), INVESTMENT_DATE).size());
+
+        PortfolioHistory before = portfolioHistoryRepository.findFirstByUserIdAndDate(user.getId(), SECOND_INVESTMENT_DATE.minusDays(1));
+        Assertions.assertEquals(0, QUANTITY.multiply(ASSET_PRICE).compareTo(before.getValue()));
+        Assertions.assertEquals(Set.of(first.getId()), before.getInvestmentIds());
+
+        PortfolioHistory after = portfolioHistoryRepository.findFirstByUserIdAndDate(user.getId(), SECOND_INVESTMENT_DATE);
+        Assertions.assertEquals(0, QUANTITY.multiply(ASSET_PRICE).multiply(BigDecimal.valueOf(2)).compareTo(after.getValue()));
+        Assertions.assertEquals(Set.of(first.getId(), second.getId()), after.getInvestmentIds());
+    }
+
+    private Asset createAsset(String symbol) {
+        return assetRepository.save(Asset.builder()
+                .symbol(symbol)
+                .price(ASSET_PRICE)
+                .type(InvestmentType.STOCK).build());
+    }
+
+    private User createUser(String username) {
+        return userRepository.save(User.builder()
+                .email(username + "@e.mail")
+                .username(username)
+                .googleId(username).build());
+    }
+
+    private Investment createInvestment(Asset asset, User user, LocalDate date) {
+        Investment investment = investmentRepository.save(Investment.builder()
+                .symbol(asset.getSymbol())
+                .quantity(QUANTITY)
+                .amount(QUANTITY.multiply(ASSET_PRICE))
+                .type(asset.getType())
+                .updateType(InvestmentUpdateType.MANUAL)
+                .user(user)
+                .asset(asset)
+                .date(date).build());
+        InvestmentTransaction transaction = transactionRepository.save(InvestmentTransaction.builder()
+                .investment(investment)
+                .type(InvestmentTransactionType.BUY)
+                .quantity(QUANTITY)
+                .date(date).build());
+        investment.setTransactions(Set.of(transaction));
+
+        return investment;
+    }
+}
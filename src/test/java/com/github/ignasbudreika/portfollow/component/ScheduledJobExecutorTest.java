@@ -0,0 +1,129 @@
+package com.github.ignasbudreika.portfollow.component;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+class ScheduledJobExecutorTest {
+    private static final String JOB = "test-job";
+
+    private final ScheduledJobExecutor target = new ScheduledJobExecutor(2, Duration.ofSeconds(5), new StandardEnvironment());
+
+    @Test
+    void shouldRunTaskForEveryItem() {
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+
+
+        boolean result = target.run(JOB, List.of("a", "b", "c"), processed::add);
+
+
+        Assertions.assertTrue(result);
+        Assertions.assertEquals(Set.of("a", "b", "c"), processed);
+        Assertions.assertEquals(3, target.getJobLastTasks(JOB));
+        Assertions.assertEquals(0, target.getJobBacklog(JOB));
+    }
+
+    @Test
+    void shouldRunTasksConcurrently() {
+        CountDownLatch latch = new CountDownLatch(2);
+
+
+        boolean result = target.run(JOB, List.of("a", "b"), item -> {
+            latch.countDown();
+            try {
+                Assertions.assertTrue(latch.await(1, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+
+        Assertions.assertTrue(result);
+        Assertions.assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    void shouldContinueWithOtherItems_whenTaskFails() {
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+
+
+        target.run(JOB, List.of("a", "b"), item -> {
+            if (item.equals("a")) {
+                throw new IllegalStateException();
+            }
+            processed.add(item);
+        });
+
+
+        Assertions.assertEquals(Set.of("b"), processed);
+    }
+
+    @Test
+    void shouldSkipJob_whenPreviousRunHasNotFinished() {
+        boolean[] nestedResult = new boolean[1];
+
+
+        target.run(JOB, List.of("a"), item -> nestedResult[0] = target.run(JOB, List.of("b"), nested -> {}));
+
+
+        Assertions.assertFalse(nestedResult[0]);
+        Assertions.assertEquals(1, target.getJobSkippedRuns(JOB));
+    }
+
+    @Test
+    void shouldCancelPendingTasks_whenJobTimesOut() {
+        ScheduledJobExecutor executor = new ScheduledJobExecutor(1, Duration.ofMillis(100), new StandardEnvironment());
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+
+
+        executor.run(JOB, List.of("a", "b"), item -> {
+            try {
+                Thread.sleep(1000);
+                processed.add(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+
+        Assertions.assertTrue(processed.isEmpty());
+        Assertions.assertEquals(1, executor.getJobTimeouts(JOB));
+        Assertions.assertTrue(executor.getJobLastDurationMillis(JOB) < 1000);
+    }
+
+    @Test
+    void shouldTakeItemsOnlyAsTasksFinish() {
+        AtomicInteger taken = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+        Iterator<Integer> items = IntStream.range(0, 50).boxed().iterator();
+
+
+        target.run(JOB, () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return items.hasNext();
+            }
+
+            @Override
+            public Integer next() {
+                maxAhead.accumulateAndGet(taken.incrementAndGet() - finished.get(), Math::max);
+                return items.next();
+            }
+        }, item -> finished.incrementAndGet());
+
+
+        Assertions.assertEquals(50, finished.get());
+        Assertions.assertTrue(maxAhead.get() <= 5);
+    }
+}
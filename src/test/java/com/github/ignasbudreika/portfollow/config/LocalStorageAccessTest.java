@@ -0,0 +1,45 @@
+package com.github.ignasbudreika.portfollow.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LocalStorageAccessTest {
+    private final LocalStorageAccess target = new LocalStorageAccess(2);
+
+    @Test
+    void shouldKeepAtMostMaxEntries() {
+        target.putIntoCache("first", 1, null);
+        target.putIntoCache("second", 2, null);
+
+
+        target.putIntoCache("third", 3, null);
+
+
+        Assertions.assertEquals(3, target.getFromCache("third", null));
+        Assertions.assertEquals(1, (target.contains("first") ? 1 : 0) + (target.contains("second") ? 1 : 0));
+    }
+
+    @Test
+    void shouldReplaceExistingEntry_whenFull() {
+        target.putIntoCache("first", 1, null);
+        target.putIntoCache("second", 2, null);
+
+
+        target.putIntoCache("second", 3, null);
+
+
+        Assertions.assertEquals(1, target.getFromCache("first", null));
+        Assertions.assertEquals(3, target.getFromCache("second", null));
+    }
+
+    @Test
+    void shouldRemoveEntry_whenEvicted() {
+        target.putIntoCache("first", 1, null);
+
+
+        target.evictData("first");
+
+
+        Assertions.assertNull(target.getFromCache("first", null));
+    }
+}
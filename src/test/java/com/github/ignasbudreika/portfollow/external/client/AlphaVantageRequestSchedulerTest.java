@@ -0,0 +1,181 @@
+package com.github.ignasbudreika.portfollow.external.client;
+
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AlphaVantageRequestSchedulerTest {
+    private static final URI QUOTE_URI = URI.create("https://www.alphavantage.co/query?function=GLOBAL_QUOTE&symbol=AAPL");
+    private static final String BODY = "{\"Global Quote\": {\"05. price\": \"150.00\"}}";
+    private static final String INFORMATION_BODY = "{\"Information\": \"Thank you for using Alpha Vantage! Please consider spreading out your free API requests more sparingly (1 request per second).\"}";
+    private static final String RATE_LIMIT_BODY = "{\"Note\": \"Thank you for using Alpha Vantage! Our standard API call frequency is 5 calls per minute and 500 calls per day.\"}";
+
+    private final HttpClient client = mock(HttpClient.class);
+    private AlphaVantageRequestScheduler target;
+
+    @BeforeEach
+    void setUp() {
+        target = new AlphaVantageRequestScheduler(client, 60_000, 1, Duration.ofMillis(10));
+        target.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.stop();
+    }
+
+    @Test
+    void shouldReturnResponseBody() throws Exception {
+        HttpResponse<String> response = response(200, BODY);
+
+        when(client.<String>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(response));
+
+
+        String result = target.send(QUOTE_URI);
+
+
+        verify(client, times(1)).sendAsync(any(), any());
+
+        Assertions.assertEquals(BODY, result);
+        Assertions.assertEquals(1, target.getRequestsSent());
+        Assertions.assertEquals(1, target.getRequestsLastMinute());
+    }
+
+    @Test
+    void shouldSendIdenticalConcurrentRequestsOnce() throws Exception {
+        CompletableFuture<HttpResponse<String>> pendingResponse = new CompletableFuture<>();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        when(client.<String>sendAsync(any(), any())).thenReturn(pendingResponse);
+
+
+        List<Future<String>> results = List.of(callers.submit(() -> target.send(QUOTE_URI)), callers.submit(() -> target.send(QUOTE_URI)));
+        while (target.getRequestsCoalesced() < 1) {
+            Thread.sleep(1);
+        }
+        pendingResponse.complete(response(200, BODY));
+
+
+        Assertions.assertEquals(BODY, results.get(0).get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(BODY, results.get(1).get(1, TimeUnit.SECONDS));
+        verify(client, times(1)).sendAsync(any(), any());
+        callers.shutdown();
+    }
+
+    @Test
+    void shouldRetryRequest_whenRateLimitIsReached() throws Exception {
+        HttpResponse<String> rateLimited = response(200, RATE_LIMIT_BODY);
+        HttpResponse<String> response = response(200, BODY);
+
+        when(client.<String>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(rateLimited), CompletableFuture.completedFuture(response));
+
+
+        String result = target.send(QUOTE_URI);
+
+
+        verify(client, times(2)).sendAsync(any(), any());
+
+        Assertions.assertEquals(BODY, result);
+        Assertions.assertEquals(1, target.getRateLimitedResponses());
+    }
+
+    @Test
+    void shouldRetryRequest_whenInformationMessageIsReturned() throws Exception {
+        HttpResponse<String> rateLimited = response(200, INFORMATION_BODY);
+        HttpResponse<String> response = response(200, BODY);
+
+        when(client.<String>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(rateLimited), CompletableFuture.completedFuture(response));
+
+
+        String result = target.send(QUOTE_URI);
+
+
+        verify(client, times(2)).sendAsync(any(), any());
+
+        Assertions.assertEquals(BODY, result);
+        Assertions.assertEquals(1, target.getRateLimitedResponses());
+    }
+
+    @Test
+    void shouldThrowBusinessLogicException_whenRateLimitIsReachedAfterRetries() {
+        HttpResponse<String> rateLimited = response(429, "");
+
+        when(client.<String>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(rateLimited));
+
+
+        Assertions.assertThrows(BusinessLogicException.class, () -> target.send(QUOTE_URI));
+
+
+        verify(client, times(2)).sendAsync(any(), any());
+    }
+
+    @Test
+    void shouldRetryStreamedRequest_whenRateLimitIsReached() throws Exception {
+        HttpResponse<InputStream> rateLimited = streamedResponse(200, RATE_LIMIT_BODY);
+        HttpResponse<InputStream> response = streamedResponse(200, BODY);
+
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(rateLimited), CompletableFuture.completedFuture(response));
+
+
+        String result = target.stream(QUOTE_URI, body -> new String(body.readAllBytes(), StandardCharsets.UTF_8));
+
+
+        verify(client, times(2)).sendAsync(any(), any());
+
+        Assertions.assertEquals(BODY, result);
+        Assertions.assertEquals(1, target.getRateLimitedResponses());
+    }
+
+    @Test
+    void shouldThrowBusinessLogicException_whenStreamedRequestIsRateLimitedAfterRetries() {
+        HttpResponse<InputStream> rateLimited = streamedResponse(200, INFORMATION_BODY);
+        HttpResponse<InputStream> rateLimitedAgain = streamedResponse(200, INFORMATION_BODY);
+        when(client.<InputStream>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(rateLimited),
+                CompletableFuture.completedFuture(rateLimitedAgain));
+
+
+        Assertions.assertThrows(BusinessLogicException.class,
+                () -> target.stream(QUOTE_URI, body -> new String(body.readAllBytes(), StandardCharsets.UTF_8)));
+
+
+        verify(client, times(2)).sendAsync(any(), any());
+        Assertions.assertEquals(2, target.getRateLimitedResponses());
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<InputStream> streamedResponse(int status, String body) {
+        HttpResponse<InputStream> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+
+        return response;
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpResponse<String> response(int status, String body) {
+        HttpResponse<String> response = mock(HttpResponse.class);
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body);
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+
+        return response;
+    }
+}
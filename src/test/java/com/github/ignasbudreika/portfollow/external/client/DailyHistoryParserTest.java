@@ -0,0 +1,76 @@
+package com.github.ignasbudreika.portfollow.external.client;
+
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+import org.codehaus.jackson.JsonFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class DailyHistoryParserTest {
+    private static final LocalDate SINCE = LocalDate.of(2022, 12, 1);
+    private static final String BODY = """
+            {
+                "Meta Data": {"1. Information": "Daily Prices", "2. Symbol": "AAPL"},
+                "Time Series (Daily)": {
+                    "2022-12-02": {"1. open": "148.2100", "4. close": "147.8100", "6. volume": "65447446"},
+                    "2022-12-01": {"1. open": "148.0000", "4. close": "148.3100", "6. volume": "71250416"},
+                    "2022-11-30": {"1. open": "141.4000", "4. close": "148.0300", "6. volume": "111380920"}
+                }
+            }
+            """;
+
+    private final DailyHistoryParser target = new DailyHistoryParser(new JsonFactory(), "Time Series (Daily)", "4. close");
+
+    @Test
+    void shouldEmitPricesAfterCutoff() throws Exception {
+        Map<LocalDate, BigDecimal> prices = new LinkedHashMap<>();
+
+
+        int result = target.parse(stream(BODY), SINCE, prices::put);
+
+
+        Assertions.assertEquals(1, result);
+        Assertions.assertEquals(Map.of(LocalDate.of(2022, 12, 2), new BigDecimal("147.8100")), prices);
+    }
+
+    @Test
+    void shouldEmitNothing_whenSeriesIsMissing() throws Exception {
+        Map<LocalDate, BigDecimal> prices = new LinkedHashMap<>();
+
+
+        int result = target.parse(stream("{\"Meta Data\": {\"1. Information\": \"Daily Prices\"}}"), SINCE, prices::put);
+
+
+        Assertions.assertEquals(0, result);
+        Assertions.assertTrue(prices.isEmpty());
+    }
+
+    @Test
+    void shouldThrowBusinessLogicException_whenResponseContainsError() {
+        Assertions.assertThrows(BusinessLogicException.class,
+                () -> target.parse(stream("{\"Error Message\": \"Invalid API call.\"}"), SINCE, (date, price) -> {}));
+    }
+
+    @Test
+    void shouldThrowBusinessLogicException_whenResponseContainsNote() {
+        Assertions.assertThrows(BusinessLogicException.class,
+                () -> target.parse(stream("{\"Note\": \"Thank you for using Alpha Vantage! Our standard API call frequency is 5 calls per minute.\"}"), SINCE, (date, price) -> {}));
+    }
+
+    @Test
+    void shouldThrowBusinessLogicException_whenResponseContainsInformation() {
+        Assertions.assertThrows(BusinessLogicException.class,
+                () -> target.parse(stream("{\"Information\": \"Thank you for using Alpha Vantage! This is a premium endpoint.\"}"), SINCE, (date, price) -> {}));
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.ignasbudreika.portfollow.external.provider;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class FileMarketDataProviderTest {
+    private static final String ASSET_SYMBOL = "AAPL";
+    private static final String PRICES = """
+            date,close
+            2022-11-30,148.03
+            2022-12-01,148.31
+            2022-12-02,147.81
+            """;
+
+    private Path directory;
+    private FileMarketDataProvider target;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("prices");
+        Files.createDirectory(directory.resolve(InvestmentType.STOCK.name()));
+        Files.writeString(directory.resolve(InvestmentType.STOCK.name()).resolve(ASSET_SYMBOL + ".csv"), PRICES);
+
+        target = new FileMarketDataProvider(directory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    void shouldReadQuoteFromLastLines() throws Exception {
+        Quote result = target.getQuote(InvestmentType.STOCK, ASSET_SYMBOL);
+
+
+        Assertions.assertEquals(new BigDecimal("147.81"), result.getPrice());
+        Assertions.assertEquals(new BigDecimal("148.31"), result.getPreviousClose());
+    }
+
+    @Test
+    void shouldStreamPricesAfterCutoff() throws Exception {
+        Map<LocalDate, BigDecimal> prices = new LinkedHashMap<>();
+
+
+        int result = target.streamDailyHistory(InvestmentType.STOCK, ASSET_SYMBOL, LocalDate.of(2022, 11, 30), prices::put);
+
+
+        Assertions.assertEquals(2, result);
+        Assertions.assertEquals(Map.of(
+                LocalDate.of(2022, 12, 1), new BigDecimal("148.31"),
+                LocalDate.of(2022, 12, 2), new BigDecimal("147.81")), prices);
+    }
+
+    @Test
+    void shouldThrowBusinessLogicException_whenSymbolHasNoFile() {
+        Assertions.assertThrows(BusinessLogicException.class, () -> target.getQuote(InvestmentType.CRYPTO, "BTC"));
+    }
+
+    @Test
+    void shouldThrowBusinessLogicException_whenSymbolLeavesDirectory() {
+        Assertions.assertThrows(BusinessLogicException.class, () -> target.getQuote(InvestmentType.STOCK, "../../secret"));
+    }
+}
@@ -13,11 +13,13 @@ import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URISyntaxException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -263,4 +265,36 @@ class AlpacaServiceTest {
         assertNull(captor.getValue().getSecret());
         assertEquals(ConnectionStatus.INVALID, captor.getValue().getStatus());
     }
+
+    @Test
+    void shouldFetchPositionsOfActiveConnections() throws InvalidExternalRequestException, IOException, URISyntaxException, InterruptedException, BusinessLogicException {
+        User user = User.builder()
+                .id(USER_ID)
+                .email(USER_EMAIL)
+                .username(USER_USERNAME).build();
+        AlpacaConnection connection = AlpacaConnection.builder()
+                .id(CONNECTION_ID)
+                .apiKey(API_KEY)
+                .secret(SECRET)
+                .user(user)
+                .status(ConnectionStatus.ACTIVE).build();
+
+        when(alpacaConnectionRepository.findAllByStatusAndIdGreaterThanOrderByIdAsc(ConnectionStatus.ACTIVE, "", PageRequest.ofSize(500)))
+                .thenReturn(List.of(connection));
+        when(alpacaClient.getPositions(API_KEY, SECRET)).thenReturn(List.of(PositionDTO.builder()
+                .symbol(SYMBOL)
+                .assetClass(ASSET_CLASS)
+                .quantity(QUANTITY.toString()).build()));
+
+
+        List<AlpacaConnection> connections = new ArrayList<>();
+        target.getActiveConnections().forEach(connections::add);
+        connections.forEach(target::fetchPositions);
+
+
+        verify(alpacaConnectionRepository, never()).findByUserIdAndStatus(any(), any());
+        verify(alpacaClient).getPositions(API_KEY, SECRET);
+        verify(investmentService).saveInvestmentFetchedFromConnection(any(), eq(CONNECTION_ID));
+        assertEquals(List.of(connection), connections);
+    }
 }
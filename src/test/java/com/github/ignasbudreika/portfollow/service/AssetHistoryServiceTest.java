@@ -1,9 +1,14 @@
 package com.github.ignasbudreika.portfollow.service;
 
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.model.AssetHistoryFreshness;
 import com.github.ignasbudreika.portfollow.repository.AssetHistoryRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.util.List;
+
 import static org.mockito.Mockito.*;
 
 class AssetHistoryServiceTest {
@@ -37,4 +42,28 @@ class AssetHistoryServiceTest {
 
         Assertions.assertFalse(result);
     }
+
+    @Test
+    void shouldReturnStaleAssets() {
+        List<AssetHistoryFreshness> freshness = List.of(
+                freshness("AAPL", null),
+                freshness("MSFT", LocalDate.now().minusDays(5)),
+                freshness("TSLA", LocalDate.now()));
+        when(assetHistoryRepository.findHistoryFreshness()).thenReturn(freshness);
+
+
+        List<String> result = target.getStaleAssets(2);
+
+
+        Assertions.assertEquals(List.of("STOCK AAPL: no history", String.format("STOCK MSFT: %s", LocalDate.now().minusDays(5))), result);
+    }
+
+    private AssetHistoryFreshness freshness(String symbol, LocalDate lastDate) {
+        AssetHistoryFreshness freshness = mock(AssetHistoryFreshness.class);
+        when(freshness.getSymbol()).thenReturn(symbol);
+        when(freshness.getType()).thenReturn(InvestmentType.STOCK);
+        when(freshness.getLastDate()).thenReturn(lastDate);
+
+        return freshness;
+    }
 }
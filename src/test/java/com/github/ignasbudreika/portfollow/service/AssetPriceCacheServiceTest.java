@@ -0,0 +1,72 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.model.AssetPrice;
+import com.github.ignasbudreika.portfollow.repository.AssetPriceRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class AssetPriceCacheServiceTest {
+    private static final String ASSET_SYMBOL = "AAPL";
+    private static final AssetPrice PRICE = AssetPrice.builder()
+            .symbol(ASSET_SYMBOL)
+            .type(InvestmentType.STOCK)
+            .price(BigDecimal.TEN)
+            .previousClose(BigDecimal.ONE)
+            .updatedAt(LocalDateTime.now()).build();
+    private final AssetPriceRepository assetPriceRepository = mock(AssetPriceRepository.class);
+
+    @Test
+    void shouldReadWrittenPriceFromLocalCache() {
+        AssetPriceCacheService target = new AssetPriceCacheService(assetPriceRepository, Duration.ofMinutes(15), false);
+
+
+        target.putAll(List.of(PRICE));
+        AssetPrice result = target.get(ASSET_SYMBOL, InvestmentType.STOCK);
+
+
+        Assertions.assertEquals(PRICE, result);
+        Assertions.assertEquals(1, target.getHits());
+        verifyNoInteractions(assetPriceRepository);
+    }
+
+    @Test
+    void shouldMissExpiredPrice_whenSharedCacheIsDisabled() {
+        AssetPriceCacheService target = new AssetPriceCacheService(assetPriceRepository, Duration.ZERO, false);
+        target.putAll(List.of(PRICE));
+
+
+        AssetPrice result = target.get(ASSET_SYMBOL, InvestmentType.STOCK);
+
+
+        Assertions.assertNull(result);
+        Assertions.assertEquals(1, target.getMisses());
+        Assertions.assertEquals(0, target.getSize());
+    }
+
+    @Test
+    void shouldWriteThroughAndReadMissFromSharedCache() {
+        AssetPriceCacheService target = new AssetPriceCacheService(assetPriceRepository, Duration.ofMinutes(15), true);
+        when(assetPriceRepository.findBySymbolAndType(ASSET_SYMBOL, InvestmentType.STOCK)).thenReturn(PRICE);
+
+
+        target.putAll(List.of(PRICE));
+        target.clear();
+        AssetPrice result = target.get(ASSET_SYMBOL, InvestmentType.STOCK);
+        target.get(ASSET_SYMBOL, InvestmentType.STOCK);
+
+
+        verify(assetPriceRepository).upsertAll(List.of(PRICE));
+        verify(assetPriceRepository, times(1)).findBySymbolAndType(ASSET_SYMBOL, InvestmentType.STOCK);
+        Assertions.assertEquals(PRICE, result);
+        Assertions.assertEquals(1, target.getSharedHits());
+        Assertions.assertEquals(1, target.getHits());
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.model.Asset;
+import com.github.ignasbudreika.portfollow.model.AssetHistory;
+import com.github.ignasbudreika.portfollow.repository.AssetHistoryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class AssetPriceIndexServiceTest {
+    private static final String ASSET_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
+    private static final BigDecimal ASSET_PRICE = BigDecimal.TEN;
+    private static final String ASSET_SYMBOL = "AAPL";
+    private static final InvestmentType INVESTMENT_TYPE = InvestmentType.STOCK;
+    private static final LocalDate DATE = LocalDate.of(2023, 1, 1);
+
+    private final AssetHistoryRepository assetHistoryRepository = mock(AssetHistoryRepository.class);
+    private final AssetPriceIndexService target = new AssetPriceIndexService(assetHistoryRepository);
+
+    @Test
+    void shouldReturnAssetPrice_whenDateIsEqualToToday() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE).build();
+
+
+        BigDecimal result = target.getLatestAssetPriceForDate(asset, LocalDate.now());
+
+
+        verify(assetHistoryRepository, never()).findAllByAssetIdOrderByDateAsc(ASSET_ID);
+
+        Assertions.assertEquals(ASSET_PRICE, result);
+    }
+
+    @Test
+    void shouldReturnAssetPrice_whenAssetHistoryDoesNotExist() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE).build();
+
+
+        BigDecimal result = target.getLatestAssetPriceForDate(asset, DATE);
+
+
+        verify(assetHistoryRepository).findAllByAssetIdOrderByDateAsc(ASSET_ID);
+
+        Assertions.assertEquals(ASSET_PRICE, result);
+    }
+
+    @Test
+    void shouldReturnAssetPrice_whenAssetHistoryBeforeDateDoesNotExist() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE).build();
+
+        when(assetHistoryRepository.findAllByAssetIdOrderByDateAsc(ASSET_ID)).thenReturn(List.of(
+                AssetHistory.builder().asset(asset).date(DATE.plusDays(1)).price(BigDecimal.valueOf(11)).build()));
+
+
+        BigDecimal result = target.getLatestAssetPriceForDate(asset, DATE);
+
+
+        Assertions.assertEquals(ASSET_PRICE, result);
+    }
+
+    @Test
+    void shouldReturnLatestAssetPriceFromHistory_whenAssetHistoryBeforeDateExists() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE).build();
+
+        when(assetHistoryRepository.findAllByAssetIdOrderByDateAsc(ASSET_ID)).thenReturn(List.of(
+                AssetHistory.builder().asset(asset).date(DATE.minusDays(5)).price(BigDecimal.valueOf(9)).build(),
+                AssetHistory.builder().asset(asset).date(DATE.minusDays(2)).price(BigDecimal.valueOf(11)).build(),
+                AssetHistory.builder().asset(asset).date(DATE.plusDays(1)).price(BigDecimal.valueOf(12)).build()));
+
+
+        BigDecimal result = target.getLatestAssetPriceForDate(asset, DATE);
+        BigDecimal exactResult = target.getLatestAssetPriceForDate(asset, DATE.minusDays(5));
+
+
+        verify(assetHistoryRepository, times(1)).findAllByAssetIdOrderByDateAsc(ASSET_ID);
+
+        Assertions.assertEquals(BigDecimal.valueOf(11).setScale(8, RoundingMode.HALF_UP), result);
+        Assertions.assertEquals(BigDecimal.valueOf(9).setScale(8, RoundingMode.HALF_UP), exactResult);
+    }
+
+    @Test
+    void shouldUpdateLoadedIndex_whenPriceIsRecorded() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE).build();
+
+        when(assetHistoryRepository.findAllByAssetIdOrderByDateAsc(ASSET_ID)).thenReturn(List.of(
+                AssetHistory.builder().asset(asset).date(DATE.minusDays(2)).price(BigDecimal.valueOf(11)).build()));
+        target.getLatestAssetPriceForDate(asset, DATE);
+
+
+        target.recordPrice(ASSET_ID, DATE.minusDays(1), new BigDecimal("12.5"));
+        BigDecimal result = target.getLatestAssetPriceForDate(asset, DATE);
+
+
+        verify(assetHistoryRepository, times(1)).findAllByAssetIdOrderByDateAsc(ASSET_ID);
+
+        Assertions.assertEquals(new BigDecimal("12.5").setScale(8, RoundingMode.HALF_UP), result);
+    }
+
+    @Test
+    void shouldReloadIndex_whenAssetIsEvicted() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE).build();
+        target.getLatestAssetPriceForDate(asset, DATE);
+
+
+        target.evict(ASSET_ID);
+        target.getLatestAssetPriceForDate(asset, DATE);
+
+
+        verify(assetHistoryRepository, times(2)).findAllByAssetIdOrderByDateAsc(ASSET_ID);
+    }
+}
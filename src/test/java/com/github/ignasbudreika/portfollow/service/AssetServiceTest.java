@@ -2,10 +2,11 @@ package com.github.ignasbudreika.portfollow.service;
 
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
-import com.github.ignasbudreika.portfollow.external.client.AlphaVantageClient;
-import com.github.ignasbudreika.portfollow.external.dto.response.*;
+import com.github.ignasbudreika.portfollow.external.provider.MarketDataProvider;
+import com.github.ignasbudreika.portfollow.external.provider.Quote;
 import com.github.ignasbudreika.portfollow.model.Asset;
 import com.github.ignasbudreika.portfollow.model.AssetHistory;
+import com.github.ignasbudreika.portfollow.model.AssetPrice;
 import com.github.ignasbudreika.portfollow.repository.AssetHistoryRepository;
 import com.github.ignasbudreika.portfollow.repository.AssetRepository;
 import org.junit.jupiter.api.Assertions;
@@ -13,15 +14,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import static org.mockito.Mockito.*;
 
 class AssetServiceTest {
@@ -30,11 +35,16 @@ class AssetServiceTest {
     private static final String ASSET_SYMBOL = "AAPL";
     private static final InvestmentType INVESTMENT_TYPE = InvestmentType.STOCK;
     private static final LocalDate DATE = LocalDate.of(2023, 1, 1);
+    private static final String CHANGED_HISTORY_ID = "3c1f6f1e-2d7b-4a53-9a43-5b1b2f0f6a10";
 
     private final AssetRepository assetRepository = mock(AssetRepository.class);
     private final AssetHistoryRepository assetHistoryRepository = mock(AssetHistoryRepository.class);
-    private final AlphaVantageClient alphaVantageClient = mock(AlphaVantageClient.class);
-    private final AssetService target = new AssetService(assetRepository, assetHistoryRepository, alphaVantageClient);
+    private final MarketDataProvider marketDataProvider = mock(MarketDataProvider.class);
+    private final AssetPriceIndexService assetPriceIndexService = mock(AssetPriceIndexService.class);
+    private final InvestmentDailyValueService investmentDailyValueService = mock(InvestmentDailyValueService.class);
+    private final AssetPriceCacheService assetPriceCacheService = mock(AssetPriceCacheService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final AssetService target = new AssetService(assetRepository, assetHistoryRepository, marketDataProvider, assetPriceIndexService, investmentDailyValueService, assetPriceCacheService, eventPublisher);
 
     @Test
     void shouldGetAssetBySymbolAndType() {
@@ -55,63 +65,6 @@ class AssetServiceTest {
         Assertions.assertEquals(ASSET_ID, result.getId());
     }
 
-    @Test
-    void shouldReturnAssetPrice_whenDateIsEqualToToday() {
-        Asset asset = Asset.builder()
-                .id(ASSET_ID)
-                .price(ASSET_PRICE)
-                .symbol(ASSET_SYMBOL)
-                .type(INVESTMENT_TYPE).build();
-
-
-        BigDecimal result = target.getLatestAssetPriceForDate(asset, LocalDate.now());
-
-
-        verify(assetHistoryRepository, never()).findFirstByAssetIdAndDateLessThanEqualOrderByDateDesc(eq(ASSET_ID), any(LocalDate.class));
-
-        Assertions.assertEquals(ASSET_PRICE, result);
-    }
-
-    @Test
-    void shouldReturnAssetPrice_whenAssetHistoryDoesNotExist() {
-        Asset asset = Asset.builder()
-                .id(ASSET_ID)
-                .price(ASSET_PRICE)
-                .symbol(ASSET_SYMBOL)
-                .type(INVESTMENT_TYPE).build();
-
-
-        BigDecimal result = target.getLatestAssetPriceForDate(asset, DATE);
-
-
-        verify(assetHistoryRepository).findFirstByAssetIdAndDateLessThanEqualOrderByDateDesc(ASSET_ID, DATE);
-
-        Assertions.assertEquals(ASSET_PRICE, result);
-    }
-
-    @Test
-    void shouldReturnAssetPriceFromHistory_whenAssetHistoryBeforeDateExists() {
-        Asset asset = Asset.builder()
-                .id(ASSET_ID)
-                .price(ASSET_PRICE)
-                .symbol(ASSET_SYMBOL)
-                .type(INVESTMENT_TYPE).build();
-        AssetHistory assetHistory = AssetHistory.builder()
-                .asset(asset)
-                .date(DATE)
-                .price(BigDecimal.valueOf(11)).build();
-
-        when(assetHistoryRepository.findFirstByAssetIdAndDateLessThanEqualOrderByDateDesc(ASSET_ID, DATE)).thenReturn(assetHistory);
-
-
-        BigDecimal result = target.getLatestAssetPriceForDate(asset, DATE);
-
-
-        verify(assetHistoryRepository).findFirstByAssetIdAndDateLessThanEqualOrderByDateDesc(ASSET_ID, DATE);
-
-        Assertions.assertEquals(assetHistory.getPrice(), result);
-    }
-
     @Test
     void shouldReturnAllAssets() {
         Asset asset = Asset.builder()
@@ -140,11 +93,10 @@ class AssetServiceTest {
                 .type(INVESTMENT_TYPE)
                 .price(new BigDecimal("11")).build();
 
-        when(alphaVantageClient.getStockData(ASSET_SYMBOL)).thenReturn(StockDTO.builder()
-                .price("11").build());
+        when(marketDataProvider.getQuote(INVESTMENT_TYPE, ASSET_SYMBOL)).thenReturn(Quote.builder()
+                .price(new BigDecimal("11")).build());
         when(assetRepository.save(any())).thenReturn(asset);
-        when(alphaVantageClient.getStockHistoryDaily(ASSET_SYMBOL)).thenReturn(StockHistoryDailyDTO.builder()
-                .history(new HashMap<>()).build());
+        when(marketDataProvider.streamDailyHistory(eq(INVESTMENT_TYPE), eq(ASSET_SYMBOL), any(), any())).thenReturn(0);
 
 
         Asset result = target.createAsset(ASSET_SYMBOL, INVESTMENT_TYPE);
@@ -155,8 +107,9 @@ class AssetServiceTest {
         Assertions.assertEquals(ASSET_SYMBOL, captor.getValue().getSymbol());
         Assertions.assertEquals(INVESTMENT_TYPE, captor.getValue().getType());
         Assertions.assertEquals(asset.getPrice(), captor.getValue().getPrice());
-        verify(alphaVantageClient).getStockHistoryDaily(ASSET_SYMBOL);
-        verify(assetHistoryRepository).saveAll(anyCollection());
+        verify(marketDataProvider).streamDailyHistory(eq(INVESTMENT_TYPE), eq(ASSET_SYMBOL), any(), any());
+        verify(assetHistoryRepository, never()).upsertAll(anyCollection());
+        verify(assetPriceIndexService).evict(ASSET_ID);
 
         Assertions.assertEquals(ASSET_ID, result.getId());
     }
@@ -164,28 +117,14 @@ class AssetServiceTest {
     @ParameterizedTest
     @EnumSource(value = InvestmentType.class)
     void shouldFetchPrice(InvestmentType type) throws IOException, URISyntaxException, BusinessLogicException, InterruptedException {
-        if (type.equals(InvestmentType.STOCK)) {
-            when(alphaVantageClient.getStockData(ASSET_SYMBOL)).thenReturn(StockDTO.builder()
-                    .price("11").build());
-        } else if (type.equals(InvestmentType.CRYPTO)) {
-            when(alphaVantageClient.getCryptocurrencyData(ASSET_SYMBOL)).thenReturn(CryptocurrencyDTO.builder()
-                    .exchangeRate("11").build());
-        } else if (type.equals(InvestmentType.FIAT)) {
-            when(alphaVantageClient.getCurrencyData(ASSET_SYMBOL)).thenReturn(ForexDTO.builder()
-                    .exchangeRate("11").build());
-        }
+        when(marketDataProvider.getQuote(type, ASSET_SYMBOL)).thenReturn(Quote.builder()
+                .price(new BigDecimal("11")).build());
 
 
         BigDecimal price = target.fetchPrice(ASSET_SYMBOL, type);
 
 
-        if (type.equals(InvestmentType.STOCK)) {
-            verify(alphaVantageClient).getStockData(ASSET_SYMBOL);
-        } else if (type.equals(InvestmentType.CRYPTO)) {
-            verify(alphaVantageClient).getCryptocurrencyData(ASSET_SYMBOL);
-        } else if (type.equals(InvestmentType.FIAT)) {
-            verify(alphaVantageClient).getCurrencyData(ASSET_SYMBOL);
-        }
+        verify(marketDataProvider).getQuote(type, ASSET_SYMBOL);
 
         Assertions.assertEquals(new BigDecimal("11"), price);
     }
@@ -202,39 +141,100 @@ class AssetServiceTest {
                 .type(type)
                 .price(ASSET_PRICE).build();
 
-        if (type.equals(InvestmentType.STOCK)) {
-            when(alphaVantageClient.getStockHistoryDaily(ASSET_SYMBOL)).thenReturn(StockHistoryDailyDTO.builder()
-                    .history(Collections.singletonMap(
-                            date, StockHistoryDailyDTO.HistoryDTO.builder().price(price).build()
-                    )).build());
-        } else if (type.equals(InvestmentType.CRYPTO)) {
-            when(alphaVantageClient.getCryptoHistoryDaily(ASSET_SYMBOL)).thenReturn(CryptocurrencyHistoryDailyDTO.builder()
-                    .history(Collections.singletonMap(
-                            date, CryptocurrencyHistoryDailyDTO.HistoryDTO.builder().price(price).build()
-                    )).build());
-        } else if (type.equals(InvestmentType.FIAT)) {
-            when(alphaVantageClient.getForexHistoryDaily(ASSET_SYMBOL)).thenReturn(ForexHistoryDailyDTO.builder()
-                    .history(Collections.singletonMap(
-                            date, ForexHistoryDailyDTO.HistoryDTO.builder().price(price).build()
-                    )).build());
-        }
+        Answer<Integer> history = invocation -> {
+            BiConsumer<LocalDate, BigDecimal> consumer = invocation.getArgument(3);
+            consumer.accept(LocalDate.parse(date), new BigDecimal(price));
+            return 1;
+        };
+        when(marketDataProvider.streamDailyHistory(eq(type), eq(ASSET_SYMBOL), any(), any())).thenAnswer(history);
 
 
         target.fetchPriceHistory(asset);
 
 
-        if (type.equals(InvestmentType.STOCK)) {
-            verify(alphaVantageClient).getStockHistoryDaily(ASSET_SYMBOL);
-        } else if (type.equals(InvestmentType.CRYPTO)) {
-            verify(alphaVantageClient).getCryptoHistoryDaily(ASSET_SYMBOL);
-        } else if (type.equals(InvestmentType.FIAT)) {
-            verify(alphaVantageClient).getForexHistoryDaily(ASSET_SYMBOL);
-        }
-        ArgumentCaptor<Iterable<AssetHistory>> captor = ArgumentCaptor.forClass(Iterable.class);
-        verify(assetHistoryRepository).saveAll(captor.capture());
+        verify(marketDataProvider).streamDailyHistory(eq(type), eq(ASSET_SYMBOL), any(), any());
+        ArgumentCaptor<Collection<AssetHistory>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(assetHistoryRepository).upsertAll(captor.capture());
         Assertions.assertTrue(captor.getValue().iterator().hasNext());
         Assertions.assertEquals(new BigDecimal(price).setScale(8, RoundingMode.HALF_UP), captor.getValue().iterator().next().getPrice());
         Assertions.assertEquals(LocalDate.parse(date), captor.getValue().iterator().next().getDate());
+        verify(assetPriceIndexService).evict(ASSET_ID);
+    }
+
+    @Test
+    void shouldFetchFullPriceHistory_whenSyncingAssetWithoutHistory() throws URISyntaxException, IOException, BusinessLogicException, InterruptedException {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE)
+                .price(ASSET_PRICE).build();
+
+        when(assetHistoryRepository.findFirstByAssetIdOrderByDateDesc(ASSET_ID)).thenReturn(null);
+        when(marketDataProvider.streamDailyHistory(eq(INVESTMENT_TYPE), eq(ASSET_SYMBOL), eq(LocalDate.of(2022, 12, 1)), any())).thenReturn(0);
+
+
+        target.syncPriceHistory(asset, DATE);
+
+
+        verify(marketDataProvider).streamDailyHistory(eq(INVESTMENT_TYPE), eq(ASSET_SYMBOL), eq(LocalDate.of(2022, 12, 1)), any());
+        verify(assetPriceIndexService).evict(ASSET_ID);
+    }
+
+    @Test
+    void shouldNotSyncPriceHistory_whenHistoryIsUpToDate() throws URISyntaxException, IOException, BusinessLogicException, InterruptedException {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE)
+                .price(ASSET_PRICE).build();
+
+        when(assetHistoryRepository.findFirstByAssetIdOrderByDateDesc(ASSET_ID)).thenReturn(AssetHistory.builder()
+                .asset(asset)
+                .date(DATE.minusDays(1))
+                .price(ASSET_PRICE).build());
+
+
+        target.syncPriceHistory(asset, DATE);
+
+
+        verifyNoInteractions(marketDataProvider);
+        verify(assetHistoryRepository, never()).upsertAll(anyCollection());
+    }
+
+    @Test
+    void shouldWriteOnlyMissingAndChangedDays_whenSyncingPriceHistory() throws URISyntaxException, IOException, BusinessLogicException, InterruptedException {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .symbol(ASSET_SYMBOL)
+                .type(INVESTMENT_TYPE)
+                .price(ASSET_PRICE).build();
+        LocalDate last = DATE.minusDays(5);
+        AssetHistory unchanged = AssetHistory.builder().asset(asset).date(last.minusDays(1)).price(new BigDecimal("10.00000000")).build();
+        AssetHistory changed = AssetHistory.builder().id(CHANGED_HISTORY_ID).asset(asset).date(last).price(new BigDecimal("10.00000000")).build();
+
+        when(assetHistoryRepository.findFirstByAssetIdOrderByDateDesc(ASSET_ID)).thenReturn(changed);
+        when(assetHistoryRepository.findAllByAssetIdAndDateAfter(ASSET_ID, last.minusDays(3))).thenReturn(List.of(unchanged, changed));
+        when(marketDataProvider.streamDailyHistory(eq(INVESTMENT_TYPE), eq(ASSET_SYMBOL), eq(last.minusDays(3)), any())).thenAnswer(invocation -> {
+            BiConsumer<LocalDate, BigDecimal> consumer = invocation.getArgument(3);
+            consumer.accept(last.minusDays(1), new BigDecimal("10"));
+            consumer.accept(last, new BigDecimal("11"));
+            consumer.accept(last.plusDays(1), new BigDecimal("12"));
+            return 3;
+        });
+
+
+        target.syncPriceHistory(asset, DATE);
+
+
+        ArgumentCaptor<Collection<AssetHistory>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(assetHistoryRepository).upsertAll(captor.capture());
+        List<AssetHistory> written = new ArrayList<>(captor.getValue());
+        Assertions.assertEquals(2, written.size());
+        Assertions.assertEquals(CHANGED_HISTORY_ID, written.get(0).getId());
+        Assertions.assertEquals(new BigDecimal("11.00000000"), written.get(0).getPrice());
+        Assertions.assertEquals(last.plusDays(1), written.get(1).getDate());
+        verify(assetPriceIndexService).evict(ASSET_ID);
+        verify(investmentDailyValueService).recalculateAssetInvestments(ASSET_ID, last);
     }
 
     @ParameterizedTest
@@ -248,41 +248,65 @@ class AssetServiceTest {
         when(assetRepository.getBySymbolAndType(ASSET_SYMBOL, type)).thenReturn(asset);
 
         when(assetRepository.save(any())).thenReturn(asset);
-        if (type.equals(InvestmentType.STOCK)) {
-            when(alphaVantageClient.getStockData(ASSET_SYMBOL)).thenReturn(StockDTO.builder()
-                    .price("11").previousClose("12").build());
-        } else if (type.equals(InvestmentType.CRYPTO)) {
-            when(alphaVantageClient.getCryptocurrencyData(ASSET_SYMBOL)).thenReturn(CryptocurrencyDTO.builder()
-                    .exchangeRate("11").build());
-        } else if (type.equals(InvestmentType.FIAT)) {
-            when(alphaVantageClient.getCurrencyData(ASSET_SYMBOL)).thenReturn(ForexDTO.builder()
-                    .exchangeRate("11").build());
-        }
+        when(marketDataProvider.getQuotes(type, List.of(ASSET_SYMBOL))).thenReturn(Map.of(ASSET_SYMBOL, Quote.builder()
+                .price(new BigDecimal("11"))
+                .previousClose(type.equals(InvestmentType.STOCK) ? new BigDecimal("12") : null).build()));
 
 
         target.fetchPriceAndSaveInHistory(ASSET_SYMBOL, type, LocalDate.now());
 
 
-        if (type.equals(InvestmentType.STOCK)) {
-            verify(alphaVantageClient).getStockData(ASSET_SYMBOL);
+        verify(assetPriceIndexService).recordPrice(ASSET_ID, LocalDate.now(), new BigDecimal("11"));
+        ArgumentCaptor<Collection<AssetPrice>> priceCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(assetPriceCacheService).putAll(priceCaptor.capture());
+        Assertions.assertEquals(new BigDecimal("11"), priceCaptor.getValue().iterator().next().getPrice());
 
+        if (type.equals(InvestmentType.STOCK)) {
             ArgumentCaptor<Asset> captor = ArgumentCaptor.forClass(Asset.class);
             verify(assetRepository).save(captor.capture());
             Assertions.assertEquals(new BigDecimal("11"), captor.getValue().getPrice());
 
-            verify(assetHistoryRepository, times(2)).save(any());
+            ArgumentCaptor<Collection<AssetHistory>> historyCaptor = ArgumentCaptor.forClass(Collection.class);
+            verify(assetHistoryRepository).upsertAll(historyCaptor.capture());
+            Assertions.assertEquals(2, historyCaptor.getValue().size());
+            verify(assetPriceIndexService).recordPrice(ASSET_ID, LocalDate.now().minusDays(1), new BigDecimal("12"));
+            verify(investmentDailyValueService).recalculateAssetInvestments(ASSET_ID, LocalDate.now().minusDays(1));
         } else if (type.equals(InvestmentType.CRYPTO)) {
-            verify(alphaVantageClient).getCryptocurrencyData(ASSET_SYMBOL);
+            verify(investmentDailyValueService).recalculateAssetInvestments(ASSET_ID, LocalDate.now());
 
             ArgumentCaptor<Asset> captor = ArgumentCaptor.forClass(Asset.class);
             verify(assetRepository).save(captor.capture());
             Assertions.assertEquals(new BigDecimal("11"), captor.getValue().getPrice());
         } else if (type.equals(InvestmentType.FIAT)) {
-            verify(alphaVantageClient).getCurrencyData(ASSET_SYMBOL);
-
             ArgumentCaptor<Asset> captor = ArgumentCaptor.forClass(Asset.class);
             verify(assetRepository).save(captor.capture());
             Assertions.assertEquals(new BigDecimal("11"), captor.getValue().getPrice());
         }
     }
+
+    @Test
+    void shouldRefreshPricesOfAllAssetsByType() {
+        Asset stock = Asset.builder().id(ASSET_ID).symbol(ASSET_SYMBOL).type(InvestmentType.STOCK).price(ASSET_PRICE).build();
+        Asset otherStock = Asset.builder().id("5b7f3f0c-6f6c-4d3e-9f0e-2c2f8a3c1b11").symbol("MSFT").type(InvestmentType.STOCK).price(ASSET_PRICE).build();
+        Asset crypto = Asset.builder().id("0c6b7e1a-1d0f-4b8e-8a4f-3e4b2d7c9a22").symbol("BTC").type(InvestmentType.CRYPTO).price(ASSET_PRICE).build();
+
+        when(assetRepository.findAll()).thenReturn(List.of(stock, otherStock, crypto));
+        when(assetRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(marketDataProvider.getQuotes(InvestmentType.STOCK, List.of(ASSET_SYMBOL, "MSFT")))
+                .thenReturn(Map.of(ASSET_SYMBOL, Quote.builder().price(new BigDecimal("11")).build()));
+        when(marketDataProvider.getQuotes(InvestmentType.CRYPTO, List.of("BTC")))
+                .thenReturn(Map.of("BTC", Quote.builder().price(new BigDecimal("30000")).build()));
+
+
+        target.refreshPrices(DATE);
+
+
+        Assertions.assertEquals(new BigDecimal("11"), stock.getPrice());
+        Assertions.assertEquals(ASSET_PRICE, otherStock.getPrice());
+        Assertions.assertEquals(new BigDecimal("30000"), crypto.getPrice());
+        verify(assetHistoryRepository, times(2)).upsertAll(anyCollection());
+        verify(investmentDailyValueService).recalculateAssetInvestments(ASSET_ID, DATE);
+        verify(investmentDailyValueService).recalculateAssetInvestments(crypto.getId(), DATE);
+        verify(investmentDailyValueService, never()).recalculateAssetInvestments(eq(otherStock.getId()), any());
+    }
 }
@@ -35,7 +35,8 @@ class CurrencyServiceTest {
     private final StatisticsService statisticsService = mock(StatisticsService.class);
     private final InvestmentService investmentService = mock(InvestmentService.class);
     private final PortfolioHistoryService portfolioHistoryService = mock(PortfolioHistoryService.class);
-    private final CurrencyService target = new CurrencyService(statisticsService, investmentService, portfolioHistoryService);
+    private final InvestmentDailyValueService investmentDailyValueService = mock(InvestmentDailyValueService.class);
+    private final CurrencyService target = new CurrencyService(statisticsService, investmentService, portfolioHistoryService, investmentDailyValueService);
 
     @Test
     void shouldCreateCurrencyInvestment() throws BusinessLogicException, URISyntaxException, IOException, InterruptedException {
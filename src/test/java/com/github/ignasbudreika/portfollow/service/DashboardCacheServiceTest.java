@@ -0,0 +1,50 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+class DashboardCacheServiceTest {
+    private static final String USER_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
+    private static final String OTHER_USER_ID = "11113914-3090-49be-8b68-a104bd388d51";
+    private final UserDataVersionService userDataVersionService = mock(UserDataVersionService.class);
+    private final DashboardCacheService target = new DashboardCacheService(userDataVersionService, 100);
+
+    @Test
+    void shouldComputeOnce_untilVersionChanges() {
+        AtomicInteger computations = new AtomicInteger();
+        when(userDataVersionService.getVersion(USER_ID)).thenReturn(
+                new UserDataVersionService.Version(1L, "first"),
+                new UserDataVersionService.Version(1L, "first"),
+                new UserDataVersionService.Version(2L, "second"));
+
+
+        target.get(USER_ID, "portfolio", computations::incrementAndGet);
+        target.get(USER_ID, "portfolio", computations::incrementAndGet);
+        Integer result = target.get(USER_ID, "portfolio", computations::incrementAndGet);
+
+
+        Assertions.assertEquals(Integer.valueOf(2), result);
+        Assertions.assertEquals(1, target.getHits());
+        Assertions.assertEquals(2, target.getMisses());
+        Assertions.assertEquals(1, target.getEvictions());
+    }
+
+    @Test
+    void shouldKeepUsersSeparate() {
+        when(userDataVersionService.getVersion(USER_ID)).thenReturn(new UserDataVersionService.Version(1L, "user"));
+        when(userDataVersionService.getVersion(OTHER_USER_ID)).thenReturn(new UserDataVersionService.Version(1L, "other"));
+
+
+        target.get(USER_ID, "portfolio", () -> "user");
+        String result = target.get(OTHER_USER_ID, "portfolio", () -> "other");
+
+
+        Assertions.assertEquals("other", result);
+        Assertions.assertEquals(2, target.getSize());
+        Assertions.assertEquals("user", target.get(USER_ID, "portfolio", () -> "recomputed"));
+    }
+}
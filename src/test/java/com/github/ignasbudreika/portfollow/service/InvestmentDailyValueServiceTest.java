@@ -0,0 +1,268 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.model.Asset;
+import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValue;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValueTotal;
+import com.github.ignasbudreika.portfollow.model.InvestmentTransaction;
+import com.github.ignasbudreika.portfollow.repository.InvestmentDailyValueRepository;
+import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
+import com.github.ignasbudreika.portfollow.repository.InvestmentTransactionRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InvestmentDailyValueServiceTest {
+    private static final String INVESTMENT_ID = "a1fa6d4a-9a52-4e0a-a8f8-1c4b0d4e4b1e";
+    private static final String OTHER_INVESTMENT_ID = "5d2c1e0b-3b7f-4a1e-9d6c-2f1e8a7b6c5d";
+    private static final String USER_ID = "c3b0c5e1-7d4a-4b8e-9f1a-6e2d3c4b5a69";
+    private static final String ASSET_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
+    private static final String ASSET_SYMBOL = "AAPL";
+    private static final BigDecimal ASSET_PRICE = BigDecimal.TEN;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final AssetPriceIndexService assetPriceIndexService = mock(AssetPriceIndexService.class);
+    private final InvestmentDailyValueRepository investmentDailyValueRepository = mock(InvestmentDailyValueRepository.class);
+    private final InvestmentTransactionRepository transactionRepository = mock(InvestmentTransactionRepository.class);
+    private final InvestmentRepository investmentRepository = mock(InvestmentRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final InvestmentDailyValueService target = new InvestmentDailyValueService(assetPriceIndexService,
+            investmentDailyValueRepository, transactionRepository, investmentRepository, new TransactionTemplate(transactionManager));
+
+    @Test
+    void shouldSaveDailyValuesSinceFirstTransaction_whenNoValuesExist() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .symbol(ASSET_SYMBOL)
+                .price(ASSET_PRICE)
+                .type(InvestmentType.STOCK).build();
+        Investment investment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .asset(asset)
+                .type(InvestmentType.STOCK).build();
+
+        when(transactionRepository.findAllByInvestmentIdOrderByDateAsc(INVESTMENT_ID)).thenReturn(List.of(
+                InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(TODAY.minusDays(2)).quantity(BigDecimal.valueOf(2)).build(),
+                InvestmentTransaction.builder().type(InvestmentTransactionType.SELL).date(TODAY.minusDays(1)).quantity(BigDecimal.ONE).build()));
+        when(assetPriceIndexService.getLatestAssetPriceForDate(asset, TODAY.minusDays(2))).thenReturn(BigDecimal.valueOf(10));
+        when(assetPriceIndexService.getLatestAssetPriceForDate(asset, TODAY.minusDays(1))).thenReturn(BigDecimal.valueOf(12));
+        when(assetPriceIndexService.getLatestAssetPriceForDate(asset, TODAY)).thenReturn(BigDecimal.valueOf(11));
+
+
+        target.recalculate(investment, TODAY.minusDays(1));
+
+
+        verify(investmentDailyValueRepository).deleteAllByInvestmentIdBefore(INVESTMENT_ID, TODAY.minusDays(2));
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(investmentDailyValueRepository).upsertAll(captor.capture());
+        List<InvestmentDailyValue> values = captor.getValue();
+        Assertions.assertEquals(3, values.size());
+        Assertions.assertEquals(TODAY.minusDays(2), values.get(0).getDate());
+        Assertions.assertEquals(BigDecimal.valueOf(20).setScale(8, RoundingMode.HALF_UP), values.get(0).getValue());
+        Assertions.assertEquals(BigDecimal.valueOf(20).setScale(8, RoundingMode.HALF_UP), values.get(0).getCostBasis());
+        Assertions.assertEquals(BigDecimal.ONE.setScale(8, RoundingMode.HALF_UP), values.get(1).getQuantity());
+        Assertions.assertEquals(BigDecimal.valueOf(12).setScale(8, RoundingMode.HALF_UP), values.get(1).getProceeds());
+        Assertions.assertEquals(TODAY, values.get(2).getDate());
+        Assertions.assertEquals(BigDecimal.valueOf(3).setScale(8, RoundingMode.HALF_UP), values.get(2).getProfitLoss());
+    }
+
+    @Test
+    void shouldRecalculateFromDayAfterLatestValue_whenValuesAreMissingBeforeRequestedDate() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .symbol(ASSET_SYMBOL)
+                .price(ASSET_PRICE)
+                .type(InvestmentType.STOCK).build();
+        Investment investment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .asset(asset)
+                .type(InvestmentType.STOCK).build();
+
+        when(investmentDailyValueRepository.findLatestDate(INVESTMENT_ID)).thenReturn(TODAY.minusDays(5));
+        when(transactionRepository.findAllByInvestmentIdOrderByDateAsc(INVESTMENT_ID)).thenReturn(List.of(
+                InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(TODAY.minusDays(10)).quantity(BigDecimal.ONE).build()));
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(ASSET_PRICE);
+
+
+        target.recalculate(investment, TODAY.minusDays(1));
+
+
+        verify(investmentDailyValueRepository).deleteAllByInvestmentIdBefore(INVESTMENT_ID, TODAY.minusDays(10));
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(investmentDailyValueRepository).upsertAll(captor.capture());
+        List<InvestmentDailyValue> values = captor.getValue();
+        Assertions.assertEquals(5, values.size());
+        Assertions.assertEquals(TODAY.minusDays(4), values.get(0).getDate());
+        Assertions.assertEquals(BigDecimal.ONE.setScale(8, RoundingMode.HALF_UP), values.get(0).getQuantity());
+        Assertions.assertEquals(ASSET_PRICE.setScale(8, RoundingMode.HALF_UP), values.get(0).getCostBasis());
+    }
+
+    @Test
+    void shouldDeleteDailyValues_whenInvestmentHasNoTransactions() {
+        Investment investment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .type(InvestmentType.STOCK).build();
+
+        when(transactionRepository.findAllByInvestmentIdOrderByDateAsc(INVESTMENT_ID)).thenReturn(List.of());
+
+
+        target.recalculate(investment, TODAY);
+
+
+        verify(investmentDailyValueRepository).deleteAllByInvestmentId(INVESTMENT_ID);
+        verify(investmentDailyValueRepository, never()).upsertAll(any());
+    }
+
+    @Test
+    void shouldRecalculateEveryAssetInvestment() {
+        Investment investment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .type(InvestmentType.STOCK).build();
+
+        when(investmentRepository.findAllByAssetId(ASSET_ID)).thenReturn(List.of(investment));
+        when(transactionRepository.findAllByInvestmentIdOrderByDateAsc(INVESTMENT_ID)).thenReturn(List.of());
+
+
+        target.recalculateAssetInvestments(ASSET_ID, TODAY);
+
+
+        verify(transactionManager).commit(any());
+        verify(investmentDailyValueRepository).findLatestDate(INVESTMENT_ID);
+        verify(transactionRepository).findAllByInvestmentIdOrderByDateAsc(INVESTMENT_ID);
+    }
+
+    @Test
+    void shouldRefreshStaleUserValues() {
+        Investment stale = Investment.builder()
+                .id(INVESTMENT_ID)
+                .type(InvestmentType.STOCK).build();
+        Investment upToDate = Investment.builder()
+                .id(OTHER_INVESTMENT_ID)
+                .type(InvestmentType.STOCK).build();
+
+        when(investmentRepository.findAllByUserId(USER_ID)).thenReturn(List.of(stale, upToDate));
+        when(investmentDailyValueRepository.findLatestDates(List.of(INVESTMENT_ID, OTHER_INVESTMENT_ID))).thenReturn(List.of(
+                new Object[]{INVESTMENT_ID, TODAY.minusDays(3)}, new Object[]{OTHER_INVESTMENT_ID, TODAY}));
+        when(transactionRepository.findAllByInvestmentIdOrderByDateAsc(INVESTMENT_ID)).thenReturn(List.of());
+
+
+        target.refreshUserValues(USER_ID);
+
+
+        verify(transactionManager).commit(any());
+        verify(transactionRepository).findAllByInvestmentIdOrderByDateAsc(INVESTMENT_ID);
+        verify(transactionRepository, never()).findAllByInvestmentIdOrderByDateAsc(OTHER_INVESTMENT_ID);
+    }
+
+    @Test
+    void shouldDeleteInvestmentValues() {
+        target.deleteInvestmentValues(INVESTMENT_ID);
+
+
+        verify(investmentDailyValueRepository).deleteAllByInvestmentId(INVESTMENT_ID);
+    }
+
+    @Test
+    void shouldReturnDailyTotals_whenValuesAreUpToDate() {
+        Investment investment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .type(InvestmentType.STOCK).build();
+        InvestmentDailyValueTotal total = InvestmentDailyValueTotal.builder()
+                .date(TODAY)
+                .value(BigDecimal.TEN)
+                .costBasis(BigDecimal.ONE)
+                .proceeds(BigDecimal.ZERO).build();
+
+        when(investmentDailyValueRepository.sumByDate(List.of(INVESTMENT_ID), TODAY.minusDays(1), TODAY)).thenReturn(List.of(total));
+
+
+        Map<LocalDate, InvestmentDailyValueTotal> result = target.getDailyTotals(List.of(investment), TODAY.minusDays(1), TODAY);
+
+
+        verify(transactionRepository, never()).findAllByInvestmentIdOrderByDateAsc(anyString());
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(total, result.get(TODAY));
+    }
+
+    @Test
+    void shouldCarryLastValueForward_whenDaysAreNotMaterializedYet() {
+        Investment investment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .type(InvestmentType.STOCK).build();
+        Investment otherInvestment = Investment.builder()
+                .id(OTHER_INVESTMENT_ID)
+                .type(InvestmentType.STOCK).build();
+        InvestmentDailyValueTotal yesterday = InvestmentDailyValueTotal.builder()
+                .date(TODAY.minusDays(1))
+                .value(BigDecimal.valueOf(15))
+                .costBasis(BigDecimal.valueOf(3))
+                .proceeds(BigDecimal.ZERO).build();
+        InvestmentDailyValueTotal today = InvestmentDailyValueTotal.builder()
+                .date(TODAY)
+                .value(BigDecimal.valueOf(5))
+                .costBasis(BigDecimal.ONE)
+                .proceeds(BigDecimal.ZERO).build();
+        InvestmentDailyValue latest = InvestmentDailyValue.builder()
+                .investment(otherInvestment)
+                .date(TODAY.minusDays(1))
+                .value(BigDecimal.TEN)
+                .costBasis(BigDecimal.valueOf(2))
+                .proceeds(BigDecimal.ONE).build();
+
+        when(investmentDailyValueRepository.sumByDate(List.of(INVESTMENT_ID, OTHER_INVESTMENT_ID), TODAY.minusDays(1), TODAY))
+                .thenReturn(List.of(yesterday, today));
+        when(investmentDailyValueRepository.findAllLatestBefore(List.of(INVESTMENT_ID, OTHER_INVESTMENT_ID), TODAY))
+                .thenReturn(List.of(latest));
+
+
+        Map<LocalDate, InvestmentDailyValueTotal> result = target.getDailyTotals(List.of(investment, otherInvestment), TODAY.minusDays(1), TODAY);
+
+
+        Assertions.assertEquals(2, result.size());
+        Assertions.assertEquals(yesterday, result.get(TODAY.minusDays(1)));
+        Assertions.assertEquals(BigDecimal.valueOf(15), result.get(TODAY).getValue());
+        Assertions.assertEquals(BigDecimal.valueOf(3), result.get(TODAY).getCostBasis());
+        Assertions.assertEquals(BigDecimal.ONE, result.get(TODAY).getProceeds());
+    }
+
+    @Test
+    void shouldNotRecalculate_whenReturningDailyTotals() {
+        Investment investment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .type(InvestmentType.STOCK).build();
+
+
+        target.getDailyTotals(List.of(investment), TODAY.minusDays(1), TODAY);
+
+
+        verify(investmentDailyValueRepository).sumByDate(List.of(INVESTMENT_ID), TODAY.minusDays(1), TODAY);
+        verify(transactionRepository, never()).findAllByInvestmentIdOrderByDateAsc(anyString());
+        verify(investmentDailyValueRepository, never()).upsertAll(any());
+    }
+
+    @Test
+    void shouldNotQueryDailyTotals_whenThereAreNoInvestments() {
+        Map<LocalDate, InvestmentDailyValueTotal> result = target.getDailyTotals(List.of(), TODAY.minusDays(1), TODAY);
+
+
+        verify(investmentDailyValueRepository, never()).sumByDate(any(), any(), any());
+
+        Assertions.assertTrue(result.isEmpty());
+    }
+}
@@ -5,6 +5,7 @@ import com.github.ignasbudreika.portfollow.api.dto.response.InvestmentDTO;
 import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.event.PortfolioChangedEvent;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.exception.UnauthorizedException;
 import com.github.ignasbudreika.portfollow.external.client.AlphaVantageClient;
@@ -16,6 +17,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -29,6 +32,7 @@ import static org.mockito.Mockito.*;
 
 class InvestmentServiceTest {
     private static final String INVESTMENT_ID = "8d003914-3090-49be-8b68-a104bd388d51";
+    private static final String OTHER_INVESTMENT_ID = "2b4f6c1e-7d35-4a0b-9e62-5f0c8d7a1b93";
     private static final String USER_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
     private static final String USER_EMAIL = "test@e.mail";
     private static final String USER_USERNAME = "John Doe";
@@ -43,11 +47,15 @@ class InvestmentServiceTest {
     private final InvestmentTransactionService transactionService = mock(InvestmentTransactionService.class);
     private final InvestmentRepository investmentRepository = mock(InvestmentRepository.class);
     private final PortfolioHistoryRepository historyRepository = mock(PortfolioHistoryRepository.class);
+    private final InvestmentDailyValueService investmentDailyValueService = mock(InvestmentDailyValueService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
     private final InvestmentService target = new InvestmentService(assetService,
                                                                    portfolioHistoryService,
                                                                    transactionService,
                                                                    investmentRepository,
-                                                                   historyRepository);
+                                                                   historyRepository,
+                                                                   investmentDailyValueService,
+                                                                   eventPublisher);
 
     @Test
     void shouldReturnUserInvestments() {
@@ -312,6 +320,7 @@ class InvestmentServiceTest {
 
         Investment investment = Investment.builder()
                 .symbol(ASSET_SYMBOL)
+                .user(User.builder().id(USER_ID).build())
                 .date(LocalDate.of(2022, 12, 31))
                 .type(InvestmentType.CRYPTO)
                 .connectionId(CONNECTION_ID)
@@ -400,6 +409,7 @@ class InvestmentServiceTest {
 
         Investment investmentWithTx = Investment.builder()
                 .symbol(ASSET_SYMBOL)
+                .user(User.builder().id(USER_ID).build())
                 .date(LocalDate.of(2022, 12, 31))
                 .type(InvestmentType.CRYPTO)
                 .connectionId(CONNECTION_ID)
@@ -410,7 +420,7 @@ class InvestmentServiceTest {
         when(assetService.createAsset(ASSET_SYMBOL, InvestmentType.CRYPTO)).thenReturn(cryptoAsset);
         when(investmentRepository.findBySymbolAndConnectionId(ASSET_SYMBOL, CONNECTION_ID)).thenReturn(investmentWithTx);
         when(investmentRepository.save(any(Investment.class))).thenReturn(investmentWithTx);
-        when(transactionService.createTransaction(investmentWithTx, BigDecimal.TEN, InvestmentTransactionType.BUY, investment.getDate())).thenReturn(
+        when(transactionService.createTransaction(investmentWithTx, BigDecimal.TEN.setScale(8, RoundingMode.HALF_UP), InvestmentTransactionType.BUY, investment.getDate())).thenReturn(
                 InvestmentTransaction.builder()
                         .type(InvestmentTransactionType.BUY)
                         .quantity(BigDecimal.TEN)
@@ -425,7 +435,7 @@ class InvestmentServiceTest {
         verify(assetService).createAsset(investment.getSymbol(), investment.getType());
         verify(investmentRepository).findBySymbolAndConnectionId(ASSET_SYMBOL, CONNECTION_ID);
         verify(investmentRepository).save(any());
-        verify(transactionService).createTransaction(investmentWithTx, BigDecimal.TEN, InvestmentTransactionType.BUY, investment.getDate());
+        verify(transactionService).createTransaction(investmentWithTx, BigDecimal.TEN.setScale(8, RoundingMode.HALF_UP), InvestmentTransactionType.BUY, investment.getDate());
         verify(portfolioHistoryService).createOrUpdatePortfolioHistory(any());
 
         Assertions.assertFalse(result.getTransactions().isEmpty());
@@ -448,6 +458,7 @@ class InvestmentServiceTest {
 
         Investment investmentWithTx = Investment.builder()
                 .symbol(ASSET_SYMBOL)
+                .user(User.builder().id(USER_ID).build())
                 .date(LocalDate.of(2022, 12, 31))
                 .type(InvestmentType.CRYPTO)
                 .connectionId(CONNECTION_ID)
@@ -458,7 +469,7 @@ class InvestmentServiceTest {
         when(assetService.createAsset(ASSET_SYMBOL, InvestmentType.CRYPTO)).thenReturn(cryptoAsset);
         when(investmentRepository.findBySymbolAndConnectionId(ASSET_SYMBOL, CONNECTION_ID)).thenReturn(investmentWithTx);
         when(investmentRepository.save(any(Investment.class))).thenReturn(investmentWithTx);
-        when(transactionService.createTransaction(investmentWithTx, BigDecimal.valueOf(9), InvestmentTransactionType.SELL, investment.getDate())).thenReturn(
+        when(transactionService.createTransaction(investmentWithTx, BigDecimal.valueOf(9).setScale(8, RoundingMode.HALF_UP), InvestmentTransactionType.SELL, investment.getDate())).thenReturn(
                 InvestmentTransaction.builder()
                         .type(InvestmentTransactionType.SELL)
                         .quantity(BigDecimal.valueOf(9))
@@ -473,7 +484,7 @@ class InvestmentServiceTest {
         verify(assetService).createAsset(investment.getSymbol(), investment.getType());
         verify(investmentRepository).findBySymbolAndConnectionId(ASSET_SYMBOL, CONNECTION_ID);
         verify(investmentRepository).save(any());
-        verify(transactionService).createTransaction(investmentWithTx, BigDecimal.valueOf(9), InvestmentTransactionType.SELL, investment.getDate());
+        verify(transactionService).createTransaction(investmentWithTx, BigDecimal.valueOf(9).setScale(8, RoundingMode.HALF_UP), InvestmentTransactionType.SELL, investment.getDate());
         verify(portfolioHistoryService).createOrUpdatePortfolioHistory(any());
 
         Assertions.assertFalse(result.getTransactions().isEmpty());
@@ -537,23 +548,26 @@ class InvestmentServiceTest {
                 .date(LocalDate.now())
                 .type(InvestmentType.CRYPTO)
                 .connectionId(CONNECTION_ID)
-                .portfolioHistories(Set.of(PortfolioHistory.builder().investments(List.of(Investment.builder().id(INVESTMENT_ID).build())).build()))
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(LocalDate.now()).quantity(BigDecimal.TEN).build()))
                 .quantity(QUANTITY).build();
 
         when(investmentRepository.findById(INVESTMENT_ID)).thenReturn(Optional.of(investmentWithTx));
-        when(historyRepository.findAllByInvestmentsId(INVESTMENT_ID))
-                .thenReturn(Set.of(PortfolioHistory.builder().investments(List.of(Investment.builder().id(INVESTMENT_ID).build())).build()));
+        when(historyRepository.findAllByUserIdAndDateGreaterThanEqual(USER_ID, investmentWithTx.getDate()))
+                .thenReturn(List.of(
+                        PortfolioHistory.builder().investmentIds(new HashSet<>(Set.of(INVESTMENT_ID, OTHER_INVESTMENT_ID))).build(),
+                        PortfolioHistory.builder().investmentIds(new HashSet<>(Set.of(OTHER_INVESTMENT_ID))).build()));
 
 
         target.deleteInvestment(INVESTMENT_ID, user);
 
 
-        verify(investmentRepository).save(any(Investment.class));
-        verify(historyRepository).save(any(PortfolioHistory.class));
+        ArgumentCaptor<PortfolioHistory> historyCaptor = ArgumentCaptor.forClass(PortfolioHistory.class);
+        verify(historyRepository, times(1)).save(historyCaptor.capture());
+        Assertions.assertEquals(Set.of(OTHER_INVESTMENT_ID), historyCaptor.getValue().getInvestmentIds());
         ArgumentCaptor<Investment> captor = ArgumentCaptor.forClass(Investment.class);
         verify(investmentRepository).delete(captor.capture());
         Assertions.assertEquals(INVESTMENT_ID, captor.getValue().getId());
+        verify(investmentDailyValueService).deleteInvestmentValues(INVESTMENT_ID);
         verify(portfolioHistoryService).updatePortfolioHistoryValue(user, investmentWithTx.getDate());
     }
 
@@ -586,6 +600,7 @@ class InvestmentServiceTest {
         Investment connectionInvestment = Investment.builder()
                 .id(INVESTMENT_ID)
                 .connectionId(CONNECTION_ID)
+                .user(User.builder().id(USER_ID).build())
                 .updateType(InvestmentUpdateType.SPECTROCOIN).build();
 
         when(investmentRepository.findAllByConnectionId(CONNECTION_ID)).thenReturn(List.of(connectionInvestment));
@@ -656,9 +671,43 @@ class InvestmentServiceTest {
         if (createSince.isAfter(tx.getDate())) {
             verify(transactionService).createTransaction(periodicInvestment, BigDecimal.ONE.setScale(8, RoundingMode.HALF_UP), InvestmentTransactionType.BUY, date);
             verify(investmentRepository).save(any(Investment.class));
+            verify(eventPublisher).publishEvent(any(PortfolioChangedEvent.class));
         } else {
             verify(transactionService, never()).createTransaction(periodicInvestment, BigDecimal.ONE.setScale(8, RoundingMode.HALF_UP), InvestmentTransactionType.BUY, date);
             verify(investmentRepository, never()).save(any(Investment.class));
+            verify(eventPublisher, never()).publishEvent(any(PortfolioChangedEvent.class));
         }
     }
+
+    @Test
+    void shouldReturnUsersWithPeriodicInvestmentsDue_whenDateIsLastDayOfMonth() {
+        LocalDate date = LocalDate.of(2023, 2, 28);
+        User user = User.builder().id(USER_ID).build();
+
+        when(investmentRepository.findAllUsersWithPeriodicInvestmentsDue("", LocalDate.of(2023, 2, 27), LocalDate.of(2023, 2, 21),
+                LocalDate.of(2023, 1, 31), LocalDate.of(2022, 11, 30), LocalDate.of(2022, 2, 28), PageRequest.ofSize(500))).thenReturn(List.of(user));
+
+
+        List<User> result = new ArrayList<>();
+        target.getUsersWithPeriodicInvestmentsDue(date).forEach(result::add);
+
+
+        Assertions.assertEquals(List.of(user), result);
+    }
+
+    @Test
+    void shouldReturnUsersWithPeriodicInvestmentsDue() {
+        LocalDate date = LocalDate.of(2023, 3, 30);
+        User user = User.builder().id(USER_ID).build();
+
+        when(investmentRepository.findAllUsersWithPeriodicInvestmentsDue("", LocalDate.of(2023, 3, 29), LocalDate.of(2023, 3, 23),
+                LocalDate.of(2023, 2, 28), LocalDate.of(2022, 12, 30), LocalDate.of(2022, 3, 30), PageRequest.ofSize(500))).thenReturn(List.of(user));
+
+
+        List<User> result = new ArrayList<>();
+        target.getUsersWithPeriodicInvestmentsDue(date).forEach(result::add);
+
+
+        Assertions.assertEquals(List.of(user), result);
+    }
 }
@@ -3,6 +3,7 @@ package com.github.ignasbudreika.portfollow.service;
 import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.event.PortfolioChangedEvent;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.exception.UnauthorizedException;
 import com.github.ignasbudreika.portfollow.model.Investment;
@@ -12,6 +13,7 @@ import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
 import com.github.ignasbudreika.portfollow.repository.InvestmentTransactionRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -32,13 +34,16 @@ class InvestmentTransactionServiceTest {
     private final InvestmentTransactionRepository transactionRepository = mock(InvestmentTransactionRepository.class);
     private final InvestmentRepository investmentRepository = mock(InvestmentRepository.class);
     private final PortfolioHistoryService portfolioHistoryService = mock(PortfolioHistoryService.class);
-    private final InvestmentTransactionService target = new InvestmentTransactionService(transactionRepository, investmentRepository, portfolioHistoryService);
+    private final InvestmentDailyValueService investmentDailyValueService = mock(InvestmentDailyValueService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final InvestmentTransactionService target = new InvestmentTransactionService(transactionRepository, investmentRepository, portfolioHistoryService, investmentDailyValueService, eventPublisher);
 
     @Test
     void shouldCreateTransaction() throws BusinessLogicException {
         Investment investmentWithTx = Investment.builder()
                 .id(INVESTMENT_ID)
                 .symbol(ASSET_SYMBOL)
+                .user(User.builder().id(USER_ID).build())
                 .date(LocalDate.of(2023, 1, 1))
                 .type(InvestmentType.CRYPTO)
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(LocalDate.of(2023, 1, 1)).quantity(QUANTITY).build()))
@@ -55,6 +60,8 @@ class InvestmentTransactionServiceTest {
 
 
         verify(transactionRepository).save(any(InvestmentTransaction.class));
+        verify(investmentDailyValueService).recalculate(investmentWithTx, date);
+        verify(eventPublisher).publishEvent(any(PortfolioChangedEvent.class));
 
         Assertions.assertEquals(QUANTITY, result.getQuantity());
         Assertions.assertEquals(InvestmentTransactionType.BUY, result.getType());
@@ -133,6 +140,7 @@ class InvestmentTransactionServiceTest {
         verify(transactionRepository).findById(TRANSACTION_ID);
         verify(transactionRepository).deleteById(TRANSACTION_ID);
         verify(investmentRepository).save(any(Investment.class));
+        verify(investmentDailyValueService).recalculate(investmentWithTx, tx.getDate());
         verify(portfolioHistoryService).updatePortfolioHistoryValue(user, tx.getDate());
     }
 
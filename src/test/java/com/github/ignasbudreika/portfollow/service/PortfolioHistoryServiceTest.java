@@ -6,6 +6,7 @@ import com.github.ignasbudreika.portfollow.enums.HistoryType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentTransactionType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentType;
 import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
+import com.github.ignasbudreika.portfollow.event.PortfolioChangedEvent;
 import com.github.ignasbudreika.portfollow.model.*;
 import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
 import com.github.ignasbudreika.portfollow.repository.PortfolioHistoryRepository;
@@ -14,12 +15,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -33,16 +36,21 @@ class PortfolioHistoryServiceTest {
     private static final String ASSET_SYMBOL = "AAPL";
     private static final BigDecimal QUANTITY = BigDecimal.ONE;
     private static final String CONNECTION_ID = "43a29381-fd45-4fe7-8962-51973ca7ef9b";
+    private static final String INVESTMENT_ID = "a1fa6d4a-9a52-4e0a-a8f8-1c4b0d4e4b1e";
+    private static final String HISTORY_ID = "5e0d2c7b-61f4-4b8e-a3d9-0c7f2e9b4a16";
 
     private static final String USER_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
     private static final String USER_EMAIL = "test@e.mail";
     private static final String USER_USERNAME = "John Doe";
-    private final AssetService assetService = mock(AssetService.class);
+    private final AssetPriceIndexService assetPriceIndexService = mock(AssetPriceIndexService.class);
     private final StatisticsService statisticsService = mock(StatisticsService.class);
     private final PortfolioHistoryRepository portfolioHistoryRepository = mock(PortfolioHistoryRepository.class);
     private final InvestmentRepository investmentRepository = mock(InvestmentRepository.class);
+    private final PortfolioSeriesService portfolioSeriesService = mock(PortfolioSeriesService.class);
+    private final PortfolioHoldingsService portfolioHoldingsService = mock(PortfolioHoldingsService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
     private final PortfolioHistoryService target =
-            new PortfolioHistoryService(assetService, statisticsService, portfolioHistoryRepository, investmentRepository);
+            new PortfolioHistoryService(assetPriceIndexService, statisticsService, portfolioHistoryRepository, investmentRepository, portfolioSeriesService, portfolioHoldingsService, eventPublisher);
 
     @Test
     void shouldSaveLastKnownPortfolio_whenCurrentDayPortfolioDoesNotExist() {
@@ -66,14 +74,9 @@ class PortfolioHistoryServiceTest {
         when(portfolioHistoryRepository.findFirstByUserIdAndDate(eq(USER_ID), any())).thenReturn(null);
         when(portfolioHistoryRepository.findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(eq(USER_ID), any()))
                 .thenReturn(PortfolioHistory.builder()
-                                .investments(List.of(investmentWithTx))
+                                .investmentIds(Set.of(INVESTMENT_ID))
                                 .build());
-        when(portfolioHistoryRepository.save(any()))
-                .thenReturn(PortfolioHistory.builder()
-                        .user(User.builder().id(USER_ID).build())
-                        .value(QUANTITY.multiply(ASSET_PRICE).setScale(2, RoundingMode.HALF_UP))
-                        .investments(List.of(investmentWithTx))
-                        .build());
+        when(portfolioHoldingsService.getInvestments(any())).thenReturn(List.of(investmentWithTx));
 
 
         PortfolioHistory result = target.saveCurrentPortfolio(USER_ID);
@@ -81,7 +84,8 @@ class PortfolioHistoryServiceTest {
 
         verify(portfolioHistoryRepository).findFirstByUserIdAndDate(eq(USER_ID), any());
         verify(portfolioHistoryRepository).findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(eq(USER_ID), any());
-        verify(portfolioHistoryRepository).save(any());
+        verify(portfolioHistoryRepository).upsertAll(any());
+        verify(eventPublisher).publishEvent(any(PortfolioChangedEvent.class));
 
         Assertions.assertEquals(USER_ID, result.getUser().getId());
         Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).setScale(2, RoundingMode.HALF_UP), result.getValue());
@@ -91,12 +95,6 @@ class PortfolioHistoryServiceTest {
     void shouldCreateEmptyPortfolio_whenNoPortfoliosExist() {
         when(portfolioHistoryRepository.findFirstByUserIdAndDate(eq(USER_ID), any())).thenReturn(null);
         when(portfolioHistoryRepository.findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(eq(USER_ID), any())).thenReturn(null);
-        when(portfolioHistoryRepository.save(any()))
-                .thenReturn(PortfolioHistory.builder()
-                        .user(User.builder().id(USER_ID).build())
-                        .value(BigDecimal.ZERO)
-                        .investments(new ArrayList<>())
-                        .build());
 
 
         PortfolioHistory result = target.saveCurrentPortfolio(USER_ID);
@@ -104,7 +102,8 @@ class PortfolioHistoryServiceTest {
 
         verify(portfolioHistoryRepository).findFirstByUserIdAndDate(eq(USER_ID), any());
         verify(portfolioHistoryRepository).findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(eq(USER_ID), any());
-        verify(portfolioHistoryRepository).save(any());
+        verify(portfolioHistoryRepository).upsertAll(any());
+        verify(eventPublisher).publishEvent(any(PortfolioChangedEvent.class));
 
         Assertions.assertEquals(USER_ID, result.getUser().getId());
         Assertions.assertEquals(BigDecimal.ZERO, result.getValue());
@@ -131,27 +130,57 @@ class PortfolioHistoryServiceTest {
 
         when(portfolioHistoryRepository.findFirstByUserIdAndDate(eq(USER_ID), any()))
                 .thenReturn(PortfolioHistory.builder()
-                        .investments(List.of(investmentWithTx))
-                        .build());
-        when(portfolioHistoryRepository.save(any()))
-                .thenReturn(PortfolioHistory.builder()
-                        .user(User.builder().id(USER_ID).build())
-                        .value(QUANTITY.multiply(ASSET_PRICE).setScale(2, RoundingMode.HALF_UP))
-                        .investments(new ArrayList<>())
+                        .investmentIds(Set.of(INVESTMENT_ID))
                         .build());
+        when(portfolioHoldingsService.getInvestments(any())).thenReturn(List.of(investmentWithTx));
 
 
         PortfolioHistory result = target.saveCurrentPortfolio(USER_ID);
 
 
         verify(portfolioHistoryRepository).findFirstByUserIdAndDate(eq(USER_ID), any());
-        verify(portfolioHistoryRepository).save(any());
+        verify(portfolioHistoryRepository).upsertAll(any());
+        verify(eventPublisher).publishEvent(any(PortfolioChangedEvent.class));
 
         Assertions.assertEquals(USER_ID, result.getUser().getId());
         Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).setScale(2, RoundingMode.HALF_UP), result.getValue());
 
     }
 
+    @Test
+    void shouldNotPublishPortfolioChangedEvent_whenTodaysPortfolioValueDidNotChange() {
+        LocalDate date = LocalDate.now();
+
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(InvestmentType.CRYPTO).build();
+
+        Investment investmentWithTx = Investment.builder()
+                .symbol(ASSET_SYMBOL)
+                .asset(asset)
+                .date(date)
+                .type(InvestmentType.CRYPTO)
+                .connectionId(CONNECTION_ID)
+                .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(date).quantity(QUANTITY).build()))
+                .quantity(QUANTITY).build();
+
+        when(portfolioHistoryRepository.findFirstByUserIdAndDate(eq(USER_ID), any()))
+                .thenReturn(PortfolioHistory.builder()
+                        .value(QUANTITY.multiply(ASSET_PRICE))
+                        .investmentIds(Set.of(INVESTMENT_ID))
+                        .build());
+        when(portfolioHoldingsService.getInvestments(any())).thenReturn(List.of(investmentWithTx));
+
+
+        target.saveCurrentPortfolio(USER_ID);
+
+
+        verify(portfolioHistoryRepository).upsertAll(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void shouldInitPortfolio() {
         User user = User.builder()
@@ -215,8 +244,9 @@ class PortfolioHistoryServiceTest {
 
         when(portfolioHistoryRepository.findFirstByUserIdOrderByDateDesc(USER_ID))
                 .thenReturn(PortfolioHistory.builder()
-                .investments(investments)
+                .investmentIds(Set.of(INVESTMENT_ID))
                 .build());
+        when(portfolioHoldingsService.getInvestments(any())).thenReturn(investments);
         when(statisticsService.calculateTotalChange(anyCollection())).thenReturn(BigDecimal.TEN);
         when(statisticsService.calculateTrend(anyCollection())).thenReturn(BigDecimal.TEN);
 
@@ -259,22 +289,24 @@ class PortfolioHistoryServiceTest {
                 .quantity(QUANTITY).build());
 
         when(investmentRepository.findAllByUserId(USER_ID)).thenReturn(investments);
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(asset.getPrice());
+        when(portfolioSeriesService.getProfitLossSeries(eq(investments), any(), eq(date))).thenReturn(
+                List.of(DateValueDTO.builder().date(date).value(BigDecimal.ZERO).build()));
 
 
         List<DateValueDTO> result = target.getUserProfitLossHistory(user, historyType);
 
 
         verify(investmentRepository).findAllByUserId(USER_ID);
-
-        Assertions.assertFalse(result.isEmpty());
+        ArgumentCaptor<LocalDate> captor = ArgumentCaptor.forClass(LocalDate.class);
+        verify(portfolioSeriesService).getProfitLossSeries(eq(investments), captor.capture(), eq(date));
         switch (historyType) {
-            case WEEKLY -> Assertions.assertEquals(date.minusWeeks(1L), result.get(0).getDate());
-            case MONTHLY -> Assertions.assertEquals(date.minusMonths(1L), result.get(0).getDate());
-            case QUARTERLY -> Assertions.assertEquals(date.minusMonths(3L), result.get(0).getDate());
-            case ALL -> Assertions.assertEquals(LocalDate.of(2023, 1, 1), result.get(0).getDate());
+            case WEEKLY -> Assertions.assertEquals(date.minusWeeks(1L), captor.getValue());
+            case MONTHLY -> Assertions.assertEquals(date.minusMonths(1L), captor.getValue());
+            case QUARTERLY -> Assertions.assertEquals(date.minusMonths(3L), captor.getValue());
+            case ALL -> Assertions.assertEquals(LocalDate.of(2023, 1, 1), captor.getValue());
         }
-        Assertions.assertEquals(BigDecimal.ZERO.setScale(8, RoundingMode.HALF_UP), result.get(result.size() - 1).getValue());
+
+        Assertions.assertEquals(1, result.size());
     }
 
     @ParameterizedTest
@@ -303,22 +335,24 @@ class PortfolioHistoryServiceTest {
                 .quantity(QUANTITY).build());
 
         when(investmentRepository.findAllByUserId(USER_ID)).thenReturn(investments);
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(asset.getPrice());
+        when(portfolioSeriesService.getPerformanceSeries(eq(investments), any(), eq(date))).thenReturn(
+                List.of(DateValueDTO.builder().date(date).value(BigDecimal.ZERO).build()));
 
 
         List<DateValueDTO> result = target.getUserPerformanceHistory(user, historyType);
 
 
         verify(investmentRepository).findAllByUserId(USER_ID);
-
-        Assertions.assertFalse(result.isEmpty());
+        ArgumentCaptor<LocalDate> captor = ArgumentCaptor.forClass(LocalDate.class);
+        verify(portfolioSeriesService).getPerformanceSeries(eq(investments), captor.capture(), eq(date));
         switch (historyType) {
-            case WEEKLY -> Assertions.assertEquals(date.minusWeeks(1L), result.get(0).getDate());
-            case MONTHLY -> Assertions.assertEquals(date.minusMonths(1L), result.get(0).getDate());
-            case QUARTERLY -> Assertions.assertEquals(date.minusMonths(3L), result.get(0).getDate());
-            case ALL -> Assertions.assertEquals(LocalDate.of(2023, 1, 1), result.get(0).getDate());
+            case WEEKLY -> Assertions.assertEquals(date.minusWeeks(1L), captor.getValue());
+            case MONTHLY -> Assertions.assertEquals(date.minusMonths(1L), captor.getValue());
+            case QUARTERLY -> Assertions.assertEquals(date.minusMonths(3L), captor.getValue());
+            case ALL -> Assertions.assertEquals(LocalDate.of(2023, 1, 1), captor.getValue());
         }
-        Assertions.assertEquals(BigDecimal.ZERO, result.get(0).getValue());
+
+        Assertions.assertEquals(1, result.size());
     }
 
     @ParameterizedTest
@@ -332,10 +366,17 @@ class PortfolioHistoryServiceTest {
                 .username(USER_USERNAME).build();
 
         when(portfolioHistoryRepository.findAllByUserIdAndDateAfterOrderByDateAsc(eq(USER_ID), any())).thenReturn(
-                List.of(PortfolioHistory.builder()
-                        .date(date)
-                        .value(QUANTITY.multiply(ASSET_PRICE))
-                        .build()));
+                List.of(new PortfolioHistoryValue() {
+                    @Override
+                    public LocalDate getDate() {
+                        return date;
+                    }
+
+                    @Override
+                    public BigDecimal getValue() {
+                        return QUANTITY.multiply(ASSET_PRICE);
+                    }
+                }));
 
 
         List<DateValueDTO> result = target.getUserPortfolioHistory(user, historyType);
@@ -350,7 +391,7 @@ class PortfolioHistoryServiceTest {
 
     @Test
     void shouldCreatePortfolioHistoryBasedOnLastDaysPortfolio_whenLastDaysPortfolioExists() {
-        LocalDate date = LocalDate.now();
+        LocalDate date = LocalDate.now().minusDays(1);
 
         User user = User.builder()
                 .id(USER_ID)
@@ -363,6 +404,16 @@ class PortfolioHistoryServiceTest {
                 .symbol(ASSET_SYMBOL)
                 .type(InvestmentType.CRYPTO).build();
 
+        Investment previousInvestment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .symbol(ASSET_SYMBOL)
+                .user(user)
+                .asset(asset)
+                .date(date.minusDays(1))
+                .type(InvestmentType.CRYPTO)
+                .updateType(InvestmentUpdateType.MANUAL)
+                .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(date.minusDays(1)).quantity(QUANTITY).build()))
+                .quantity(QUANTITY).build();
         Investment investmentWithTx = Investment.builder()
                 .id(UUID.randomUUID().toString())
                 .symbol(ASSET_SYMBOL)
@@ -375,25 +426,31 @@ class PortfolioHistoryServiceTest {
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(date).quantity(QUANTITY).build()))
                 .quantity(QUANTITY).build();
 
-        when(portfolioHistoryRepository.findFirstByUserIdAndDate(eq(USER_ID), any())).thenReturn(null)
-                        .thenReturn(PortfolioHistory.builder()
-                                    .date(date)
-                                    .value(QUANTITY.multiply(ASSET_PRICE))
-                                    .investments(List.of(investmentWithTx))
-                                    .build());
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(asset.getPrice());
+        PortfolioHistory lastDaysPortfolioHistory = PortfolioHistory.builder()
+                .date(date.minusDays(1))
+                .value(QUANTITY.multiply(ASSET_PRICE))
+                .investmentIds(Set.of(INVESTMENT_ID))
+                .build();
+        when(portfolioHistoryRepository.findFirstByUserIdAndDateLessThanEqualOrderByDateDesc(USER_ID, date.minusDays(1))).thenReturn(lastDaysPortfolioHistory);
+        when(portfolioHoldingsService.getInvestmentsByDate(anyCollection())).thenReturn(Map.of(date.minusDays(1), List.of(previousInvestment)));
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(asset.getPrice());
 
 
         target.createOrUpdatePortfolioHistory(investmentWithTx);
 
 
-        verify(portfolioHistoryRepository).findFirstByUserIdAndDate(eq(USER_ID), any());
-        ArgumentCaptor<PortfolioHistory> captor = ArgumentCaptor.forClass(PortfolioHistory.class);
-        verify(portfolioHistoryRepository).save(captor.capture());
+        verify(portfolioHistoryRepository).findAllByUserIdAndDateGreaterThanEqual(USER_ID, date);
+        verify(portfolioHistoryRepository, never()).save(any());
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(portfolioHistoryRepository).upsertAll(captor.capture());
+        List<PortfolioHistory> histories = captor.getValue();
 
-        Assertions.assertEquals(investmentWithTx.getDate(), captor.getValue().getDate());
-        Assertions.assertFalse( captor.getValue().getInvestments().isEmpty());
-        Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).setScale(8, RoundingMode.HALF_UP), captor.getValue().getValue());
+        Assertions.assertEquals(2, histories.size());
+        Assertions.assertEquals(date, histories.get(0).getDate());
+        Assertions.assertEquals(Set.of(INVESTMENT_ID, investmentWithTx.getId()), histories.get(0).getInvestmentIds());
+        Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).multiply(BigDecimal.valueOf(2)).setScale(8, RoundingMode.HALF_UP), histories.get(0).getValue());
+        Assertions.assertEquals(LocalDate.now(), histories.get(1).getDate());
+        Assertions.assertEquals(Set.of(INVESTMENT_ID, investmentWithTx.getId()), histories.get(1).getInvestmentIds());
     }
 
     @Test
@@ -423,20 +480,23 @@ class PortfolioHistoryServiceTest {
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(date).quantity(QUANTITY).build()))
                 .quantity(QUANTITY).build();
 
-        when(portfolioHistoryRepository.findFirstByUserIdAndDate(eq(USER_ID), any())).thenReturn(null);
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(asset.getPrice());
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(asset.getPrice());
 
 
         target.createOrUpdatePortfolioHistory(investmentWithTx);
 
 
-        verify(portfolioHistoryRepository).findFirstByUserIdAndDate(eq(USER_ID), any());
-        ArgumentCaptor<PortfolioHistory> captor = ArgumentCaptor.forClass(PortfolioHistory.class);
-        verify(portfolioHistoryRepository).save(captor.capture());
+        verify(portfolioHistoryRepository).findAllByUserIdAndDateGreaterThanEqual(USER_ID, date);
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(portfolioHistoryRepository).upsertAll(captor.capture());
+        List<PortfolioHistory> histories = captor.getValue();
 
-        Assertions.assertEquals(investmentWithTx.getDate(), captor.getValue().getDate());
-        Assertions.assertFalse( captor.getValue().getInvestments().isEmpty());
-        Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).setScale(8, RoundingMode.HALF_UP), captor.getValue().getValue());
+        Assertions.assertEquals(1, histories.size());
+        Assertions.assertNull(histories.get(0).getId());
+        Assertions.assertEquals(investmentWithTx.getDate(), histories.get(0).getDate());
+        Assertions.assertEquals(USER_ID, histories.get(0).getUser().getId());
+        Assertions.assertTrue(histories.get(0).getInvestmentIds().contains(investmentWithTx.getId()));
+        Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).setScale(8, RoundingMode.HALF_UP), histories.get(0).getValue());
     }
 
     @Test
@@ -465,26 +525,29 @@ class PortfolioHistoryServiceTest {
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(date).quantity(QUANTITY).build()))
                 .quantity(QUANTITY).build();
 
-        when(portfolioHistoryRepository.findFirstByUserIdAndDate(eq(USER_ID), any()))
-                .thenReturn(PortfolioHistory.builder()
+        when(portfolioHistoryRepository.findAllByUserIdAndDateGreaterThanEqual(USER_ID, date))
+                .thenReturn(List.of(PortfolioHistory.builder()
+                        .id(HISTORY_ID)
                         .date(date)
                         .value(QUANTITY.multiply(ASSET_PRICE))
-                        .investments(List.of(investmentWithTx))
-                        .build());
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(asset.getPrice());
+                        .investmentIds(Set.of(investmentWithTx.getId()))
+                        .build()));
+        when(portfolioHoldingsService.getInvestmentsByDate(anyCollection())).thenReturn(Map.of(date, List.of(investmentWithTx)));
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(asset.getPrice());
 
 
         target.createOrUpdatePortfolioHistory(investmentWithTx);
 
 
-        verify(portfolioHistoryRepository).findFirstByUserIdAndDate(eq(USER_ID), any());
-        ArgumentCaptor<PortfolioHistory> captor = ArgumentCaptor.forClass(PortfolioHistory.class);
-        verify(portfolioHistoryRepository).save(captor.capture());
-
-        Assertions.assertEquals(investmentWithTx.getDate(), captor.getValue().getDate());
-        Assertions.assertFalse( captor.getValue().getInvestments().isEmpty());
-        Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).setScale(8, RoundingMode.HALF_UP), captor.getValue().getValue());
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(portfolioHistoryRepository).upsertAll(captor.capture());
+        List<PortfolioHistory> histories = captor.getValue();
 
+        Assertions.assertEquals(1, histories.size());
+        Assertions.assertEquals(HISTORY_ID, histories.get(0).getId());
+        Assertions.assertEquals(investmentWithTx.getDate(), histories.get(0).getDate());
+        Assertions.assertEquals(Set.of(investmentWithTx.getId()), histories.get(0).getInvestmentIds());
+        Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).setScale(8, RoundingMode.HALF_UP), histories.get(0).getValue());
     }
 
     @Test
@@ -511,20 +574,44 @@ class PortfolioHistoryServiceTest {
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(date).quantity(QUANTITY).build()))
                 .quantity(QUANTITY).build());
 
-        when(portfolioHistoryRepository.findFirstByUserIdAndDate(USER_ID, date)).thenReturn(
-                PortfolioHistory.builder()
+        when(portfolioHistoryRepository.findAllByUserIdAndDateGreaterThanEqual(USER_ID, date)).thenReturn(
+                List.of(PortfolioHistory.builder()
+                        .id(HISTORY_ID)
                         .date(date)
-                        .value(QUANTITY.multiply(ASSET_PRICE))
-                        .investments(investments)
-                        .build());
-        when(assetService.getLatestAssetPriceForDate(asset, date)).thenReturn(ASSET_PRICE);
+                        .value(BigDecimal.ZERO)
+                        .investmentIds(Set.of(INVESTMENT_ID))
+                        .build()));
+        when(portfolioHoldingsService.getInvestmentsByDate(anyCollection())).thenReturn(Map.of(date, investments));
+        when(assetPriceIndexService.getLatestAssetPriceForDate(asset, date)).thenReturn(ASSET_PRICE);
 
 
         target.updatePortfolioHistoryValue(user, date);
 
 
-        verify(portfolioHistoryRepository).findFirstByUserIdAndDate(USER_ID, date);
-        verify(assetService).getLatestAssetPriceForDate(asset, date);
-        verify(portfolioHistoryRepository).save(any());
+        verify(portfolioHistoryRepository).findAllByUserIdAndDateGreaterThanEqual(USER_ID, date);
+        verify(assetPriceIndexService).getLatestAssetPriceForDate(asset, date);
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(portfolioHistoryRepository).upsertAll(captor.capture());
+        List<PortfolioHistory> histories = captor.getValue();
+
+        Assertions.assertEquals(1, histories.size());
+        Assertions.assertEquals(HISTORY_ID, histories.get(0).getId());
+        Assertions.assertEquals(Set.of(INVESTMENT_ID), histories.get(0).getInvestmentIds());
+        Assertions.assertEquals(QUANTITY.multiply(ASSET_PRICE).setScale(8, RoundingMode.HALF_UP), histories.get(0).getValue());
+    }
+
+    @Test
+    void shouldNotWritePortfolioHistory_whenUpdatingValuesAndNoHistoryExists() {
+        User user = User.builder()
+                .id(USER_ID)
+                .email(USER_EMAIL)
+                .username(USER_USERNAME).build();
+
+
+        target.updatePortfolioHistoryValue(user, LocalDate.now());
+
+
+        verify(portfolioHoldingsService, never()).getInvestmentsByDate(any());
+        verify(portfolioHistoryRepository, never()).upsertAll(any());
     }
 }
@@ -0,0 +1,91 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.PortfolioHistory;
+import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PortfolioHoldingsServiceTest {
+    private static final String INVESTMENT_ID = "a1fa6d4a-9a52-4e0a-a8f8-1c4b0d4e4b1e";
+    private static final String OTHER_INVESTMENT_ID = "2b4f6c1e-7d35-4a0b-9e62-5f0c8d7a1b93";
+    private static final String USER_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
+    private static final LocalDate DATE = LocalDate.of(2023, 3, 1);
+
+    private final InvestmentRepository investmentRepository = mock(InvestmentRepository.class);
+    private final PortfolioHoldingsService target = new PortfolioHoldingsService(investmentRepository);
+
+    @Test
+    void shouldLoadInvestmentsById_whenHoldingsAreStored() {
+        PortfolioHistory history = PortfolioHistory.builder()
+                .user(User.builder().id(USER_ID).build())
+                .date(DATE)
+                .investmentIds(Set.of(INVESTMENT_ID)).build();
+
+        when(investmentRepository.findAllByIdIn(Set.of(INVESTMENT_ID))).thenReturn(List.of(Investment.builder().id(INVESTMENT_ID).build()));
+
+
+        Collection<Investment> result = target.getInvestments(history);
+
+
+        Assertions.assertEquals(1, result.size());
+        Assertions.assertEquals(INVESTMENT_ID, result.iterator().next().getId());
+    }
+
+    @Test
+    void shouldNotQueryInvestments_whenHoldingsAreEmpty() {
+        PortfolioHistory history = PortfolioHistory.builder()
+                .user(User.builder().id(USER_ID).build())
+                .date(DATE)
+                .investmentIds(new HashSet<>()).build();
+
+
+        Collection<Investment> result = target.getInvestments(history);
+
+
+        verify(investmentRepository, never()).findAllByIdIn(any());
+
+        Assertions.assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void shouldLoadInvestmentsOfEveryDayAtOnce() {
+        User user = User.builder().id(USER_ID).build();
+        Investment investment = Investment.builder().id(INVESTMENT_ID).date(DATE.minusDays(2)).build();
+        Investment laterInvestment = Investment.builder().id(OTHER_INVESTMENT_ID).date(DATE).build();
+
+        when(investmentRepository.findAllByIdIn(Set.of(INVESTMENT_ID, OTHER_INVESTMENT_ID))).thenReturn(List.of(investment, laterInvestment));
+
+
+        Map<LocalDate, Collection<Investment>> result = target.getInvestmentsByDate(List.of(
+                PortfolioHistory.builder().user(user).date(DATE.minusDays(1)).investmentIds(Set.of(INVESTMENT_ID)).build(),
+                PortfolioHistory.builder().user(user).date(DATE).investmentIds(Set.of(INVESTMENT_ID, OTHER_INVESTMENT_ID)).build(),
+                PortfolioHistory.builder().user(user).date(DATE.plusDays(1)).investmentIds(Set.of(OTHER_INVESTMENT_ID)).build()));
+
+
+        verify(investmentRepository, times(1)).findAllByIdIn(any());
+
+        Assertions.assertEquals(List.of(investment), result.get(DATE.minusDays(1)));
+        Assertions.assertEquals(2, result.get(DATE).size());
+        Assertions.assertEquals(List.of(laterInvestment), result.get(DATE.plusDays(1)));
+    }
+
+    @Test
+    void shouldReturnInvestmentIds() {
+        Set<String> result = PortfolioHoldingsService.getIds(List.of(Investment.builder().id(INVESTMENT_ID).build()));
+
+
+        Assertions.assertEquals(Set.of(INVESTMENT_ID), result);
+    }
+}
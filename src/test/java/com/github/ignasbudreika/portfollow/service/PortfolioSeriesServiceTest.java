@@ -0,0 +1,156 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.api.dto.response.DateValueDTO;
+import com.github.ignasbudreika.portfollow.enums.InvestmentType;
+import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValueTotal;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PortfolioSeriesServiceTest {
+    private static final String INVESTMENT_ID = "a1fa6d4a-9a52-4e0a-a8f8-1c4b0d4e4b1e";
+    private static final String ASSET_SYMBOL = "AAPL";
+    private static final BigDecimal QUANTITY = BigDecimal.ONE;
+    private static final LocalDate DATE = LocalDate.of(2023, 3, 1);
+
+    private final InvestmentDailyValueService investmentDailyValueService = mock(InvestmentDailyValueService.class);
+    private final PortfolioSeriesService target = new PortfolioSeriesService(investmentDailyValueService);
+
+    @Test
+    void shouldReturnZeroProfitLoss_whenPriceDoesNotChange() {
+        List<Investment> investments = List.of(Investment.builder()
+                .id(INVESTMENT_ID)
+                .symbol(ASSET_SYMBOL)
+                .date(DATE)
+                .type(InvestmentType.CRYPTO)
+                .quantity(QUANTITY).build());
+
+        Map<LocalDate, InvestmentDailyValueTotal> totals = new HashMap<>();
+        totals.put(DATE, total(DATE, 10, 10, 0));
+        when(investmentDailyValueService.getDailyTotals(investments, DATE.minusWeeks(1L), DATE)).thenReturn(totals);
+
+
+        List<DateValueDTO> result = target.getProfitLossSeries(investments, DATE.minusWeeks(1L), DATE);
+
+
+        Assertions.assertEquals(8, result.size());
+        Assertions.assertEquals(DATE.minusWeeks(1L), result.get(0).getDate());
+        Assertions.assertEquals(DATE, result.get(result.size() - 1).getDate());
+        Assertions.assertEquals(BigDecimal.ZERO.setScale(8, RoundingMode.HALF_UP), result.get(result.size() - 1).getValue());
+    }
+
+    @Test
+    void shouldReturnProfitLossSeries_whenInvestmentIsBoughtAndPartiallySold() {
+        List<Investment> investments = List.of(Investment.builder()
+                .id(INVESTMENT_ID)
+                .symbol(ASSET_SYMBOL)
+                .date(DATE)
+                .type(InvestmentType.STOCK)
+                .quantity(BigDecimal.ONE).build());
+
+        Map<LocalDate, InvestmentDailyValueTotal> totals = new HashMap<>();
+        totals.put(DATE, total(DATE, 20, 20, 0));
+        totals.put(DATE.plusDays(1), total(DATE.plusDays(1), 20, 20, 0));
+        totals.put(DATE.plusDays(2), total(DATE.plusDays(2), 24, 20, 0));
+        totals.put(DATE.plusDays(3), total(DATE.plusDays(3), 13, 20, 13));
+        totals.put(DATE.plusDays(4), total(DATE.plusDays(4), 11, 20, 13));
+        when(investmentDailyValueService.getDailyTotals(investments, DATE.minusDays(1), DATE.plusDays(4))).thenReturn(totals);
+
+
+        List<DateValueDTO> result = target.getProfitLossSeries(investments, DATE.minusDays(1), DATE.plusDays(4));
+
+
+        verify(investmentDailyValueService, times(1)).getDailyTotals(investments, DATE.minusDays(1), DATE.plusDays(4));
+
+        Assertions.assertEquals(6, result.size());
+        Assertions.assertEquals(BigDecimal.ZERO.setScale(8, RoundingMode.HALF_UP), result.get(0).getValue());
+        Assertions.assertEquals(BigDecimal.ZERO.setScale(8, RoundingMode.HALF_UP), result.get(1).getValue());
+        Assertions.assertEquals(BigDecimal.ZERO.setScale(8, RoundingMode.HALF_UP), result.get(2).getValue());
+        Assertions.assertEquals(BigDecimal.valueOf(4).setScale(8, RoundingMode.HALF_UP), result.get(3).getValue());
+        Assertions.assertEquals(BigDecimal.valueOf(6).setScale(8, RoundingMode.HALF_UP), result.get(4).getValue());
+        Assertions.assertEquals(BigDecimal.valueOf(4).setScale(8, RoundingMode.HALF_UP), result.get(5).getValue());
+    }
+
+    @Test
+    void shouldReturnZeroPerformance_whenPriceDoesNotChange() {
+        List<Investment> investments = List.of(Investment.builder()
+                .id(INVESTMENT_ID)
+                .symbol(ASSET_SYMBOL)
+                .date(DATE)
+                .type(InvestmentType.CRYPTO)
+                .quantity(QUANTITY).build());
+
+        Map<LocalDate, InvestmentDailyValueTotal> totals = new HashMap<>();
+        totals.put(DATE, total(DATE, 10, 10, 0));
+        when(investmentDailyValueService.getDailyTotals(investments, DATE.minusWeeks(1L), DATE)).thenReturn(totals);
+
+
+        List<DateValueDTO> result = target.getPerformanceSeries(investments, DATE.minusWeeks(1L), DATE);
+
+
+        Assertions.assertEquals(8, result.size());
+        Assertions.assertEquals(DATE.minusWeeks(1L), result.get(0).getDate());
+        Assertions.assertEquals(BigDecimal.ZERO, result.get(0).getValue());
+        Assertions.assertEquals(BigDecimal.ZERO.setScale(6, RoundingMode.HALF_UP), result.get(result.size() - 1).getValue());
+    }
+
+    @Test
+    void shouldReturnPerformanceSeries_whenInvestmentIsBoughtAndPartiallySold() {
+        List<Investment> investments = List.of(Investment.builder()
+                .id(INVESTMENT_ID)
+                .symbol(ASSET_SYMBOL)
+                .date(DATE)
+                .type(InvestmentType.STOCK)
+                .quantity(BigDecimal.ONE).build());
+
+        Map<LocalDate, InvestmentDailyValueTotal> totals = new HashMap<>();
+        totals.put(DATE, total(DATE, 20, 20, 0));
+        totals.put(DATE.plusDays(1), total(DATE.plusDays(1), 24, 20, 0));
+        totals.put(DATE.plusDays(2), total(DATE.plusDays(2), 22, 20, 0));
+        totals.put(DATE.plusDays(3), total(DATE.plusDays(3), 13, 20, 13));
+        when(investmentDailyValueService.getDailyTotals(investments, DATE, DATE.plusDays(3))).thenReturn(totals);
+
+
+        List<DateValueDTO> result = target.getPerformanceSeries(investments, DATE, DATE.plusDays(3));
+
+
+        Assertions.assertEquals(4, result.size());
+        Assertions.assertEquals(BigDecimal.ZERO.setScale(6, RoundingMode.HALF_UP), result.get(0).getValue());
+        Assertions.assertEquals(BigDecimal.valueOf(20).setScale(6, RoundingMode.HALF_UP), result.get(1).getValue());
+        Assertions.assertEquals(BigDecimal.valueOf(10).setScale(6, RoundingMode.HALF_UP), result.get(2).getValue());
+        Assertions.assertEquals(BigDecimal.valueOf(30).setScale(6, RoundingMode.HALF_UP), result.get(3).getValue());
+    }
+
+    @Test
+    void shouldReturnZeroSeries_whenThereAreNoInvestments() {
+        when(investmentDailyValueService.getDailyTotals(any(), any(), any())).thenReturn(new HashMap<>());
+
+
+        List<DateValueDTO> profitLoss = target.getProfitLossSeries(List.of(), DATE, DATE.plusDays(1));
+        List<DateValueDTO> performance = target.getPerformanceSeries(List.of(), DATE, DATE.plusDays(1));
+
+
+        Assertions.assertEquals(2, profitLoss.size());
+        Assertions.assertEquals(BigDecimal.ZERO, profitLoss.get(1).getValue());
+        Assertions.assertEquals(2, performance.size());
+        Assertions.assertEquals(BigDecimal.ZERO, performance.get(1).getValue());
+    }
+
+    private static InvestmentDailyValueTotal total(LocalDate date, long value, long costBasis, long proceeds) {
+        return InvestmentDailyValueTotal.builder()
+                .date(date)
+                .value(BigDecimal.valueOf(value).setScale(8, RoundingMode.HALF_UP))
+                .costBasis(BigDecimal.valueOf(costBasis).setScale(8, RoundingMode.HALF_UP))
+                .proceeds(BigDecimal.valueOf(proceeds).setScale(8, RoundingMode.HALF_UP)).build();
+    }
+}
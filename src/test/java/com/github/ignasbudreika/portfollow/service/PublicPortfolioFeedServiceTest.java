@@ -0,0 +1,110 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.api.dto.response.DateValueDTO;
+import com.github.ignasbudreika.portfollow.enums.HistoryType;
+import com.github.ignasbudreika.portfollow.event.PortfolioSettingsChangedEvent;
+import com.github.ignasbudreika.portfollow.model.Portfolio;
+import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.repository.PortfolioRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+class PublicPortfolioFeedServiceTest {
+    private static final String PORTFOLIO_ID = "11111111-cb6f-49ac-bdab-c78575f50825";
+    private static final String USER_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
+    private static final String USER_EMAIL = "test@e.mail";
+    private static final String USER_USERNAME = "John Doe";
+    private final PortfolioRepository portfolioRepository = mock(PortfolioRepository.class);
+    private final PortfolioHistoryService portfolioHistoryService = mock(PortfolioHistoryService.class);
+    private final PublicPortfolioFeedService target = new PublicPortfolioFeedService(portfolioRepository, portfolioHistoryService);
+
+    private final User user = User.builder()
+            .id(USER_ID)
+            .email(USER_EMAIL)
+            .username(USER_USERNAME).build();
+    private final Portfolio portfolio = Portfolio.builder()
+            .title("portfolio")
+            .description("description")
+            .hiddenValue(false)
+            .published(true)
+            .user(user).id(PORTFOLIO_ID).build();
+
+    @Test
+    void shouldReturnPublicPortfolios() {
+        when(portfolioRepository.findAllByPublished(true)).thenReturn(List.of(portfolio));
+        when(portfolioHistoryService.getUserProfitLossHistory(user, HistoryType.MONTHLY))
+                .thenReturn(List.of(DateValueDTO.builder().date(LocalDate.now()).value(BigDecimal.TEN).build()));
+        target.onApplicationReady();
+
+
+        PublicPortfolioFeedService.Page result = target.getPage(0);
+
+
+        verify(portfolioRepository).findAllByPublished(true);
+        verify(portfolioHistoryService).getUserProfitLossHistory(user, HistoryType.MONTHLY);
+
+        Assertions.assertEquals(1, result.getContent().getPortfolios().length);
+        Assertions.assertEquals(portfolio.getTitle(), result.getContent().getPortfolios()[0].getTitle());
+        Assertions.assertEquals(portfolio.getDescription(), result.getContent().getPortfolios()[0].getDescription());
+        Assertions.assertEquals(1, result.getContent().getPortfolios()[0].getHistory().length);
+        Assertions.assertFalse(result.getContent().isMore());
+        Assertions.assertNotNull(result.getETag());
+    }
+
+    @Test
+    void shouldServeEmptyPage_untilFeedIsBuilt() {
+        PublicPortfolioFeedService.Page result = target.getPage(0);
+
+
+        verifyNoInteractions(portfolioRepository, portfolioHistoryService);
+
+        Assertions.assertEquals(0, result.getContent().getPortfolios().length);
+        Assertions.assertFalse(result.getContent().isMore());
+    }
+
+    @Test
+    void shouldServePrecomputedPages_untilRefreshed() {
+        when(portfolioRepository.findAllByPublished(true)).thenReturn(List.of(portfolio));
+        when(portfolioHistoryService.getUserProfitLossHistory(user, HistoryType.MONTHLY))
+                .thenReturn(List.of(DateValueDTO.builder().date(LocalDate.now()).value(BigDecimal.TEN).build()));
+        target.onApplicationReady();
+
+
+        PublicPortfolioFeedService.Page first = target.getPage(0);
+        PublicPortfolioFeedService.Page second = target.getPage(0);
+        target.refresh();
+        PublicPortfolioFeedService.Page refreshed = target.getPage(0);
+
+
+        verify(portfolioHistoryService, times(2)).getUserProfitLossHistory(user, HistoryType.MONTHLY);
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(first.getETag(), refreshed.getETag());
+    }
+
+    @Test
+    void shouldRemoveEntry_whenPortfolioIsUnpublished() {
+        when(portfolioRepository.findAllByPublished(true)).thenReturn(List.of(portfolio));
+        when(portfolioHistoryService.getUserProfitLossHistory(user, HistoryType.MONTHLY)).thenReturn(List.of());
+        target.refresh();
+        String eTag = target.getPage(0).getETag();
+        when(portfolioRepository.findById(PORTFOLIO_ID)).thenReturn(Optional.of(Portfolio.builder()
+                .id(PORTFOLIO_ID)
+                .published(false)
+                .user(user).build()));
+
+
+        target.onPortfolioSettingsChanged(new PortfolioSettingsChangedEvent(PORTFOLIO_ID, USER_ID));
+
+
+        PublicPortfolioFeedService.Page result = target.getPage(0);
+        Assertions.assertEquals(0, result.getContent().getPortfolios().length);
+        Assertions.assertNotEquals(eTag, result.getETag());
+    }
+}
@@ -14,7 +14,6 @@ import com.github.ignasbudreika.portfollow.repository.PortfolioRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.springframework.data.domain.PageImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -37,37 +36,6 @@ class PublicPortfolioServiceTest {
     private final PortfolioHistoryService portfolioHistoryService = mock(PortfolioHistoryService.class);
     private final PublicPortfolioService target = new PublicPortfolioService(portfolioRepository, statisticsService, commentRepository, investmentRepository, portfolioHistoryService);
 
-    @Test
-    void shouldReturnPublicPortfolios() {
-        User user = User.builder()
-                .id(USER_ID)
-                .email(USER_EMAIL)
-                .username(USER_USERNAME).build();
-
-        Portfolio portfolio = Portfolio.builder()
-                .title("portfolio")
-                .description("description")
-                .hiddenValue(false)
-                .published(true)
-                .user(user).id(PORTFOLIO_ID).build();
-
-        when(portfolioRepository.findAllByPublished(eq(true), any())).thenReturn(new PageImpl<>(List.of(portfolio)));
-        when(portfolioHistoryService.getUserProfitLossHistory(user, HistoryType.MONTHLY))
-                .thenReturn(List.of(DateValueDTO.builder().date(LocalDate.now()).value(BigDecimal.TEN).build()));
-
-
-        PublicPortfolioListDTO result = target.getPublicPortfolios(0);
-
-
-        verify(portfolioRepository).findAllByPublished(eq(true), any());
-        verify(portfolioHistoryService).getUserProfitLossHistory(user, HistoryType.MONTHLY);
-
-        Assertions.assertEquals(1, result.getPortfolios().length);
-        Assertions.assertEquals(portfolio.getTitle(), result.getPortfolios()[0].getTitle());
-        Assertions.assertEquals(portfolio.getDescription(), result.getPortfolios()[0].getDescription());
-        Assertions.assertEquals(1, result.getPortfolios()[0].getHistory().length);
-    }
-
     @Test
     void shouldReturnPublicPortfolioById() {
         User user = User.builder()
@@ -2,14 +2,17 @@ package com.github.ignasbudreika.portfollow.service;
 
 import com.github.ignasbudreika.portfollow.api.dto.request.SettingsUpdateDTO;
 import com.github.ignasbudreika.portfollow.api.dto.response.SettingsDTO;
+import com.github.ignasbudreika.portfollow.event.PortfolioSettingsChangedEvent;
 import com.github.ignasbudreika.portfollow.model.Portfolio;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.repository.PortfolioRepository;
 import com.github.ignasbudreika.portfollow.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class SettingsServiceTest {
@@ -24,7 +27,8 @@ class SettingsServiceTest {
 
     private final PortfolioRepository portfolioRepository = mock(PortfolioRepository.class);
     private final UserRepository userRepository = mock(UserRepository.class);
-    private final SettingsService target = new SettingsService(portfolioRepository, userRepository);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SettingsService target = new SettingsService(portfolioRepository, userRepository, eventPublisher);
 
     @Test
     void shouldGetUserSettings() {
@@ -133,6 +137,7 @@ class SettingsServiceTest {
         assertEquals(settingsUpdate.getDescription(), captor.getValue().getDescription());
         assertEquals(settingsUpdate.isPublic(), captor.getValue().isPublished());
         assertEquals(settingsUpdate.isHideValue(), captor.getValue().isHiddenValue());
+        verify(eventPublisher).publishEvent(any(PortfolioSettingsChangedEvent.class));
 
         assertEquals(settingsUpdate.getDescription(), result.getPortfolioInfo().getDescription());
         assertEquals(settingsUpdate.isPublic(), result.getPortfolioInfo().isPublic());
@@ -15,6 +15,7 @@ import org.junit.jupiter.params.provider.EnumSource;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 
@@ -31,8 +32,11 @@ class StatisticsServiceTest {
     private static final BigDecimal ASSET_PRICE = BigDecimal.TEN;
     private static final String ASSET_SYMBOL = "ETH";
     private final AssetService assetService = mock(AssetService.class);
+    private final AssetPriceIndexService assetPriceIndexService = mock(AssetPriceIndexService.class);
     private final PortfolioHistoryRepository portfolioHistoryRepository = mock(PortfolioHistoryRepository.class);
-    private final StatisticsService target = new StatisticsService(assetService, portfolioHistoryRepository);
+    private final PortfolioHoldingsService portfolioHoldingsService = mock(PortfolioHoldingsService.class);
+    private final AssetPriceCacheService assetPriceCacheService = mock(AssetPriceCacheService.class);
+    private final StatisticsService target = new StatisticsService(assetService, assetPriceIndexService, portfolioHistoryRepository, portfolioHoldingsService, assetPriceCacheService);
 
     @Test
     void shouldGetAssetDayTrend() {
@@ -42,16 +46,39 @@ class StatisticsServiceTest {
                 .symbol(ASSET_SYMBOL)
                 .type(InvestmentType.CRYPTO).build();
 
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
 
 
         BigDecimal result = target.getAssetDayTrend(asset);
 
 
-        verify(assetService).getLatestAssetPriceForDate(eq(asset), any());
+        verify(assetPriceIndexService).getLatestAssetPriceForDate(eq(asset), any());
         Assertions.assertEquals(BigDecimal.valueOf(900).setScale(4, RoundingMode.HALF_UP), result);
     }
 
+    @Test
+    void shouldGetAssetDayTrendFromCachedPrice() {
+        Asset asset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(InvestmentType.CRYPTO).build();
+
+        when(assetPriceCacheService.get(ASSET_SYMBOL, InvestmentType.CRYPTO)).thenReturn(AssetPrice.builder()
+                .symbol(ASSET_SYMBOL)
+                .type(InvestmentType.CRYPTO)
+                .price(BigDecimal.valueOf(12))
+                .previousClose(BigDecimal.valueOf(8))
+                .updatedAt(LocalDateTime.now()).build());
+
+
+        BigDecimal result = target.getAssetDayTrend(asset);
+
+
+        verifyNoInteractions(assetPriceIndexService);
+        Assertions.assertEquals(BigDecimal.valueOf(50).setScale(4, RoundingMode.HALF_UP), result);
+    }
+
     @Test
     void shouldGetInvestmentTotalChange() {
         Asset asset = Asset.builder()
@@ -67,13 +94,13 @@ class StatisticsServiceTest {
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(LocalDate.of(2023, 1, 1)).quantity(QUANTITY).build()))
                 .quantity(QUANTITY).build();
 
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
 
 
         BigDecimal result = target.getInvestmentTotalChange(investmentWithTx);
 
 
-        verify(assetService).getLatestAssetPriceForDate(eq(asset), any());
+        verify(assetPriceIndexService).getLatestAssetPriceForDate(eq(asset), any());
         Assertions.assertEquals(BigDecimal.valueOf(9).setScale(8, RoundingMode.HALF_UP), result);
     }
 
@@ -99,13 +126,13 @@ class StatisticsServiceTest {
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(LocalDate.of(2023, 1, 1)).quantity(QUANTITY).build()))
                 .quantity(QUANTITY).build();
 
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
 
 
         BigDecimal result = target.calculateTotalChange(List.of(investmentWithTx, secondInvestmentWithTx));
 
 
-        verify(assetService, times(2)).getLatestAssetPriceForDate(eq(asset), any());
+        verify(assetPriceIndexService, times(2)).getLatestAssetPriceForDate(eq(asset), any());
         Assertions.assertEquals(BigDecimal.valueOf(18).setScale(8, RoundingMode.HALF_UP), result);
     }
 
@@ -131,13 +158,13 @@ class StatisticsServiceTest {
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(LocalDate.of(2023, 1, 1)).quantity(QUANTITY).build()))
                 .quantity(QUANTITY).build();
 
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
 
 
         BigDecimal result = target.calculateTrend(List.of(investmentWithTx, secondInvestmentWithTx));
 
 
-        verify(assetService, times(2)).getLatestAssetPriceForDate(eq(asset), any());
+        verify(assetPriceIndexService, times(2)).getLatestAssetPriceForDate(eq(asset), any());
         Assertions.assertEquals(BigDecimal.valueOf(900).setScale(6, RoundingMode.HALF_UP), result);
     }
 
@@ -163,13 +190,13 @@ class StatisticsServiceTest {
                 .transactions(Set.of(InvestmentTransaction.builder().type(InvestmentTransactionType.BUY).date(LocalDate.of(2023, 1, 1)).quantity(QUANTITY).build()))
                 .quantity(QUANTITY).build();
 
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE);
 
 
         BigDecimal result = target.calculateTotalPerformance(List.of(investmentWithTx, secondInvestmentWithTx));
 
 
-        verify(assetService, times(2)).getLatestAssetPriceForDate(eq(asset), any());
+        verify(assetPriceIndexService, times(2)).getLatestAssetPriceForDate(eq(asset), any());
         Assertions.assertEquals(BigDecimal.valueOf(900).setScale(6, RoundingMode.HALF_UP), result);
     }
 
@@ -183,14 +210,14 @@ class StatisticsServiceTest {
                 .type(InvestmentType.STOCK).build();
 
         when(assetService.getAsset("SPY", InvestmentType.STOCK)).thenReturn(asset);
-        when(assetService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE).thenReturn(BigDecimal.TEN);
+        when(assetPriceIndexService.getLatestAssetPriceForDate(eq(asset), any())).thenReturn(BigDecimal.ONE).thenReturn(BigDecimal.TEN);
 
 
         List<DateValueDTO> result = target.getComparisonPerformanceHistory(type);
 
 
         verify(assetService).getAsset(asset.getSymbol(), asset.getType());
-        verify(assetService, atLeast(2)).getLatestAssetPriceForDate(eq(asset), any());
+        verify(assetPriceIndexService, atLeast(2)).getLatestAssetPriceForDate(eq(asset), any());
         Assertions.assertFalse(result.isEmpty());
     }
 
@@ -216,10 +243,10 @@ class StatisticsServiceTest {
 
         PortfolioHistory portfolioHistory = PortfolioHistory.builder()
                 .user(user)
-                .investments(List.of(investmentWithTx))
                 .value(BigDecimal.TEN).build();
 
         when(portfolioHistoryRepository.findFirstByUserIdOrderByDateDesc(user.getId())).thenReturn(portfolioHistory);
+        when(portfolioHoldingsService.getInvestments(portfolioHistory)).thenReturn(List.of(investmentWithTx));
 
 
         List<PortfolioDistributionDTO> result = target.getUserPortfolioDistribution(user);
@@ -229,7 +256,7 @@ class StatisticsServiceTest {
 
         Assertions.assertEquals(1, result.size());
         Assertions.assertEquals(asset.getType().toString(), result.get(0).getLabel());
-        Assertions.assertEquals(BigDecimal.TEN, result.get(0).getValue());
+        Assertions.assertEquals(BigDecimal.TEN.setScale(8, RoundingMode.HALF_UP), result.get(0).getValue());
         Assertions.assertEquals(new BigDecimal("100").setScale(2, RoundingMode.HALF_UP), result.get(0).getPercentage());
     }
 
@@ -267,10 +294,10 @@ class StatisticsServiceTest {
 
         PortfolioHistory portfolioHistory = PortfolioHistory.builder()
                 .user(user)
-                .investments(List.of(cryptoInvestmentWithTx, stockInvestmentWithTx))
                 .value(BigDecimal.TEN).build();
 
         when(portfolioHistoryRepository.findFirstByUserIdOrderByDateDesc(user.getId())).thenReturn(portfolioHistory);
+        when(portfolioHoldingsService.getInvestments(portfolioHistory)).thenReturn(List.of(cryptoInvestmentWithTx, stockInvestmentWithTx));
 
 
         List<PortfolioDistributionDTO> result = target.getUserPortfolioDistributionByType(user, InvestmentType.CRYPTO);
@@ -280,7 +307,7 @@ class StatisticsServiceTest {
 
         Assertions.assertEquals(1, result.size());
         Assertions.assertEquals(cryptoAsset.getSymbol(), result.get(0).getLabel());
-        Assertions.assertEquals(BigDecimal.TEN, result.get(0).getValue());
+        Assertions.assertEquals(BigDecimal.TEN.setScale(8, RoundingMode.HALF_UP), result.get(0).getValue());
         Assertions.assertEquals(new BigDecimal("100").setScale(2, RoundingMode.HALF_UP), result.get(0).getPercentage());
 
     }
@@ -9,6 +9,7 @@ import com.github.ignasbudreika.portfollow.enums.InvestmentUpdateType;
 import com.github.ignasbudreika.portfollow.exception.BusinessLogicException;
 import com.github.ignasbudreika.portfollow.model.Asset;
 import com.github.ignasbudreika.portfollow.model.Investment;
+import com.github.ignasbudreika.portfollow.model.InvestmentDailyValue;
 import com.github.ignasbudreika.portfollow.model.InvestmentTransaction;
 import com.github.ignasbudreika.portfollow.model.User;
 import org.junit.jupiter.api.Assertions;
@@ -21,6 +22,7 @@ import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -36,9 +38,11 @@ class StockServiceTest {
     private static final String CURRENCY_SYMBOL = "EUR";
     private static final BigDecimal CURRENCY_QUANTITY = BigDecimal.TEN;
     private static final String USER_ID = "56d1dd5d-ebb4-45da-84d3-92f7e21abe08";
+    private static final String INVESTMENT_ID = "a1fa6d4a-9a52-4e0a-a8f8-1c4b0d4e4b1e";
     private final StatisticsService statisticsService = mock(StatisticsService.class);
     private final InvestmentService investmentService = mock(InvestmentService.class);
-    private final StockService target = new StockService(statisticsService, investmentService);
+    private final InvestmentDailyValueService investmentDailyValueService = mock(InvestmentDailyValueService.class);
+    private final StockService target = new StockService(statisticsService, investmentService, investmentDailyValueService);
 
     @Test
     void shouldCreateStockInvestment() throws BusinessLogicException, URISyntaxException, IOException, InterruptedException {
@@ -130,4 +134,44 @@ class StockServiceTest {
         Assertions.assertEquals(BigDecimal.TEN, result.getTrend());
         Assertions.assertEquals(BigDecimal.TEN, result.getTotalChange());
     }
+
+    @Test
+    void shouldGetStockInvestmentsStatsFromDailyValues() {
+        Asset stockAsset = Asset.builder()
+                .id(ASSET_ID)
+                .price(ASSET_PRICE)
+                .symbol(ASSET_SYMBOL)
+                .type(InvestmentType.STOCK).build();
+        Investment stockInvestment = Investment.builder()
+                .id(INVESTMENT_ID)
+                .date(LocalDate.now())
+                .asset(stockAsset)
+                .symbol(ASSET_SYMBOL)
+                .type(InvestmentType.STOCK)
+                .updateType(InvestmentUpdateType.MANUAL)
+                .transactions(Set.of()).build();
+        InvestmentDailyValue value = InvestmentDailyValue.builder()
+                .investment(stockInvestment)
+                .date(LocalDate.now())
+                .quantity(BigDecimal.valueOf(2))
+                .price(ASSET_PRICE)
+                .value(BigDecimal.valueOf(20))
+                .costBasis(BigDecimal.valueOf(15))
+                .proceeds(BigDecimal.ZERO).build();
+
+        when(investmentService.getInvestmentsByUserIdAndType(USER_ID, InvestmentType.STOCK))
+                .thenReturn(List.of(stockInvestment));
+        when(investmentDailyValueService.getValuesAt(anyCollection(), eq(LocalDate.now())))
+                .thenReturn(Map.of(INVESTMENT_ID, value));
+        when(statisticsService.calculateTotalChange(anyCollection())).thenReturn(BigDecimal.ZERO);
+
+
+        InvestmentStatsDTO result = target.getUserStockInvestmentsStats(USER_ID);
+
+
+        verify(statisticsService).calculateTotalChange(List.of());
+
+        Assertions.assertEquals(BigDecimal.valueOf(20), result.getTotalValue());
+        Assertions.assertEquals(BigDecimal.valueOf(5), result.getTotalChange());
+    }
 }
@@ -0,0 +1,86 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.event.AssetPricesChangedEvent;
+import com.github.ignasbudreika.portfollow.event.PortfolioChangedEvent;
+import com.github.ignasbudreika.portfollow.repository.InvestmentRepository;
+import com.github.ignasbudreika.portfollow.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class UserDataVersionServiceTest {
+    private static final String USER_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
+    private static final String ASSET_ID = "8d003914-3090-49be-8b68-a104bd388d51";
+    private final InvestmentRepository investmentRepository = mock(InvestmentRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserDataVersionService target = new UserDataVersionService(investmentRepository, userRepository);
+
+    @Test
+    void shouldReturnStoredVersion_whenChangedToday() {
+        long changedAt = System.currentTimeMillis();
+        when(userRepository.getDataVersion(USER_ID)).thenReturn(changedAt);
+
+
+        UserDataVersionService.Version result = target.getVersion(USER_ID);
+
+
+        Assertions.assertEquals(changedAt, result.getLastModified());
+    }
+
+    @Test
+    void shouldReturnStartOfDay_whenNotChangedToday() {
+        long startOfDay = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        when(userRepository.getDataVersion(USER_ID)).thenReturn(startOfDay - 1);
+
+
+        UserDataVersionService.Version result = target.getVersion(USER_ID);
+
+
+        Assertions.assertEquals(startOfDay, result.getLastModified());
+    }
+
+    @Test
+    void shouldReturnDifferentETags_whenVersionMoves() {
+        long changedAt = System.currentTimeMillis();
+        when(userRepository.getDataVersion(USER_ID)).thenReturn(changedAt, changedAt + 1);
+
+
+        UserDataVersionService.Version before = target.getVersion(USER_ID);
+        UserDataVersionService.Version after = target.getVersion(USER_ID);
+
+
+        Assertions.assertNotEquals(before.getETag(), after.getETag());
+    }
+
+    @Test
+    void shouldMoveVersionForward_whenPortfolioChanges() {
+        target.onPortfolioChanged(new PortfolioChangedEvent(USER_ID));
+
+
+        verify(userRepository).updateDataVersion(eq(List.of(USER_ID)), anyLong());
+    }
+
+    @Test
+    void shouldMoveHoldersForward_whenAssetPricesChange() {
+        when(investmentRepository.findAllUserIdsByAssetIdIn(List.of(ASSET_ID))).thenReturn(List.of(USER_ID));
+
+
+        target.onAssetPricesChanged(new AssetPricesChangedEvent(List.of(ASSET_ID)));
+
+
+        verify(userRepository).updateDataVersion(eq(List.of(USER_ID)), anyLong());
+    }
+
+    @Test
+    void shouldNotQueryHolders_whenNoAssetsChanged() {
+        target.onAssetPricesChanged(new AssetPricesChangedEvent(List.of()));
+
+
+        verifyNoInteractions(investmentRepository, userRepository);
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.github.ignasbudreika.portfollow.event.PortfolioSettingsChangedEvent;
+import com.github.ignasbudreika.portfollow.model.User;
+import com.github.ignasbudreika.portfollow.model.UserPrincipal;
+import com.github.ignasbudreika.portfollow.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+class UserPrincipalCacheServiceTest {
+    private static final String USER_ID = "9f259780-8b4d-48ba-9c65-103ef1ea15a2";
+    private static final String PORTFOLIO_ID = "11113914-3090-49be-8b68-a104bd388d51";
+    private static final String GOOGLE_ID = "107523865327153212387";
+    private static final String EMAIL = "user@e.mail";
+    private static final String USERNAME = "user";
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserPrincipalCacheService target = new UserPrincipalCacheService(userRepository, Duration.ofMinutes(1), 100);
+
+    @Test
+    void shouldLoadUserOnce() {
+        when(userRepository.getByGoogleId(GOOGLE_ID)).thenReturn(user());
+
+
+        target.getByGoogleId(GOOGLE_ID);
+        UserPrincipal result = target.getByGoogleId(GOOGLE_ID);
+
+
+        verify(userRepository, times(1)).getByGoogleId(GOOGLE_ID);
+        Assertions.assertEquals(USER_ID, result.getId());
+        Assertions.assertEquals(EMAIL, result.getEmail());
+        Assertions.assertEquals(USERNAME, result.getUsername());
+        Assertions.assertEquals(GOOGLE_ID, result.getName());
+    }
+
+    @Test
+    void shouldLoadUserAgain_whenSettingsChange() {
+        when(userRepository.getByGoogleId(GOOGLE_ID)).thenReturn(user());
+        target.getByGoogleId(GOOGLE_ID);
+
+
+        target.onPortfolioSettingsChanged(new PortfolioSettingsChangedEvent(PORTFOLIO_ID, USER_ID));
+        target.getByGoogleId(GOOGLE_ID);
+
+
+        verify(userRepository, times(2)).getByGoogleId(GOOGLE_ID);
+    }
+
+    @Test
+    void shouldNotKeepUnknownUser() {
+        when(userRepository.getByGoogleId(GOOGLE_ID)).thenReturn(null, user());
+
+
+        UserPrincipal result = target.getByGoogleId(GOOGLE_ID);
+
+
+        Assertions.assertNull(result);
+        Assertions.assertNotNull(target.getByGoogleId(GOOGLE_ID));
+    }
+
+    private User user() {
+        return User.builder()
+                .id(USER_ID)
+                .email(EMAIL)
+                .username(USERNAME)
+                .googleId(GOOGLE_ID).build();
+    }
+}
@@ -3,9 +3,15 @@ package com.github.ignasbudreika.portfollow.service;
 import com.github.ignasbudreika.portfollow.model.User;
 import com.github.ignasbudreika.portfollow.repository.UserRepository;
 import jakarta.persistence.EntityExistsException;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.mockito.Mockito.*;
 
@@ -15,7 +21,8 @@ class UserServiceTest {
     private static final String USER_EMAIL = "test@e.mail";
     private static final String USER_USERNAME = "John Doe";
     private final UserRepository userRepository = mock(UserRepository.class);
-    private final UserService target = new UserService(userRepository);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final UserService target = new UserService(userRepository, entityManager);
 
     @Test
     void shouldCreateUser() {
@@ -57,4 +64,38 @@ class UserServiceTest {
 
         verify(userRepository, never()).save(any(User.class));
     }
+
+    @Test
+    void shouldIterateAllUsersPageByPage() {
+        List<User> firstPage = IntStream.range(0, 500).mapToObj(i -> User.builder().id(String.format("%04d", i)).build()).toList();
+        List<User> secondPage = List.of(User.builder().id(USER_ID).build());
+
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc("", PageRequest.ofSize(500))).thenReturn(firstPage);
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc("0499", PageRequest.ofSize(500))).thenReturn(secondPage);
+
+
+        List<User> result = new ArrayList<>();
+        target.getAllPaged().forEach(result::add);
+
+
+        verify(userRepository, times(2)).findAllByIdGreaterThanOrderByIdAsc(any(), any());
+        verify(userRepository, never()).findAll();
+
+        Assertions.assertEquals(501, result.size());
+        Assertions.assertEquals(USER_ID, result.get(500).getId());
+    }
+
+    @Test
+    void shouldNotLoadNextPage_whenPageIsNotFull() {
+        when(userRepository.findAllByIdGreaterThanOrderByIdAsc("", PageRequest.ofSize(500))).thenReturn(List.of(User.builder().id(USER_ID).build()));
+
+
+        List<User> result = new ArrayList<>();
+        target.getAllPaged().forEach(result::add);
+
+
+        verify(userRepository, times(1)).findAllByIdGreaterThanOrderByIdAsc(any(), any());
+
+        Assertions.assertEquals(1, result.size());
+    }
 }
@@ -0,0 +1,76 @@
+package com.github.ignasbudreika.portfollow.service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.*;
+
+class VerifiedIdTokenCacheServiceTest {
+    private static final String ID_TOKEN = "header.payload.signature";
+    private static final String OTHER_ID_TOKEN = "other.payload.signature";
+    private final GoogleIdTokenVerifier verifier = mock(GoogleIdTokenVerifier.class);
+    private final VerifiedIdTokenCacheService target = new VerifiedIdTokenCacheService(verifier, 1);
+
+    @Test
+    void shouldVerifyOnce_untilTokenExpires() throws Exception {
+        GoogleIdToken token = token(System.currentTimeMillis() / 1000 + 3600);
+        when(verifier.verify(ID_TOKEN)).thenReturn(token);
+
+
+        target.verify(ID_TOKEN);
+        GoogleIdToken result = target.verify(ID_TOKEN);
+
+
+        Assertions.assertSame(token, result);
+        verify(verifier, times(1)).verify(ID_TOKEN);
+        Assertions.assertEquals(1, target.getHits());
+    }
+
+    @Test
+    void shouldVerifyAgain_whenTokenIsExpired() throws Exception {
+        when(verifier.verify(ID_TOKEN)).thenReturn(token(System.currentTimeMillis() / 1000 - 1));
+
+
+        target.verify(ID_TOKEN);
+        target.verify(ID_TOKEN);
+
+
+        verify(verifier, times(2)).verify(ID_TOKEN);
+        Assertions.assertEquals(0, target.getSize());
+    }
+
+    @Test
+    void shouldNotCacheInvalidToken() throws Exception {
+        when(verifier.verify(ID_TOKEN)).thenReturn(null);
+
+
+        GoogleIdToken result = target.verify(ID_TOKEN);
+
+
+        Assertions.assertNull(result);
+        Assertions.assertEquals(0, target.getSize());
+    }
+
+    @Test
+    void shouldKeepAtMostMaxTokens() throws Exception {
+        when(verifier.verify(ID_TOKEN)).thenReturn(token(System.currentTimeMillis() / 1000 + 3600));
+        when(verifier.verify(OTHER_ID_TOKEN)).thenReturn(token(System.currentTimeMillis() / 1000 + 3600));
+
+
+        target.verify(ID_TOKEN);
+        target.verify(OTHER_ID_TOKEN);
+
+
+        Assertions.assertEquals(1, target.getSize());
+    }
+
+    private GoogleIdToken token(long expirationTimeSeconds) {
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload();
+        payload.setExpirationTimeSeconds(expirationTimeSeconds);
+
+        return new GoogleIdToken(new JsonWebSignature.Header(), payload, new byte[0], new byte[0]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.ignasbudreika.portfollow.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+class FixedPointTest {
+
+    @Test
+    void shouldConvertToAndFromBigDecimal() {
+        long result = FixedPoint.of(new BigDecimal("12.5"));
+
+
+        Assertions.assertEquals(1_250_000_000L, result);
+        Assertions.assertEquals(new BigDecimal("12.50000000"), FixedPoint.toBigDecimal(result));
+        Assertions.assertEquals(1L, FixedPoint.of(new BigDecimal("0.000000005")));
+    }
+
+    @Test
+    void shouldMultiplyLikeBigDecimal() {
+        String[][] operands = {
+                {"1.5", "10"},
+                {"0.00000001", "0.5"},
+                {"-0.00000001", "0.5"},
+                {"3.33333333", "-3"},
+                {"1234.56789012", "45678.12345678"},
+                {"-250000.12345678", "98765.4321"},
+                {"0.123", "0"}
+        };
+
+        for (String[] operand : operands) {
+            BigDecimal first = new BigDecimal(operand[0]);
+            BigDecimal second = new BigDecimal(operand[1]);
+
+
+            long result = FixedPoint.multiply(FixedPoint.of(first), FixedPoint.of(second));
+
+
+            Assertions.assertEquals(first.multiply(second).setScale(FixedPoint.SCALE, RoundingMode.HALF_UP), FixedPoint.toBigDecimal(result));
+        }
+    }
+
+    @Test
+    void shouldThrowArithmeticException_whenResultOverflows() {
+        long large = FixedPoint.of(new BigDecimal("50000000000"));
+
+        Assertions.assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(large, large));
+        Assertions.assertThrows(ArithmeticException.class, () -> FixedPoint.add(Long.MAX_VALUE, FixedPoint.ONE));
+        Assertions.assertThrows(ArithmeticException.class, () -> FixedPoint.of(new BigDecimal("1E+12")));
+    }
+}